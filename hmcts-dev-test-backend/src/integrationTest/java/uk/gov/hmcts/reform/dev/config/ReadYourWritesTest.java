@@ -0,0 +1,94 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The replicas profile with real lag: each replica is a database of its own that only catches up
+// when the test calls LocalReplication, so anything read from a replica is visibly behind
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ryw-primary",
+    "tasks.replicas.urls=jdbc:h2:mem:ryw-replica;DB_CLOSE_DELAY=-1",
+    "tasks.replicas.local-lag=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("replicas")
+class ReadYourWritesTest {
+
+    private static final String WRITER = "writer";
+    private static final String OTHER = "someone-else";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LocalReplication replication;
+
+    @Test
+    void writer_ShouldReadItsOwnWriteWhileOthersSeeTheReplica() throws Exception {
+        String title = "Replicated " + UUID.randomUUID();
+        mockMvc.perform(post("/api/tasks").header(ReadYourWritesFilter.CLIENT_ID_HEADER, WRITER)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"status\":\"TODO\"}"))
+                .andExpect(status().isCreated());
+
+        assertThat(list(WRITER)).contains(title);
+        assertThat(export(WRITER)).contains(title);
+        assertThat(list(OTHER)).doesNotContain(title);
+        assertThat(export(OTHER)).doesNotContain(title);
+
+        replication.copy();
+
+        assertThat(list(OTHER)).contains(title);
+    }
+
+    @Test
+    void getById_WhenTheReplicaIsBehind_ShouldStillLoadTheTaskFromThePrimary() throws Exception {
+        String created = mockMvc.perform(post("/api/tasks")
+                        .header(ReadYourWritesFilter.CLIENT_ID_HEADER, WRITER)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Cached\",\"status\":\"TODO\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        // Not on the replica yet - a cache load from it would 404, or worse cache an old version
+        mockMvc.perform(get("/api/tasks/{id}", id).header(ReadYourWritesFilter.CLIENT_ID_HEADER, OTHER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Cached"));
+    }
+
+    private String list(String client) throws Exception {
+        return mockMvc.perform(get("/api/tasks").header(ReadYourWritesFilter.CLIENT_ID_HEADER, client))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    // Streamed on an async thread, which has to keep the request's routing
+    private String export(String client) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/tasks/export")
+                        .header(ReadYourWritesFilter.CLIENT_ID_HEADER, client))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,83 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Both replicas are the primary's own database, as in the replicas profile - we're checking where
+// connections come from, not replication
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "tasks.replicas.enabled=true",
+    "tasks.replicas.urls=jdbc:h2:mem:testdb,jdbc:h2:mem:testdb"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyTransactions_ShouldBeServedByAReplica() {
+        double before = reads("primary");
+        double replicaBefore = replicaReads();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> taskRepository.count());
+
+        assertThat(replicaReads()).isEqualTo(replicaBefore + 1);
+        assertThat(reads("primary")).isEqualTo(before);
+    }
+
+    @Test
+    void writes_ShouldGoToThePrimary() {
+        double replicaBefore = replicaReads();
+        Task task = new Task();
+        task.setTitle("Written to the primary");
+        task.setStatus(TaskStatus.TODO);
+
+        Long id = new TransactionTemplate(transactionManager).execute(status -> taskRepository.save(task).getId());
+
+        assertThat(replicaReads()).isEqualTo(replicaBefore);
+        assertThat(taskRepository.findResponseById(id)).isPresent();
+    }
+
+    @Test
+    void readOnlyTransactions_WhenPinnedToThePrimary_ShouldNotTouchTheReplicas() {
+        double replicaBefore = replicaReads();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        ReplicaPool.usePrimary();
+        try {
+            readOnly.executeWithoutResult(status -> taskRepository.count());
+        } finally {
+            ReplicaPool.clearPrimary();
+        }
+
+        assertThat(replicaReads()).isEqualTo(replicaBefore);
+    }
+
+    private double replicaReads() {
+        return reads("replica-1") + reads("replica-2");
+    }
+
+    private double reads(String target) {
+        Counter counter = meterRegistry.find(ReplicaPool.READS).tag("target", target).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,9 @@
+package uk.gov.hmcts.reform.dev.controllers;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@ActiveProfiles("memory")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:task-api-memory")
+class TaskApiInMemoryTest extends TaskApiTest {
+}
@@ -0,0 +1,22 @@
+package uk.gov.hmcts.reform.dev.controllers;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Path;
+
+@ActiveProfiles("journal")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:task-api-journal")
+class TaskApiJournaledTest extends TaskApiTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("tasks.journal.directory", () -> directory.toString());
+    }
+}
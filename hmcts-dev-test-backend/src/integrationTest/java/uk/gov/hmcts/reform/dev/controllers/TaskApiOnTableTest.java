@@ -0,0 +1,9 @@
+package uk.gov.hmcts.reform.dev.controllers;
+
+import org.springframework.test.context.TestPropertySource;
+
+// The default profile - tasks in the tasks table. A database of its own so the tasks other test
+// classes leave behind don't turn up in its lists and claims
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:task-api-table")
+class TaskApiOnTableTest extends TaskApiTest {
+}
@@ -0,0 +1,259 @@
+package uk.gov.hmcts.reform.dev.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskUpdateRequest;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.services.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The task API from the controller down, run once per {@code TaskStore} - each subclass boots the
+ * application with one store's profile. Everything here goes through the real services, listeners
+ * and transaction manager, so a store that behaves differently from the tasks table shows up here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+abstract class TaskApiTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void task_ShouldGoThroughItsWholeLifecycle() throws Exception {
+        TaskResponse task = create(unique("Lifecycle"), TaskStatus.TODO);
+        long id = task.getId();
+
+        mockMvc.perform(get("/api/tasks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(id, 0)))
+                .andExpect(jsonPath("$.title").value(task.getTitle()));
+
+        mockMvc.perform(put("/api/tasks/{id}", id).header(HttpHeaders.IF_MATCH, etag(id, 0))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andExpect(jsonPath("$.status").value("TODO"))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(put("/api/tasks/{id}", id).header(HttpHeaders.IF_MATCH, etag(id, 0))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Too late\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/tasks/{id}/status", id).param("status", "COMPLETED").param("version", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andExpect(jsonPath("$.version").value(2));
+        mockMvc.perform(patch("/api/tasks/{id}/status", id).param("status", "TODO").param("version", "1"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/tasks/{id}", id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks/{id}", id)).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/tasks/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void ifMatchAny_ShouldWriteAnyVersionButFailOnAMissingTask() throws Exception {
+        long id = create(unique("Any version"), TaskStatus.TODO).getId();
+
+        mockMvc.perform(put("/api/tasks/{id}", id).header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/tasks/{id}/status", id).param("status", "COMPLETED")
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+
+        mockMvc.perform(delete("/api/tasks/{id}", id)).andExpect(status().isNoContent());
+        mockMvc.perform(put("/api/tasks/{id}", id).header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Gone\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/tasks/{id}/status", id).param("status", "TODO")
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void bulk_ShouldCreateAndUpdateInOneGoAndReportMissingTasks() throws Exception {
+        String title = unique("Bulk");
+        String created = "[{\"title\":\"" + title + " 1\",\"status\":\"TODO\"},"
+                + "{\"title\":\"\",\"status\":\"TODO\"},"
+                + "{\"title\":\"" + title + " 2\",\"status\":\"TODO\"}]";
+        MvcResult result = mockMvc.perform(post("/api/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON).content(created))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status").value(contains(201, 400, 201)))
+                .andReturn();
+        long first = objectMapper.readTree(result.getResponse().getContentAsString()).get(0).at("/task/id").asLong();
+
+        String updated = "[{\"id\":" + first + ",\"status\":\"IN_PROGRESS\"},"
+                + "{\"id\":" + first + ",\"title\":\"" + title + " renamed\"},"
+                + "{\"id\":999999999,\"title\":\"Ghost\"}]";
+        mockMvc.perform(put("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON).content(updated))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status").value(contains(200, 200, 404)))
+                .andExpect(jsonPath("$[0].task.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$[0].task.title").value(title + " renamed"))
+                .andExpect(jsonPath("$[0].task.version").value(1));
+
+        mockMvc.perform(get("/api/tasks/{id}", first))
+                .andExpect(jsonPath("$.title").value(title + " renamed"))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    void list_ShouldPageThroughTasksByCursor() throws Exception {
+        String title = unique("Paged");
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(create(title, TaskStatus.TODO).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/tasks").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult page = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            objectMapper.readTree(page.getResponse().getContentAsString())
+                    .forEach(task -> seen.add(task.get("id").asLong()));
+            cursor = page.getResponse().getHeader(TaskController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(created);
+    }
+
+    @Test
+    void claim_ShouldHandOutEachTaskOnceAndMoveItToInProgress() throws Exception {
+        TaskResponse task = create(unique("Claimable"), TaskStatus.TODO);
+
+        List<Long> claimed = new ArrayList<>();
+        JsonNode batch;
+        do {
+            MvcResult result = mockMvc.perform(post("/api/tasks/claim/batch").param("limit", "7"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].status").value(everyItem(is("IN_PROGRESS"))))
+                    .andReturn();
+            batch = objectMapper.readTree(result.getResponse().getContentAsString());
+            batch.forEach(claimedTask -> claimed.add(claimedTask.get("id").asLong()));
+        } while (!batch.isEmpty());
+
+        assertThat(claimed).doesNotHaveDuplicates().contains(task.getId());
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void export_ShouldStreamEveryTask() throws Exception {
+        TaskResponse task = create(unique("Exported"), TaskStatus.TODO);
+
+        MvcResult started = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).anyMatch(line -> line.contains("\"title\":\"" + task.getTitle() + "\""));
+    }
+
+    @Test
+    void rollback_ShouldLeaveTheStoreAndEveryListenerAsTheyWere() throws Exception {
+        TaskResponse task = create(unique("Rolled back"), TaskStatus.TODO);
+        long total = stats("/total");
+        String lost = unique("Never");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+            taskService.createTask(new TaskCreateRequest(lost, null, TaskStatus.TODO, DUE));
+            taskService.updateTask(task.getId(), new TaskUpdateRequest(lost, null, TaskStatus.IN_PROGRESS, null));
+            taskService.changeTaskStatus(task.getId(), TaskStatus.COMPLETED, null);
+            transaction.setRollbackOnly();
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+            taskService.deleteTask(task.getId());
+            transaction.setRollbackOnly();
+        });
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(task.getTitle()))
+                .andExpect(jsonPath("$.status").value("TODO"))
+                .andExpect(jsonPath("$.version").value(0));
+        mockMvc.perform(get("/api/tasks/search").param("q", lost))
+                .andExpect(jsonPath("$").isEmpty());
+        assertThat(stats("/total")).isEqualTo(total);
+
+        // And the task is still writable at the version it was left at
+        mockMvc.perform(patch("/api/tasks/{id}/status", task.getId()).param("status", "COMPLETED")
+                        .param("version", "0"))
+                .andExpect(status().isOk());
+    }
+
+    private TaskResponse create(String title, TaskStatus status) throws Exception {
+        String body = objectMapper.writeValueAsString(new TaskCreateRequest(title, null, status, DUE));
+        MvcResult result = mockMvc.perform(post("/api/tasks").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), TaskResponse.class);
+    }
+
+    private long stats(String pointer) throws Exception {
+        String body = mockMvc.perform(get("/api/tasks/stats")).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).at(pointer).asLong();
+    }
+
+    private static String etag(long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // The context lives on between tests, so each one works on tasks it can tell apart
+    private static String unique(String title) {
+        return title + " " + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
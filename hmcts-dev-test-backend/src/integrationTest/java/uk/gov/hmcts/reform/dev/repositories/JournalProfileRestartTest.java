@@ -0,0 +1,90 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.gov.hmcts.reform.dev.Application;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.TaskEvent;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.services.IdempotencyService;
+import uk.gov.hmcts.reform.dev.services.IdempotencyService.Idempotent;
+import uk.gov.hmcts.reform.dev.services.TaskService;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The journal profile started, stopped and started again on the same data directory - everything a
+// client or consumer was told before the restart has to still hold after it
+class JournalProfileRestartTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restart_ShouldKeepTasksTombstonesLogOffsetsAndIdempotencyKeys() {
+        AtomicInteger runs = new AtomicInteger();
+        long kept;
+        long deleted;
+        long lastOffset;
+        try (ConfigurableApplicationContext app = start()) {
+            TaskService taskService = app.getBean(TaskService.class);
+            kept = create(app, runs).getId();
+            deleted = taskService.createTask(request("Deleted")).getId();
+            taskService.deleteTask(deleted);
+            lastOffset = lastOffset(app);
+        }
+
+        try (ConfigurableApplicationContext app = start()) {
+            TaskService taskService = app.getBean(TaskService.class);
+            assertThat(taskService.getTaskById(kept)).isPresent();
+            assertThat(app.getBean(TaskTombstoneRepository.class).existsById(deleted)).isTrue();
+            assertThat(app.getBean(TaskEventRepository.class).count()).isEqualTo(3);
+
+            Idempotent<TaskResponse> retried = create(app, runs);
+            assertThat(retried.replayed()).isTrue();
+            assertThat(retried.body().getId()).isEqualTo(kept);
+            assertThat(runs).hasValue(1);
+
+            long created = taskService.createTask(request("After")).getId();
+            assertThat(created).isGreaterThan(deleted);
+            assertThat(lastOffset(app)).isGreaterThan(lastOffset);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class).run(
+                "--spring.profiles.active=journal",
+                "--spring.main.web-application-type=none",
+                "--tasks.journal.directory=" + directory.resolve("journal"),
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("db/tasks") + ";DB_CLOSE_ON_EXIT=FALSE"
+        );
+    }
+
+    // Through the idempotency service, the way POST /api/tasks with an Idempotency-Key goes
+    private static Idempotent<TaskResponse> create(ConfigurableApplicationContext app, AtomicInteger runs) {
+        TaskCreateRequest request = request("Kept");
+        return app.getBean(IdempotencyService.class).execute("restart-key", "create", request,
+                new TypeReference<TaskResponse>() {}, () -> {
+                    runs.incrementAndGet();
+                    return app.getBean(TaskService.class).createTask(request);
+                });
+    }
+
+    private static long lastOffset(ConfigurableApplicationContext app) {
+        return app.getBean(TaskEventRepository.class).findAll().stream()
+                .map(TaskEvent::getId)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+    }
+
+    private static TaskCreateRequest request(String title) {
+        return new TaskCreateRequest(title, null, TaskStatus.TODO, null);
+    }
+}
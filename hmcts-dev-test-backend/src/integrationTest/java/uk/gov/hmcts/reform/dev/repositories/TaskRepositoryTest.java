@@ -0,0 +1,311 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSort;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskEvent;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.models.TaskTombstone;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "uk.gov.hmcts.reform.dev.repositories.TaskRepositoryTest$LastStatement")
+class TaskRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0, 0);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TaskEventRepository eventRepository;
+
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            // Every fifth task has no due date, to exercise the null tail of the keyset
+            task.setDueDate(i % 5 == 0 ? null : BASE.plusDays(i % 30));
+            tasks.add(task);
+        }
+        taskRepository.saveAllAndFlush(tasks);
+        entityManager.clear();
+    }
+
+    @Test
+    void findResponses_ShouldApplyEveryCriterion() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatus(Set.of(TaskStatus.TODO, TaskStatus.COMPLETED));
+        filter.setDueFrom(BASE.plusDays(10));
+        filter.setDueTo(BASE.plusDays(12));
+
+        List<TaskResponse> result = taskRepository.findResponses(filter, null, null, 1000);
+
+        assertThat(result).isNotEmpty().allSatisfy(task -> {
+            assertThat(task.getStatus()).isIn(TaskStatus.TODO, TaskStatus.COMPLETED);
+            assertThat(task.getDueDate()).isBetween(BASE.plusDays(10), BASE.plusDays(12));
+        });
+    }
+
+    @Test
+    void countQueries_ShouldMatchTheRowsTheyAggregate() {
+        List<Task> all = taskRepository.findAll();
+
+        assertThat(taskRepository.countByStatus())
+                .extracting(TaskStore.StatusCount::getStatus, TaskStore.StatusCount::getCount)
+                .containsExactlyInAnyOrder(all.stream()
+                        .collect(Collectors.groupingBy(Task::getStatus, Collectors.counting()))
+                        .entrySet().stream()
+                        .map(entry -> tuple(entry.getKey(), entry.getValue()))
+                        .toArray(Tuple[]::new));
+
+        Map<LocalDate, Long> expectedOpenByDay = all.stream()
+                .filter(task -> task.getStatus() == TaskStatus.TODO || task.getStatus() == TaskStatus.IN_PROGRESS)
+                .filter(task -> task.getDueDate() != null)
+                .collect(Collectors.groupingBy(task -> task.getDueDate().toLocalDate(), Collectors.counting()));
+        assertThat(taskRepository.countOpenByDueDay())
+                .extracting(TaskStore.DayCount::getDay, TaskStore.DayCount::getCount)
+                .containsExactlyInAnyOrder(expectedOpenByDay.entrySet().stream()
+                        .map(entry -> tuple(entry.getKey(), entry.getValue()))
+                        .toArray(Tuple[]::new));
+    }
+
+    @Test
+    void findResponses_WhenPagingByDueDate_ShouldVisitEveryTaskOnceWithUndatedTasksLast() {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            TaskFilter filter = new TaskFilter();
+            filter.setSort(TaskSort.DUE_DATE);
+            filter.setDirection(direction);
+
+            List<TaskResponse> seen = new ArrayList<>();
+            List<TaskResponse> page = taskRepository.findResponses(filter, null, null, 37);
+            while (!page.isEmpty()) {
+                seen.addAll(page);
+                TaskResponse last = page.get(page.size() - 1);
+                page = taskRepository.findResponses(filter, last.getDueDate(), last.getId(), 37);
+            }
+
+            assertThat(seen).extracting(TaskResponse::getId).hasSize(400).doesNotHaveDuplicates();
+            assertThat(seen.subList(320, 400)).allSatisfy(task -> assertThat(task.getDueDate()).isNull());
+        }
+    }
+
+    @Test
+    void findResponsesChangedAfter_WhenPaging_ShouldVisitEveryTaskOnceEvenWithTiedTimestamps() {
+        LocalDateTime upTo = LocalDateTime.now().plusMinutes(1);
+        List<TaskResponse> seen = new ArrayList<>();
+        List<TaskResponse> page = taskRepository.findResponsesChangedAfter(
+                LocalDateTime.of(1970, 1, 1, 0, 0), Long.MAX_VALUE, upTo, Limit.of(37));
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            TaskResponse last = page.get(page.size() - 1);
+            page = taskRepository.findResponsesChangedAfter(last.getUpdatedAt(), last.getId(), upTo, Limit.of(37));
+        }
+
+        assertThat(seen).extracting(TaskResponse::getId).hasSize(400).doesNotHaveDuplicates();
+        assertThat(explainLastStatement(seen.get(399).getUpdatedAt(), seen.get(399).getUpdatedAt(),
+                seen.get(399).getId(), upTo, 37)).contains("IDX_TASKS_UPDATED_AT_ID");
+    }
+
+    @Test
+    void findTaskIdsDeletedBetween_ShouldOnlyReturnTheWindow() {
+        tombstoneRepository.saveAllAndFlush(List.of(
+                new TaskTombstone(1L, BASE),
+                new TaskTombstone(2L, BASE.plusHours(1)),
+                new TaskTombstone(3L, BASE.plusHours(2))));
+
+        assertThat(tombstoneRepository.findTaskIdsDeletedBetween(BASE, BASE.plusHours(2))).containsExactly(2L, 3L);
+        assertThat(tombstoneRepository.deleteOlderThan(BASE.plusHours(1))).isEqualTo(1);
+    }
+
+    @Test
+    void compaction_ShouldKeepTheLatestEventPerTaskAndDropOldDeletes() {
+        eventRepository.saveAllAndFlush(List.of(
+                event(1L, "created", BASE),
+                event(1L, "updated", BASE.plusHours(1)),
+                event(1L, "status_changed", BASE.plusHours(2)),
+                event(2L, "created", BASE),
+                event(2L, "deleted", BASE.plusHours(1)),
+                // Recent enough that nothing for task 3 is touched yet
+                event(3L, "created", BASE.plusDays(10)),
+                event(3L, "updated", BASE.plusDays(10))));
+
+        assertThat(eventRepository.deleteSupersededBefore(BASE.plusDays(1))).isEqualTo(3);
+        assertThat(eventRepository.deleteDeletionsBefore(BASE.plusDays(1))).isEqualTo(1);
+
+        List<TaskEvent> remaining = eventRepository.findAfter(0L, Long.MAX_VALUE, Limit.of(100));
+        assertThat(remaining).extracting(TaskEvent::getTaskId, TaskEvent::getType).containsExactly(
+                tuple(1L, "status_changed"), tuple(3L, "created"), tuple(3L, "updated"));
+    }
+
+    @Test
+    void findResponses_WhenFilteringOnStatusAndDueDate_ShouldUseStatusDueDateIndex() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatus(Set.of(TaskStatus.TODO));
+        filter.setDueFrom(BASE.plusDays(3));
+        filter.setDueTo(BASE.plusDays(4));
+
+        taskRepository.findResponses(filter, null, null, 50);
+
+        assertThat(explainLastStatement(TaskStatus.TODO.name(), BASE.plusDays(3), BASE.plusDays(4), 50))
+                .contains("IDX_TASKS_STATUS_DUE_DATE");
+    }
+
+    @Test
+    void findResponses_WhenFilteringOnUpdatedWindow_ShouldUseUpdatedAtIndex() {
+        LocalDateTime since = LocalDateTime.now().plusHours(1);
+        TaskFilter filter = new TaskFilter();
+        filter.setUpdatedFrom(since);
+
+        taskRepository.findResponses(filter, null, null, 50);
+
+        assertThat(explainLastStatement(since, 50)).contains("IDX_TASKS_UPDATED_AT");
+    }
+
+    @Test
+    void findResponses_WhenSeekingPastCursor_ShouldUseCreatedAtIndex() {
+        TaskFilter filter = new TaskFilter();
+        LocalDateTime cursor = LocalDateTime.now().minusHours(1);
+
+        taskRepository.findResponses(filter, cursor, 100L, 50);
+
+        assertThat(explainLastStatement(cursor, cursor, 100L, 50)).contains("IDX_TASKS_CREATED_AT_ID");
+    }
+
+    @Test
+    void archiving_ShouldMoveFinishedTasksAndKeepThemReadableWithIncludeArchived() {
+        Set<TaskStatus> finished = Set.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+        LocalDateTime cutoff = LocalDateTime.now().plusMinutes(1);
+        TaskFilter everything = new TaskFilter();
+
+        List<Long> ids = archiveRepository.findArchivable(finished, cutoff, BASE.minusYears(1), 0L, Limit.of(1000))
+                .stream().map(TaskArchiveRepository.TaskKey::getId).toList();
+        List<Long> locked = archiveRepository.lockArchivable(ids, finished, cutoff).stream().map(Task::getId).toList();
+        assertThat(archiveRepository.copyFromTasks(locked)).isEqualTo(ids.size());
+        assertThat(archiveRepository.deleteFromTasks(locked)).isEqualTo(ids.size());
+
+        assertThat(ids).isNotEmpty().hasSameElementsAs(locked);
+        assertThat(taskRepository.findAll()).noneMatch(task -> finished.contains(task.getStatus()));
+        assertThat(archiveRepository.findResponseById(ids.get(0))).get()
+                .extracting(TaskResponse::getStatus).isIn(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+        assertThat(archiveRepository.findResponses(everything, null, null, 1000)).hasSize(ids.size());
+        assertThat(taskRepository.findResponses(everything, null, null, 1000)).hasSize(400 - ids.size());
+    }
+
+    @Test
+    void claim_ShouldMoveTheEarliestDueTodoTasksOnAndLeaveUndatedOnesToLast() {
+        List<TaskResponse> first = taskRepository.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 80);
+        List<TaskResponse> rest = taskRepository.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 80);
+        entityManager.clear();
+
+        assertThat(first).hasSize(80).allMatch(task -> task.getDueDate() != null)
+                .extracting(TaskResponse::getDueDate).isSortedAccordingTo(Comparator.naturalOrder());
+        assertThat(rest).hasSize(20).allMatch(task -> task.getDueDate() == null);
+        assertThat(taskRepository.findResponsesByStatus(TaskStatus.TODO)).isEmpty();
+        assertThat(taskRepository.findById(first.get(0).getId())).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void updateStatus_ShouldWriteWithPlainSqlAndReturnTheTaskAsItWas() {
+        Task task = taskRepository.findAll().get(1);
+        TaskResponse before = taskRepository.findResponseById(task.getId()).orElseThrow();
+        entityManager.clear();
+
+        assertThat(taskRepository.updateStatus(task.getId(), TaskStatus.COMPLETED, BASE, task.getVersion() + 1))
+                .isEmpty();
+        assertThat(taskRepository.updateStatus(task.getId(), TaskStatus.COMPLETED, BASE, task.getVersion()))
+                .get().usingRecursiveComparison().isEqualTo(before);
+        assertThat(LastStatement.sql).startsWithIgnoringCase("update tasks").containsIgnoringCase("and version");
+        assertThat(taskRepository.updateStatus(task.getId(), TaskStatus.CANCELLED, BASE.plusHours(1), null))
+                .get().extracting(TaskResponse::getStatus).isEqualTo(TaskStatus.COMPLETED);
+
+        assertThat(taskRepository.findResponseById(task.getId())).get().satisfies(updated -> {
+            assertThat(updated.getStatus()).isEqualTo(TaskStatus.CANCELLED);
+            assertThat(updated.getUpdatedAt()).isEqualTo(BASE.plusHours(1));
+            assertThat(updated.getVersion()).isEqualTo(task.getVersion() + 2);
+        });
+        assertThat(taskRepository.updateStatus(Long.MAX_VALUE, TaskStatus.COMPLETED, BASE, null)).isEmpty();
+    }
+
+    @Test
+    void updateStatus_ShouldOnlyDetachTheTaskItChanged() {
+        List<Task> tasks = taskRepository.findAll();
+        Task changed = tasks.get(0);
+        Task other = tasks.get(1);
+        other.setTitle("Edited alongside");
+
+        taskRepository.updateStatus(changed.getId(), TaskStatus.COMPLETED, BASE, null);
+
+        assertThat(entityManager.contains(changed)).isFalse();
+        assertThat(entityManager.contains(other)).isTrue();
+        assertThat(taskRepository.findById(changed.getId())).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(taskRepository.findResponseById(other.getId())).get()
+                .extracting(TaskResponse::getTitle).isEqualTo("Edited alongside");
+    }
+
+    private String explainLastStatement(Object... parameters) {
+        Query explain = entityManager.createNativeQuery("EXPLAIN " + LastStatement.sql);
+        for (int i = 0; i < parameters.length; i++) {
+            explain.setParameter(i + 1, parameters[i]);
+        }
+        return explain.getSingleResult().toString().toUpperCase();
+    }
+
+    private static TaskEvent event(Long taskId, String type, LocalDateTime recordedAt) {
+        TaskEvent event = new TaskEvent();
+        event.setTaskId(taskId);
+        event.setType(type);
+        event.setRecordedAt(recordedAt);
+        return event;
+    }
+
+    /**
+     * Captures the SQL Hibernate actually generates, so we explain the real query rather than a hand-written copy.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        private static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+}
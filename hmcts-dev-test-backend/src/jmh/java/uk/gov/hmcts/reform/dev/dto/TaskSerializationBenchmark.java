@@ -0,0 +1,77 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the task list at the sizes it hands out - a search-sized page, the
+ * default page and the maximum. The payload is the plain {@code List<TaskResponse>} the endpoint
+ * returns, written by the ObjectMapper Boot builds from application.yml, so dates come out as the
+ * ISO strings clients actually get.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"20", "50", "500"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<TaskResponse> tasks;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Just Jackson's auto-configuration - enough for Boot's mapper without starting the whole app
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            writer = context.getBean(ObjectMapper.class).writerFor(new TypeReference<List<TaskResponse>>() {
+            });
+        }
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        tasks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            tasks.add(new TaskResponse(id, "Task " + id, "Description for task " + id,
+                    TaskStatus.values()[(int) (id % TaskStatus.values().length)],
+                    now.plusDays(id % 30), now, now, id % 5));
+        }
+
+        String json = new String(serializeList(), StandardCharsets.UTF_8);
+        if (!json.startsWith("[{") || !json.contains("\"createdAt\":\"2025-01-01T10:00:00\"")) {
+            throw new IllegalStateException("Not the JSON the list endpoint serves: "
+                    + json.substring(0, Math.min(json.length(), 200)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return writer.writeValueAsBytes(tasks);
+    }
+}
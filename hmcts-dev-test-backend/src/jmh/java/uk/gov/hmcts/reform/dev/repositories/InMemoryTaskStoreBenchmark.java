@@ -0,0 +1,76 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory store on its own, with four threads reading and writing random tasks at once -
+ * compare with {@code TaskServiceBenchmark} run under the {@code memory} profile to see what's left
+ * above it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InMemoryTaskStoreBenchmark {
+
+    private static final int SEEDED_TASKS = 100_000;
+
+    private InMemoryTaskStore store;
+    private TaskFilter filter;
+
+    @Setup
+    public void setUp() {
+        store = new InMemoryTaskStore();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            task.setDueDate(now.plusDays(i % 90));
+            store.insert(task);
+        }
+        filter = new TaskFilter();
+    }
+
+    @Benchmark
+    public Optional<TaskResponse> findResponseById() {
+        return store.findResponseById(randomId());
+    }
+
+    @Benchmark
+    public List<TaskResponse> findResponsesFirstPage() {
+        return store.findResponses(filter, null, null, 50);
+    }
+
+    @Benchmark
+    public Optional<TaskResponse> updateStatus() {
+        return store.updateStatus(randomId(), TaskStatus.IN_PROGRESS, LocalDateTime.now(), null);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, SEEDED_TASKS + 1);
+    }
+}
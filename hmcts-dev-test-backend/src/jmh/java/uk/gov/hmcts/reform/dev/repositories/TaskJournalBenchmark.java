@@ -0,0 +1,135 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.InMemoryTaskStore.Row;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The task journal at 10M records. {@code append} is durable write throughput - each call waits
+ * for its fsync, and with 16 threads writing that shows how far group commit stretches a flush.
+ * {@code recover} is a cold start over 10M tasks: a snapshot of 9M and a 1M record tail to replay.
+ * Needs the disk the journal would really sit on - point {@code java.io.tmpdir} at it - and the
+ * heap for 10M tasks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class TaskJournalBenchmark {
+
+    private static final int SEGMENT_SIZE = (int) DataSize.ofMegabytes(64).toBytes();
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 10, 0);
+    private static final TaskJournal.Replay DISCARD = new TaskJournal.Replay() {
+        @Override
+        public void put(Row row) {
+        }
+
+        @Override
+        public void delete(long id) {
+        }
+
+        @Override
+        public void sequenceAtLeast(long sequence) {
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class Appending {
+
+        private Path directory;
+        private TaskJournal journal;
+        private Row row;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("task-journal-append");
+            journal = TaskJournal.open(directory, SEGMENT_SIZE, DISCARD);
+            row = row(1);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            journal.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recovering {
+
+        @Param({"10000000"})
+        public int records;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("task-journal-recover");
+            int snapshotAt = records / 10 * 9;
+            try (TaskJournal journal = TaskJournal.open(directory, SEGMENT_SIZE, DISCARD)) {
+                for (int id = 1; id <= records; id++) {
+                    journal.put(row(id));
+                    if (id == snapshotAt) {
+                        journal.snapshot(journal.position(), id, sink -> {
+                            for (int snapshotted = 1; snapshotted <= snapshotAt; snapshotted++) {
+                                sink.accept(row(snapshotted));
+                            }
+                        });
+                    }
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 5, time = 10)
+    public long append(Appending state) {
+        long position = state.journal.put(state.row);
+        state.journal.awaitDurable(position);
+        return position;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long recover(Recovering state) throws IOException {
+        JournaledTaskStore store = new JournaledTaskStore(state.directory, DataSize.ofBytes(SEGMENT_SIZE));
+        long count = store.count();
+        store.close();
+        return count;
+    }
+
+    private static Row row(long id) {
+        return new Row(id, "Task " + id, "Description for task " + id,
+                TaskStatus.values()[(int) (id % TaskStatus.values().length)], NOW.plusDays(id % 30), NOW, NOW, 0);
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search and write latency with a million tasks indexed. Words are drawn from a 20,000-word
+ * vocabulary with a Zipf distribution, the way real text is, so the few common words ("review",
+ * "case") have postings lists hundreds of thousands long and most words have a few hundred.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskSearchIndexBenchmark {
+
+    private static final int TASKS = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+    // The most common words, in order - everything after them is made up
+    private static final String[] COMMON = {
+        "review", "case", "hearing", "bundle", "notes", "file", "evidence", "court", "order", "draft",
+        "call", "applicant", "respondent", "listing", "judge", "urgent", "appeal", "witness", "statement",
+        "payment"
+    };
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "po", "ru", "si", "ta", "vo", "ze"};
+
+    private String[] words;
+    private double[] cumulative;
+    private TaskSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        words = new String[VOCABULARY];
+        cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            words[rank] = rank < COMMON.length ? COMMON[rank] : madeUp(rank);
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+
+        index = new TaskSearchIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= TASKS; id++) {
+            index.index(id, text(random, 3), text(random, 12));
+        }
+    }
+
+    @Benchmark
+    public long[] broadPrefix() {
+        // Two letters while someone's still typing - "re" takes in review, respondent and a few hundred more
+        return index.search("re", 20);
+    }
+
+    @Benchmark
+    public long[] commonTermAndPrefix() {
+        return index.search("hearing bun", 20);
+    }
+
+    @Benchmark
+    public long[] rareTermAndPrefix() {
+        return index.search(words[5_000] + " " + words[7_000].substring(0, 4), 20);
+    }
+
+    @Benchmark
+    public void reindexOlderTask() {
+        // A random existing task gets new text, so its new terms land mid-list - the costly kind of write
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        index.index(random.nextLong(1, TASKS + 1), text(random, 3), text(random, 12));
+    }
+
+    private String text(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        double total = cumulative[VOCABULARY - 1];
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            text.append(words[rank < 0 ? -rank - 1 : rank]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static String madeUp(int rank) {
+        StringBuilder word = new StringBuilder();
+        for (int n = rank; n > 0; n /= SYLLABLES.length) {
+            word.append(SYLLABLES[n % SYLLABLES.length]);
+        }
+        return word.toString();
+    }
+}
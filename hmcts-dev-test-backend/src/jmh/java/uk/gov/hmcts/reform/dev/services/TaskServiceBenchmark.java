@@ -0,0 +1,93 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.gov.hmcts.reform.dev.Application;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskPage;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskService} end to end - proxies, transactions, Hibernate and embedded H2 - without the
+ * HTTP layer. The app is booted once per fork with SQL logging off and a seeded table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int SEEDED_TASKS = 1000;
+
+    private ConfigurableApplicationContext app;
+    private TaskService taskService;
+    private TaskCreateRequest create;
+    private TaskFilter filter;
+    private long cachedId;
+    private long statusId;
+    private int flips;
+
+    @Setup
+    public void setUp() {
+        app = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh",
+                     "--spring.jpa.show-sql=false",
+                     "--logging.level.org.hibernate.SQL=WARN");
+        taskService = app.getBean(TaskService.class);
+
+        create = new TaskCreateRequest("Benchmark", "Created by TaskServiceBenchmark", TaskStatus.TODO, null);
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            taskService.createTask(create);
+        }
+        filter = new TaskFilter();
+        cachedId = taskService.createTask(create).getId();
+        statusId = taskService.createTask(create).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Optional<TaskResponse> getTaskByIdCached() {
+        return taskService.getTaskById(cachedId);
+    }
+
+    @Benchmark
+    public TaskPage getTasksFirstPage() {
+        return taskService.getTasks(filter, null, 50);
+    }
+
+    @Benchmark
+    public TaskResponse createTask() {
+        return taskService.createTask(create);
+    }
+
+    @Benchmark
+    public boolean changeTaskStatus() {
+        // Alternate so every call is a real transition and a real UPDATE
+        TaskStatus status = (flips++ & 1) == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.TODO;
+        return taskService.changeTaskStatus(statusId, status, null);
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Stands in for replication in the {@code replicas} profile. H2 can't replicate, so each replica is
+ * an in-memory database of its own, and every {@code tasks.replicas.local-lag} this copies the
+ * primary's rows over them, one transaction per replica. The replicas run up to that far behind -
+ * long enough to watch another client's reads go stale while the writer's own don't.
+ *
+ * <p>Local only: the copy is every row of every table, each time.
+ */
+@Slf4j
+@Component
+@Profile("replicas")
+public class LocalReplication {
+
+    private final DataSource primary;
+    private final List<String> urls;
+    private final String username;
+    private final String password;
+
+    public LocalReplication(@Qualifier("primaryDataSource") DataSource primary,
+                            DataSourceProperties properties,
+                            @Value("${tasks.replicas.urls:}") List<String> urls) {
+        this.primary = primary;
+        this.urls = urls;
+        this.username = properties.determineUsername();
+        this.password = properties.determinePassword();
+    }
+
+    // Once as soon as Hibernate has made the schema, so the replicas have tables before the first read
+    @EventListener(ApplicationStartedEvent.class)
+    @Scheduled(fixedDelayString = "${tasks.replicas.local-lag:PT3S}",
+            initialDelayString = "${tasks.replicas.local-lag:PT3S}")
+    public void copy() throws SQLException {
+        try (Connection source = primary.getConnection()) {
+            List<String> tables = tables(source);
+            for (String url : urls) {
+                try (Connection target = DriverManager.getConnection(url.trim(), username, password)) {
+                    if (tables(target).isEmpty()) {
+                        createSchema(source, target);
+                    }
+                    target.setAutoCommit(false);
+                    for (String table : tables) {
+                        copy(source, target, table);
+                    }
+                    target.commit();
+                }
+            }
+        }
+    }
+
+    private static List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                     + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rows.next()) {
+                tables.add(rows.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    // The primary's DDL, less the users the replica already has and the row-count comments
+    private static void createSchema(Connection source, Connection target) throws SQLException {
+        try (Statement read = source.createStatement();
+             ResultSet script = read.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS");
+             Statement write = target.createStatement()) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.startsWith("CREATE USER") && !sql.startsWith("--")) {
+                    write.execute(sql);
+                }
+            }
+        }
+        log.info("Created the schema on replica {}", target.getMetaData().getURL());
+    }
+
+    private static void copy(Connection source, Connection target, String table) throws SQLException {
+        String quoted = '"' + table + '"';
+        try (Statement clear = target.createStatement()) {
+            clear.executeUpdate("DELETE FROM " + quoted);
+        }
+        try (Statement read = source.createStatement();
+             ResultSet rows = read.executeQuery("SELECT * FROM " + quoted)) {
+            int columns = rows.getMetaData().getColumnCount();
+            String placeholders = String.join(", ", Collections.nCopies(columns, "?"));
+            try (PreparedStatement insert = target.prepareStatement(
+                    "INSERT INTO " + quoted + " VALUES (" + placeholders + ")")) {
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rows.getObject(i));
+                    }
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+}
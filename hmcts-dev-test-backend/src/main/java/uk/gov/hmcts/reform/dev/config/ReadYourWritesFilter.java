@@ -0,0 +1,67 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes on top of replica routing. After a client writes, its reads go to the primary for
+ * {@code tasks.replicas.read-your-writes}, so it sees its own change however far the replicas are
+ * behind. The writing request itself is kept on the primary too - with open-in-view, the first
+ * transaction in a request picks the connection for the rest of it, and that mustn't be a replica.
+ *
+ * <p>Clients are told apart by {@code X-Client-Id} if they send one, otherwise by address. The
+ * frontend is a single client that way, so a write made through it sends all of its reads to the
+ * primary for a moment - more than it strictly needs, never less. Writes are only remembered by the
+ * instance that took them.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final long MAX_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_CLIENTS)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (!write && recentWriters.getIfPresent(client) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaPool.usePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaPool.clearPrimary();
+            // A write that failed changed nothing, so there's nothing to read back
+            if (write && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId == null || clientId.isBlank() ? request.getRemoteAddr() : clientId;
+    }
+}
@@ -0,0 +1,97 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Read replicas, switched on with {@code tasks.replicas.enabled}. Read-only transactions - which is
+ * every read, since the services are {@code @Transactional(readOnly = true)} - get their connection
+ * from a {@link ReplicaPool}, and everything else from {@code spring.datasource} as before.
+ *
+ * <p>The routing is Spring's {@link LazyConnectionDataSourceProxy}. It holds off fetching the real
+ * connection until the first statement, by which point the transaction has marked it read-only, and
+ * picks the read-only data source if it has been.
+ *
+ * <p>Single-task cache loads, delta sync, the change log and anything that rebuilds in-memory state
+ * from the database run in read-write transactions, so they're served by the primary - state kept
+ * past the request shouldn't be built from a replica that's behind.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "tasks.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    // What Boot would have built for spring.datasource, had we not defined our own
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                   DataSourceProperties properties,
+                                   @Value("${tasks.replicas.urls:}") List<String> urls,
+                                   @Value("${tasks.replicas.pool-size:10}") int poolSize,
+                                   @Value("${tasks.replicas.selection:LEAST_BUSY}") ReplicaPool.Selection selection,
+                                   MeterRegistry meterRegistry) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("tasks.replicas.enabled is set but tasks.replicas.urls is empty");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i).trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(primary.getConnectionTimeout());
+            replica.setReadOnly(true);
+            // Boot only instruments the pools that are beans - these get the same hikaricp.* metrics
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaPool(primary, replicas, selection, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaPool replicaPool) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicaPool);
+        return routing;
+    }
+
+    // Boot puts a lone TaskDecorator bean on applicationTaskExecutor, which is where StreamingResponseBody
+    // and other async request work runs - so a pinned request's export reads from the primary too
+    @Bean
+    public TaskDecorator primaryRoutingTaskDecorator() {
+        return ReplicaPool::propagatePrimary;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${tasks.replicas.read-your-writes:PT5S}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
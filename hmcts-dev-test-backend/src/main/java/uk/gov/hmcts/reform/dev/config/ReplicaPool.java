@@ -0,0 +1,251 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * The read-only side of replica routing - every connection for a read-only transaction comes from
+ * here. Picks a replica round robin, or whichever has the fewest connections out (round robin
+ * between ties), and hands back the primary when there's none to use.
+ *
+ * <p>A replica that fails to give a connection is ejected on the spot and the next one is tried,
+ * so a dead replica costs one failed attempt rather than an error per read. One whose pool is just
+ * all out on loan is passed over for that read but kept - it's busy, not down. Every
+ * {@code tasks.replicas.health-check-interval} each replica is probed, and ejected ones come back
+ * once they answer again.
+ *
+ * <p>Reads on a thread marked with {@link #usePrimary()} skip the replicas - that's how
+ * {@link ReadYourWritesFilter} sends a client's reads to the primary just after it has written.
+ * {@link #propagatePrimary(Runnable)} carries the mark over to work the request hands to another
+ * thread.
+ * Connections handed out show up in actuator as {@code tasks.datasource.reads}, tagged by target.
+ */
+@Slf4j
+public class ReplicaPool extends AbstractDataSource implements Closeable {
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_BUSY
+    }
+
+    static final String READS = "tasks.datasource.reads";
+    static final String PRIMARY = "primary";
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    public ReplicaPool(DataSource primary, Map<String, DataSource> replicas, Selection selection,
+                       MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.selection = selection;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource,
+                Counter.builder(READS).tag("target", name).register(meterRegistry))));
+        this.primaryReads = Counter.builder(READS).tag("target", PRIMARY).register(meterRegistry);
+        Gauge.builder("tasks.datasource.replicas.healthy", this, ReplicaPool::healthyReplicas)
+                .description("Read replicas currently taking reads")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends this thread's reads to the primary until {@link #clearPrimary()}.
+     */
+    static void usePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    static void clearPrimary() {
+        PRIMARY_ONLY.remove();
+    }
+
+    static boolean primaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    /**
+     * Wraps work about to be handed to another thread so it reads from the primary if this thread
+     * does - otherwise a streamed response would go back to the replicas halfway through the request.
+     */
+    static Runnable propagatePrimary(Runnable task) {
+        if (!primaryOnly()) {
+            return task;
+        }
+        return () -> {
+            usePrimary();
+            try {
+                task.run();
+            } finally {
+                clearPrimary();
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!primaryOnly()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return replica.connect();
+                } catch (SQLException e) {
+                    if (!exhausted(e)) {
+                        eject(replica, e);
+                    }
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        throw new UnsupportedOperationException("Replica credentials come from configuration");
+    }
+
+    // Healthy replicas in the order to try them - rotated, so ties and round robin spread the load
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (selection == Selection.LEAST_BUSY) {
+            // Stable, so replicas with the same count stay in rotation order
+            healthy.sort(Comparator.comparingInt(replica -> replica.inFlight.get()));
+        }
+        return healthy;
+    }
+
+    /**
+     * Probes every replica, bringing back the ones that answer and ejecting the ones that don't.
+     */
+    @Scheduled(fixedDelayString = "${tasks.replicas.health-check-interval:PT5S}",
+            initialDelayString = "${tasks.replicas.health-check-interval:PT5S}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(PROBE_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica {} is answering again, routing reads to it", replica.name);
+                }
+            } catch (SQLException e) {
+                if (!exhausted(e)) {
+                    eject(replica, e);
+                }
+            }
+        }
+    }
+
+    // Hikari times out with no cause when every connection is simply in use, and with the last
+    // connection failure as the cause when it can't reach the database at all
+    private static boolean exhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    int healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            healthy += replica.healthy ? 1 : 0;
+        }
+        return healthy;
+    }
+
+    private void eject(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Ejected replica {} until it passes a health check: {}", replica.name, cause.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        final Counter reads;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+
+        Connection connect() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            inFlight.incrementAndGet();
+            reads.increment();
+            return tracked(connection);
+        }
+
+        // Counts the connection out until it's closed, for LEAST_BUSY
+        private Connection tracked(Connection connection) {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[] {ConnectionProxy.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getTargetConnection":
+                                return connection;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "close":
+                                if (closed.compareAndSet(false, true)) {
+                                    inFlight.decrementAndGet();
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
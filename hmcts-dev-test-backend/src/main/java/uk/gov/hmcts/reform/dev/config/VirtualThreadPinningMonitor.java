@@ -0,0 +1,65 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier - typically a JDBC call
+ * made inside a {@code synchronized} block (H2 and older drivers have a few). A pinned thread holds
+ * a carrier the whole time it waits, so enough of them and we're back to a small bounded pool.
+ *
+ * <p>Uses the JDK's own {@code jdk.VirtualThreadPinned} JFR event, so it costs nothing until a
+ * pin actually lasts longer than the threshold. Each one is logged with the top of its stack and
+ * counted in {@code jvm.threads.virtual.pinned}. Only runs when virtual threads are switched on.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream recording = new RecordingStream();
+    private final Counter pinned;
+
+    public VirtualThreadPinningMonitor(@Value("${tasks.virtual-threads.pinned-threshold:PT0.02S}")
+                                       Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        if (log.isWarnEnabled()) {
+            List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                    frames.stream().limit(LOGGED_FRAMES)
+                            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                                    + ":" + frame.getLineNumber())
+                            .collect(Collectors.joining(" <- ")));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        recording.close();
+    }
+}
@@ -1,27 +1,53 @@
 package uk.gov.hmcts.reform.dev.controllers;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkResult;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkUpdateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskChanges;
 import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskLog;
+import uk.gov.hmcts.reform.dev.dto.TaskPage;
 import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskStats;
 import uk.gov.hmcts.reform.dev.dto.TaskUpdateRequest;
 import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.services.IdempotencyService;
+import uk.gov.hmcts.reform.dev.services.IdempotencyService.Idempotent;
+import uk.gov.hmcts.reform.dev.services.TaskBulkService;
+import uk.gov.hmcts.reform.dev.services.TaskChangesService;
+import uk.gov.hmcts.reform.dev.services.TaskEventStream;
+import uk.gov.hmcts.reform.dev.services.TaskExportService;
+import uk.gov.hmcts.reform.dev.services.TaskOutboxService;
+import uk.gov.hmcts.reform.dev.services.TaskSearchService;
+import uk.gov.hmcts.reform.dev.services.TaskStatsService;
 import uk.gov.hmcts.reform.dev.services.TaskService;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Main controller for task management operations.
@@ -32,45 +58,184 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*") // Demo-friendly, production-scary 😅
+@CrossOrigin(origins = "*", exposedHeaders = {TaskController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG,
+    IdempotencyService.REPLAYED_HEADER}) // Demo-friendly, production-scary 😅
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String RETURN_MINIMAL = "return=minimal";
+
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskBulkService taskBulkService;
+    private final TaskSearchService taskSearchService;
+    private final TaskStatsService taskStatsService;
+    private final TaskEventStream taskEventStream;
+    private final TaskChangesService taskChangesService;
+    private final TaskOutboxService taskOutboxService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getAllTasks() {
-        List<TaskResponse> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskResponse>> getAllTasks(
+            @ModelAttribute TaskFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        // The body stays a plain array so existing clients keep working - the next page
+        // position travels in a header, and is simply absent on the last page
+        TaskPage page = taskService.getTasks(filter, cursor, limit);
+        // Tagged from the page we just read, so an unchanged page costs the client nothing to
+        // re-download and us nothing to serialize
+        String etag = TaskETags.of(page);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        // One JSON object per line, written straight from a DB cursor - nothing is buffered up front
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(taskExportService::exportTasks);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam(required = false) String since,
+                                                  @RequestParam(defaultValue = "1000") int limit) {
+        // Leave out since for the first sync, then send back the watermark from the last response
+        return ResponseEntity.ok(taskChangesService.getChanges(since, limit));
+    }
+
+    @GetMapping("/log")
+    public ResponseEntity<TaskLog> readLog(@RequestParam(defaultValue = "0") long after,
+                                           @RequestParam(defaultValue = "5000") int limit) {
+        // For downstream consumers - every change as an append-only log, replayable from any offset
+        return ResponseEntity.ok(taskOutboxService.read(after, limit));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(required = false) Set<TaskStatus> status,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // Changes as they commit, instead of polling the list. A "resync" event means reload it.
+        // On a reconnect EventSource sends the last id it saw, and we catch it up from there if we can
+        return taskEventStream.subscribe(status, lastEventId);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponse>> searchTasks(@RequestParam("q") String query,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        // Best matches first - the last word is treated as a prefix, so this works as you type
+        return ResponseEntity.ok(taskSearchService.search(query, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getStats() {
+        // Served from in-memory counters, so the dashboard can poll this as often as it likes
+        return ResponseEntity.ok(taskStatsService.getStats());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "false") boolean includeArchived) {
+        // Spring answers If-None-Match from the ETag before the body is written, so a 304 skips serialization
         return taskService.getTaskById(id)
-                .map(task -> ResponseEntity.ok(task))
+                .or(() -> includeArchived ? taskService.getArchivedTaskById(id) : Optional.empty())
+                .map(task -> ResponseEntity.ok().eTag(TaskETags.of(task)).body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskCreateRequest request) {
-        TaskResponse createdTask = taskService.createTask(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+    public ResponseEntity<TaskResponse> createTask(
+            @Valid @RequestBody TaskCreateRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        // With an Idempotency-Key a retried POST gets the original task back instead of making a second one
+        Idempotent<TaskResponse> created = idempotencyService.execute(idempotencyKey, "create", request,
+                new TypeReference<TaskResponse>() {}, () -> taskService.createTask(request));
+        return idempotent(ResponseEntity.status(HttpStatus.CREATED), created);
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<TaskBulkResult>> createTasks(
+            @RequestBody List<TaskCreateRequest> requests,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        // Items are validated one by one in the service, so each gets its own status in the response
+        Idempotent<List<TaskBulkResult>> results = idempotencyService.execute(idempotencyKey, "bulk-create",
+                requests, new TypeReference<List<TaskBulkResult>>() {}, () -> taskBulkService.createTasks(requests));
+        return idempotent(ResponseEntity.ok(), results);
+    }
+
+    @PostMapping("/claim")
+    public ResponseEntity<TaskResponse> claimTask(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        // Next TODO task by due date, already moved to IN_PROGRESS - 204 when the queue's empty
+        Idempotent<List<TaskResponse>> claimed = idempotencyService.execute(idempotencyKey, "claim", 1,
+                new TypeReference<List<TaskResponse>>() {}, () -> taskService.claimTasks(1));
+        if (claimed.body().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        TaskResponse task = claimed.body().get(0);
+        return idempotent(ResponseEntity.ok().eTag(TaskETags.of(task)),
+                new Idempotent<>(task, claimed.replayed()));
+    }
+
+    @PostMapping("/claim/batch")
+    public ResponseEntity<List<TaskResponse>> claimTasks(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        // Same, for workers that take several at a time - an empty array when there's nothing left
+        Idempotent<List<TaskResponse>> claimed = idempotencyService.execute(idempotencyKey, "claim-batch", limit,
+                new TypeReference<List<TaskResponse>>() {}, () -> taskService.claimTasks(limit));
+        return idempotent(ResponseEntity.ok(), claimed);
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<TaskBulkResult>> updateTasks(
+            @RequestBody List<TaskBulkUpdateRequest> requests,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Idempotent<List<TaskBulkResult>> results = idempotencyService.execute(idempotencyKey, "bulk-update",
+                requests, new TypeReference<List<TaskBulkResult>>() {}, () -> taskBulkService.updateTasks(requests));
+        return idempotent(ResponseEntity.ok(), results);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, 
-                                                   @Valid @RequestBody TaskUpdateRequest request) {
-        return taskService.updateTask(id, request)
-                .map(task -> ResponseEntity.ok(task))
+                                                   @Valid @RequestBody TaskUpdateRequest request,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                   String ifMatch) {
+        // Send back the ETag you last saw in If-Match and you'll get a 412 rather than overwrite someone
+        return taskService.updateTask(id, request, TaskETags.expectedVersion(id, ifMatch))
+                .map(task -> ResponseEntity.ok().eTag(TaskETags.of(task)).body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<TaskResponse> updateTaskStatus(@PathVariable Long id, 
-                                                        @RequestParam TaskStatus status) {
+                                                        @RequestParam TaskStatus status,
+                                                        @RequestParam(required = false) Long version,
+                                                        @RequestHeader(value = "Prefer", required = false)
+                                                        String prefer,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                        String ifMatch) {
         // This is my favorite endpoint - quick status updates without the overhead of a full PUT
         // Perfect for those "just mark it as done" moments!
-        return taskService.updateTaskStatus(id, status)
-                .map(task -> ResponseEntity.ok(task))
+        // Pass the version you last saw to get a 409 instead of clobbering someone else's change,
+        // and send "Prefer: return=minimal" to skip reading the task back (one round trip, 204).
+        // An If-Match ETag does the same job as version, but fails with 412 as HTTP expects
+        Long expectedVersion = ifMatch != null ? TaskETags.expectedVersion(id, ifMatch) : version;
+        if (RETURN_MINIMAL.equalsIgnoreCase(prefer)) {
+            return taskService.changeTaskStatus(id, status, expectedVersion)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        }
+        return taskService.updateTaskStatus(id, status, expectedVersion)
+                .map(task -> ResponseEntity.ok().eTag(TaskETags.of(task)).body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -82,4 +247,11 @@ public class TaskController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    private static <T> ResponseEntity<T> idempotent(ResponseEntity.BodyBuilder response, Idempotent<T> result) {
+        if (result.replayed()) {
+            response.header(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
+    }
 }
\ No newline at end of file
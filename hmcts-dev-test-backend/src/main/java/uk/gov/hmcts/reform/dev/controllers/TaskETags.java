@@ -0,0 +1,79 @@
+package uk.gov.hmcts.reform.dev.controllers;
+
+import uk.gov.hmcts.reform.dev.dto.TaskPage;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.exceptions.TaskPreconditionFailedException;
+import uk.gov.hmcts.reform.dev.services.TaskService;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong entity tags for tasks. A single task's tag is its id and version - the version goes up on
+ * every write, so it's a perfect validator and we never have to hash a serialized body to get one.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    static String of(TaskResponse task) {
+        return "\"" + task.getId() + "-" + task.getVersion() + "\"";
+    }
+
+    /**
+     * A list page's tag: a digest of the id and version of every task on it, in order, plus the
+     * next-page cursor. That's everything the response is built from, so the tag moves exactly when
+     * the response would - whatever the filter, sort, cursor or limit - without another query.
+     */
+    static String of(TaskPage page) {
+        MessageDigest digest = md5();
+        ByteBuffer entry = ByteBuffer.allocate(2 * Long.BYTES);
+        for (TaskResponse task : page.getItems()) {
+            entry.clear();
+            entry.putLong(task.getId()).putLong(task.getVersion() == null ? -1 : task.getVersion());
+            digest.update(entry.array());
+        }
+        if (page.getNextCursor() != null) {
+            digest.update(page.getNextCursor().getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"list-" + HexFormat.of().formatHex(digest.digest()) + "\"";
+    }
+
+    /**
+     * Turns an If-Match header into the version the write must find: null with no header, and
+     * {@link TaskService#ANY_VERSION} for "*", which any version matches but a missing task doesn't.
+     * Only a single strong tag for this task can ever match, so anything else fails straight away.
+     */
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        if (ifMatch.trim().equals("*")) {
+            return TaskService.ANY_VERSION;
+        }
+        String prefix = "\"" + id + "-";
+        String tag = ifMatch.trim();
+        if (tag.indexOf(',') < 0 && tag.startsWith(prefix) && tag.endsWith("\"")
+                && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failure below
+            }
+        }
+        throw new TaskPreconditionFailedException(id, ifMatch);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to ship MD5
+            throw new IllegalStateException(e);
+        }
+    }
+}
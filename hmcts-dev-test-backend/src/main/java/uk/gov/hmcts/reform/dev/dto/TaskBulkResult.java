@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Outcome of one item in a bulk request. {@code index} points back at the item's
+ * position in the request array, and {@code status} is the HTTP status the item
+ * would have got as a single call.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskBulkResult {
+
+    private int index;
+    private int status;
+    private TaskResponse task;
+    private Map<String, String> fieldErrors;
+}
@@ -0,0 +1,24 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class TaskBulkUpdateRequest extends TaskUpdateRequest {
+
+    @NotNull(message = "Id is required")
+    private Long id;
+
+    public TaskBulkUpdateRequest(Long id, String title, String description,
+                                 TaskStatus status, LocalDateTime dueDate) {
+        super(title, description, status, dueDate);
+        this.id = id;
+    }
+}
@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Everything that changed since a watermark. Apply {@code changed} then drop {@code deleted}, keep
+ * {@code watermark} for next time, and call again straight away while {@code hasMore} is set.
+ * The same task can turn up twice across calls - applying it again is harmless.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskChanges {
+
+    private List<TaskResponse> changed;
+    private List<Long> deleted;
+    private String watermark;
+    private boolean hasMore;
+}
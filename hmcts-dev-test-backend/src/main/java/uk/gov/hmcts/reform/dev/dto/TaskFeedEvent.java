@@ -0,0 +1,24 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+/**
+ * One message on the task event stream. {@code task} is the full state after the change when the
+ * write had it to hand - status changes and deletes only carry the id and status.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskFeedEvent {
+
+    // created, updated, status_changed or deleted - also the SSE event name
+    private String type;
+    private Long taskId;
+    private TaskStatus status;
+    private TaskResponse task;
+}
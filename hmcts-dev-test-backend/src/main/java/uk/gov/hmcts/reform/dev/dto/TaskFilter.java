@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Query parameters for the task list. Every criterion is optional and they're ANDed together;
+ * ranges are inclusive at both ends.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class TaskFilter {
+
+    private Set<TaskStatus> status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    private TaskSort sort = TaskSort.CREATED_AT;
+
+    private Sort.Direction direction = Sort.Direction.DESC;
+
+    // Archived (long-finished) tasks are left out unless asked for
+    private boolean includeArchived;
+}
@@ -0,0 +1,23 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A batch of the task change log in offset order. Store {@code nextOffset} once the batch is
+ * applied and pass it back as {@code after}. Offsets have gaps where events were compacted away.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskLog {
+
+    private List<TaskLogEntry> events;
+    private long nextOffset;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry in the task change log. {@code task} is the whole task after the change, or null
+ * for a delete.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskLogEntry {
+
+    private long offset;
+    // created, updated, status_changed or deleted
+    private String type;
+    private Long taskId;
+    private TaskResponse task;
+}
@@ -0,0 +1,21 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The handful of columns a write needs to know about a task before changing it -
+ * enough to undo its contribution to the stats and to guard the write on its version.
+ */
+public record TaskSnapshot(TaskStatus status, LocalDateTime dueDate, Long version) {
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(task.getStatus(), task.getDueDate(), task.getVersion());
+    }
+
+    public static TaskSnapshot of(TaskResponse task) {
+        return new TaskSnapshot(task.getStatus(), task.getDueDate(), task.getVersion());
+    }
+}
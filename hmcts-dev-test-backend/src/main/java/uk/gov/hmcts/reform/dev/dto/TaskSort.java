@@ -0,0 +1,26 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Columns the task list can be ordered by. Each one is a timestamp, and ties are
+ * broken on id so the keyset cursor always has a unique position to seek from.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskSort {
+    CREATED_AT("createdAt", TaskResponse::getCreatedAt),
+    UPDATED_AT("updatedAt", TaskResponse::getUpdatedAt),
+    DUE_DATE("dueDate", TaskResponse::getDueDate);
+
+    private final String attribute;
+    private final Function<TaskResponse, LocalDateTime> keyExtractor;
+
+    public LocalDateTime keyOf(TaskResponse task) {
+        return keyExtractor.apply(task);
+    }
+}
@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.dev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskStats {
+
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+    // Open means TODO or IN_PROGRESS; overdue is an open task due before today
+    private long overdue;
+    private Map<LocalDate, Long> dueByDay;
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+public class BulkLimitExceededException extends RuntimeException {
+
+    public BulkLimitExceededException(int size, int limit) {
+        super(String.format("Bulk request has %d items, the limit is %d", size, limit));
+    }
+}
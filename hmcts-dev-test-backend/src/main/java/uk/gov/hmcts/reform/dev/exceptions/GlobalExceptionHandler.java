@@ -1,13 +1,20 @@
 package uk.gov.hmcts.reform.dev.exceptions;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -49,6 +56,62 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler({InvalidCursorException.class, BulkLimitExceededException.class,
+        MissingServletRequestParameterException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequestException(Exception ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflictException(TaskVersionConflictException ex,
+                                                                        WebRequest request) {
+        return conflict(ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex,
+                                                                        WebRequest request) {
+        // Hibernate's own @Version check on a full update - someone else saved first
+        return conflict("Task has been modified by another request", request);
+    }
+
+    @ExceptionHandler(TaskPreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(TaskPreconditionFailedException ex) {
+        return failed(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(WatermarkExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleWatermarkExpiredException(WatermarkExpiredException ex) {
+        return failed(HttpStatus.GONE, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        return failed(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInProgressException(
+            IdempotencyKeyInProgressException ex) {
+        return failed(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // An async request (the event stream, an export) running out of time isn't a failure, and its response
+    // may be an event stream that's already under way - so no error body, just what Spring would send
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public void handleAsyncRequestTimeoutException(HttpServletResponse response) throws IOException {
+        if (!response.isCommitted()) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse errorResponse = new ErrorResponse(
@@ -60,4 +123,22 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.internalServerError().body(errorResponse);
     }
+
+    // The same lost race is a 409 for ?version= callers, but a 412 when they asked through If-Match
+    private ResponseEntity<ErrorResponse> conflict(String message, WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? failed(HttpStatus.PRECONDITION_FAILED, message)
+                : failed(HttpStatus.CONFLICT, message);
+    }
+
+    private ResponseEntity<ErrorResponse> failed(HttpStatus status, String message) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                message,
+                status.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
 }
\ No newline at end of file
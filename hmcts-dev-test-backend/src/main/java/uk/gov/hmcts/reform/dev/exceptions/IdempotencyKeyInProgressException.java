@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String key) {
+        super(String.format("A request with Idempotency-Key '%s' is still being processed - retry shortly", key));
+    }
+}
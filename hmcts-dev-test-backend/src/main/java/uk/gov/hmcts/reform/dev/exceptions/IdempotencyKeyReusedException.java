@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super(String.format("Idempotency-Key '%s' was already used with a different request body", key));
+    }
+}
@@ -0,0 +1,12 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid cursor '%s'", cursor));
+    }
+
+    public InvalidCursorException(String cursor, String reason) {
+        super(String.format("Invalid cursor '%s' - %s", cursor, reason));
+    }
+}
@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+public class TaskPreconditionFailedException extends RuntimeException {
+
+    public TaskPreconditionFailedException(Long id, String ifMatch) {
+        super(String.format("If-Match '%s' can never match task %d", ifMatch, id));
+    }
+}
@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+public class TaskVersionConflictException extends RuntimeException {
+
+    public TaskVersionConflictException(Long id, Long expectedVersion) {
+        super(String.format("Task %d has been modified since version %d", id, expectedVersion));
+    }
+}
@@ -0,0 +1,10 @@
+package uk.gov.hmcts.reform.dev.exceptions;
+
+import java.time.LocalDateTime;
+
+public class WatermarkExpiredException extends RuntimeException {
+
+    public WatermarkExpiredException(LocalDateTime watermark) {
+        super(String.format("Watermark %s is older than the deletions we keep - reload the full list", watermark));
+    }
+}
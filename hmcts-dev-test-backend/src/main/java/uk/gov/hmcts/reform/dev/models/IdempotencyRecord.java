@@ -0,0 +1,48 @@
+package uk.gov.hmcts.reform.dev.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A claimed Idempotency-Key, and the response to replay once the request that claimed it has finished.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    // SHA-256 of the operation and the client's key, so its length and content don't matter
+    @Id
+    @Column(length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body - the same key with a different body is refused
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // JSON body, null while the request is still running
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Only here so a new record is persisted, not merged - the INSERT has to fail on a taken key
+    @Version
+    private Long version;
+}
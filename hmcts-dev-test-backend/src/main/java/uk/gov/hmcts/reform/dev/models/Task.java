@@ -7,9 +7,12 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -20,7 +23,11 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_created_at_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_tasks_status_due_date", columnList = "status, due_date"),
+    @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -28,7 +35,10 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY - IDENTITY forces an insert per row to learn the id,
+    // which silently disables JDBC batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -52,6 +62,11 @@ public class Task {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Bumped on every write so concurrent edits fail loudly instead of silently overwriting each other
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         LocalDateTime now = LocalDateTime.now();
@@ -0,0 +1,61 @@
+package uk.gov.hmcts.reform.dev.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed or cancelled task moved out of {@code tasks} by the archiver, column for column, so
+ * the hot table only holds work that's still live. Keeps the task's own id and version, so a
+ * cursor or ETag handed out before the move still means the same thing.
+ *
+ * <p>Archived tasks never change, so Hibernate keeps no dirty-checking snapshot of them.
+ */
+@Entity
+@Immutable
+@Table(name = "tasks_archive", indexes = {
+    @Index(name = "idx_tasks_archive_created_at_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_tasks_archive_status_due_date", columnList = "status, due_date"),
+    @Index(name = "idx_tasks_archive_updated_at_id", columnList = "updated_at, id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    private LocalDateTime dueDate;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,69 @@
+package uk.gov.hmcts.reform.dev.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the task change log, written in the same transaction as the change itself. The id is
+ * the offset consumers read from. Each row carries the whole task as it stood after the change (all
+ * nulls for a delete), so the newest row for a task is enough to rebuild it - which is what lets
+ * compaction throw the older ones away.
+ */
+@Entity
+@Table(name = "task_events", indexes = {
+    // Compaction asks "is there a later event for this task?"
+    @Index(name = "idx_task_events_task_id_id", columnList = "task_id, id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskEvent {
+
+    @Id
+    // Not pooled like task_seq: offsets have to be handed out in the order writes happen, and a
+    // pooled block would let one instance write offset 2 long after another committed 60
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_event_seq")
+    @SequenceGenerator(name = "task_event_seq", sequenceName = "task_event_seq", allocationSize = 1)
+    private Long id;
+
+    // created, updated, status_changed or deleted - same names as the live event stream
+    @Column(nullable = false, length = 20)
+    private String type;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+
+    private LocalDateTime dueDate;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
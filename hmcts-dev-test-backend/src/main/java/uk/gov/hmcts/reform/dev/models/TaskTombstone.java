@@ -0,0 +1,34 @@
+package uk.gov.hmcts.reform.dev.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Left behind when a task is deleted, so delta sync can tell clients to drop it. Keyed by the
+ * task's own id - ids come from a sequence and are never reused. Purged after the retention window.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskTombstone {
+
+    @Id
+    private Long taskId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,103 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@code /hibernate} - what the persistence layer has been doing, without SQL logging. Shows totals,
+ * per-query execution counts and times (slowest first), per-entity load and fetch counts, second-level
+ * cache hits and the {@link SlowStatementLog}. Read-only on purpose - nothing reachable over HTTP can
+ * wipe the counts. To measure a load test, diff the reports from either side of it.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+    private final SlowStatementLog slowStatements;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory, SlowStatementLog slowStatements) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.slowStatements = slowStatements;
+    }
+
+    public record Report(boolean enabled, Instant since, Totals totals, List<QueryStats> queries,
+                         List<EntityStats> entities, List<CacheStats> secondLevelCache,
+                         List<SlowStatementLog.Entry> slowestStatements) {
+    }
+
+    public record Totals(long sessionsOpened, long transactions, long statementsPrepared, long queriesExecuted,
+                         long queryMaxTimeMs, String slowestQuery, long entitiesLoaded, long entitiesFetched,
+                         long entitiesInserted, long entitiesUpdated, long entitiesDeleted, long flushes,
+                         long optimisticFailures) {
+    }
+
+    public record QueryStats(String query, long executions, long rows, long avgTimeMs, long maxTimeMs) {
+    }
+
+    public record EntityStats(String entity, long loads, long fetches, long inserts, long updates, long deletes,
+                              long optimisticFailures) {
+    }
+
+    public record CacheStats(String region, long hits, long misses, long puts, long elements) {
+    }
+
+    @ReadOperation
+    public Report report() {
+        Totals totals = new Totals(
+                statistics.getSessionOpenCount(),
+                statistics.getTransactionCount(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getEntityInsertCount(),
+                statistics.getEntityUpdateCount(),
+                statistics.getEntityDeleteCount(),
+                statistics.getFlushCount(),
+                statistics.getOptimisticFailureCount());
+
+        List<QueryStats> queries = Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics stats = statistics.getQueryStatistics(query);
+                    return new QueryStats(query, stats.getExecutionCount(), stats.getExecutionRowCount(),
+                            stats.getExecutionAvgTime(), stats.getExecutionMaxTime());
+                })
+                .sorted(Comparator.comparingLong(QueryStats::maxTimeMs).reversed())
+                .toList();
+
+        List<EntityStats> entities = Arrays.stream(statistics.getEntityNames())
+                .map(entity -> {
+                    EntityStatistics stats = statistics.getEntityStatistics(entity);
+                    return new EntityStats(entity, stats.getLoadCount(), stats.getFetchCount(),
+                            stats.getInsertCount(), stats.getUpdateCount(), stats.getDeleteCount(),
+                            stats.getOptimisticFailureCount());
+                })
+                .toList();
+
+        List<CacheStats> caches = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+                    return new CacheStats(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                            stats.getElementCountInMemory());
+                })
+                .toList();
+
+        return new Report(statistics.isStatisticsEnabled(), statistics.getStart(), totals, queries, entities,
+                caches, slowStatements.entries());
+    }
+}
@@ -0,0 +1,139 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import java.util.Locale;
+
+/**
+ * Where one request spent its time. Phases are exclusive - time in the database while inside a
+ * service call counts as {@code db}, not {@code service} - so they add up to the total, bar whatever
+ * the servlet filters and dispatcher took.
+ *
+ * <p>One instance per sampled request, bound to the request thread. Everything that feeds it checks
+ * {@link #current()} first, so a request that wasn't sampled costs a thread-local read per call.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        CONTROLLER("controller"),
+        SERVICE("service"),
+        // Repository time outside JDBC - mostly Hibernate turning result sets into entities and DTOs
+        MAPPING("mapping"),
+        POOL("pool"),
+        DB("db"),
+        SERIALIZATION("json");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final boolean serverTimingHeader;
+    private final long started = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private Phase phase;
+    private long phaseStarted;
+    private int statements;
+
+    private RequestTiming(boolean serverTimingHeader) {
+        this.serverTimingHeader = serverTimingHeader;
+    }
+
+    static RequestTiming start(boolean serverTimingHeader) {
+        RequestTiming timing = new RequestTiming(serverTimingHeader);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Switches to {@code next}, returning the phase to hand back to {@link #exit} afterwards.
+     */
+    public Phase enter(Phase next) {
+        long now = System.nanoTime();
+        Phase previous = phase;
+        charge(now);
+        phase = next;
+        phaseStarted = now;
+        return previous;
+    }
+
+    public void exit(Phase previous) {
+        long now = System.nanoTime();
+        charge(now);
+        phase = previous;
+        phaseStarted = now;
+    }
+
+    // Whether the breakdown goes back to the client as well as into the access log
+    boolean sendsServerTiming() {
+        return serverTimingHeader;
+    }
+
+    public void statementExecuted() {
+        statements++;
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - started;
+    }
+
+    /**
+     * {@code Server-Timing} header value, e.g. {@code service;dur=1.20, db;dur=4.51;desc="3 statements"}.
+     * Phases that took no time are left out.
+     */
+    String serverTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Phase each : Phase.values()) {
+            long spent = nanos[each.ordinal()];
+            if (spent > 0) {
+                header.append(each.label).append(";dur=").append(millis(spent));
+                if (each == Phase.DB) {
+                    header.append(";desc=\"").append(statements).append(" statements\"");
+                }
+                header.append(", ");
+            }
+        }
+        return header.append("total;dur=").append(millis(elapsedNanos())).toString();
+    }
+
+    /**
+     * The same breakdown as {@code key=value} pairs for the access log.
+     */
+    String logFields() {
+        StringBuilder fields = new StringBuilder();
+        for (Phase each : Phase.values()) {
+            fields.append(each.label).append("_ms=").append(millis(nanos[each.ordinal()])).append(' ');
+        }
+        return fields.append("statements=").append(statements)
+                .append(" total_ms=").append(millis(elapsedNanos())).toString();
+    }
+
+    private void charge(long now) {
+        if (phase != null) {
+            nanos[phase.ordinal()] += now - phaseStarted;
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / NANOS_PER_MILLI);
+    }
+}
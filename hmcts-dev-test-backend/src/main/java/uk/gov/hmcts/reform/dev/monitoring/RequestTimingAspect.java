@@ -0,0 +1,45 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.dev.monitoring.RequestTiming.Phase;
+
+/**
+ * Moves the current request's {@link RequestTiming} between the controller, service and repository
+ * phases. JDBC and connection-pool time are picked up by {@link RequestTimingSessionListener}.
+ */
+@Aspect
+@Component
+public class RequestTimingAspect {
+
+    @Around("within(uk.gov.hmcts.reform.dev.controllers..*) "
+            + "&& @within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(Phase.CONTROLLER, joinPoint);
+    }
+
+    @Around("within(uk.gov.hmcts.reform.dev.services..*) && @within(org.springframework.stereotype.Service)")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(Phase.SERVICE, joinPoint);
+    }
+
+    @Around("this(uk.gov.hmcts.reform.dev.repositories.TaskStore)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(Phase.MAPPING, joinPoint);
+    }
+
+    private static Object timed(Phase phase, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        Phase previous = timing.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit(previous);
+        }
+    }
+}
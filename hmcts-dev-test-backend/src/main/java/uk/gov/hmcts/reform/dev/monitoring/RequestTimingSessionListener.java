@@ -0,0 +1,76 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.hibernate.SessionEventListener;
+import uk.gov.hmcts.reform.dev.monitoring.RequestTiming.Phase;
+
+/**
+ * Hibernate creates one of these per session ({@code hibernate.session.events.auto}) and calls it
+ * around every JDBC statement and connection checkout. That's how a request's timing separates
+ * time waiting on the Hikari pool and time in the driver from everything else, and counts the
+ * statements - a list that runs 51 of them is an N+1.
+ *
+ * <p>Every statement is also timed for the {@link SlowStatementLog}, sampled request or not.
+ */
+public class RequestTimingSessionListener implements SessionEventListener {
+
+    private Phase beforePool;
+    private Phase beforeStatement;
+    private long statementStarted;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            beforePool = timing.enter(Phase.POOL);
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.exit(beforePool);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnd();
+    }
+
+    private void statementStart() {
+        statementStarted = System.nanoTime();
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.statementExecuted();
+            beforeStatement = timing.enter(Phase.DB);
+        }
+    }
+
+    private void statementEnd() {
+        long elapsed = System.nanoTime() - statementStarted;
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.exit(beforeStatement);
+        }
+        StatementCapture.Captured statement = StatementCapture.last();
+        if (statement != null) {
+            statement.slowStatements().record(statement.sql(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The slowest {@code tasks.slow-statements.capacity} JDBC statements since startup, anything under
+ * {@code tasks.slow-statements.threshold} ignored. Each one is kept as its shape - the SQL with
+ * placeholders, long IN lists folded to {@code ?[x40]} - plus how many values it bound, never the
+ * values themselves.
+ *
+ * <p>A min-heap on duration, so a new entry only costs a lock once it's slower than the fastest one
+ * we're holding. Fed by {@link RequestTimingSessionListener}, which Hibernate creates itself and so
+ * reaches this through the {@link StatementCapture} it was handed.
+ */
+@Component
+public class SlowStatementLog {
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    private final int capacity;
+    private final long thresholdNanos;
+    private final PriorityQueue<Entry> slowest = new PriorityQueue<>(Comparator.comparingLong(Entry::nanos));
+    private volatile long floorNanos;
+
+    public record Entry(String sql, int parameters, long nanos, Instant at) {
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    public SlowStatementLog(@Value("${tasks.slow-statements.capacity:50}") int capacity,
+                            @Value("${tasks.slow-statements.threshold:PT0.01S}") Duration threshold) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("tasks.slow-statements.capacity must be at least 1, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.thresholdNanos = threshold.toNanos();
+        this.floorNanos = thresholdNanos;
+    }
+
+    public void record(String sql, long nanos) {
+        if (sql == null || nanos < floorNanos) {
+            return;
+        }
+        synchronized (slowest) {
+            if (slowest.size() == capacity) {
+                if (nanos <= slowest.peek().nanos()) {
+                    return;
+                }
+                slowest.poll();
+            }
+            slowest.add(new Entry(shape(sql), parameters(sql), nanos, Instant.now()));
+            if (slowest.size() == capacity) {
+                floorNanos = Math.max(thresholdNanos, slowest.peek().nanos());
+            }
+        }
+    }
+
+    /**
+     * Slowest first.
+     */
+    public List<Entry> entries() {
+        List<Entry> entries;
+        synchronized (slowest) {
+            entries = new ArrayList<>(slowest);
+        }
+        entries.sort(Comparator.comparingLong(Entry::nanos).reversed());
+        return entries;
+    }
+
+    static String shape(String sql) {
+        Matcher lists = PLACEHOLDER_LIST.matcher(sql);
+        StringBuilder shaped = new StringBuilder();
+        while (lists.find()) {
+            int count = (int) lists.group().chars().filter(c -> c == '?').count();
+            lists.appendReplacement(shaped, count > 2 ? "?[x" + count + "]" : Matcher.quoteReplacement(lists.group()));
+        }
+        return lists.appendTail(shaped).toString();
+    }
+
+    static int parameters(String sql) {
+        return (int) sql.chars().filter(c -> c == '?').count();
+    }
+}
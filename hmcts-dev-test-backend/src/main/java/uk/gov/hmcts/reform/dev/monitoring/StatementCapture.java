@@ -0,0 +1,34 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the last SQL Hibernate prepared on this thread, so the session listener can put a
+ * statement to the time it took. Only ever sees the SQL with its {@code ?} placeholders, never the
+ * bound values. Anything registering its own statement inspector should extend this one, keeping a
+ * constructor that takes the {@link SlowStatementLog} - see {@link StatementCaptureCustomizer}.
+ */
+public class StatementCapture implements StatementInspector {
+
+    private static final ThreadLocal<Captured> LAST = new ThreadLocal<>();
+
+    private final SlowStatementLog slowStatements;
+
+    public StatementCapture(SlowStatementLog slowStatements) {
+        this.slowStatements = slowStatements;
+    }
+
+    // The SQL and the log of the session factory that prepared it, so two apps in one JVM don't mix
+    record Captured(String sql, SlowStatementLog slowStatements) {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        LAST.set(new Captured(sql, slowStatements));
+        return sql;
+    }
+
+    static Captured last() {
+        return LAST.get();
+    }
+}
@@ -0,0 +1,40 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+/**
+ * Hands Hibernate a {@link StatementCapture} wired to this context's {@link SlowStatementLog}, rather
+ * than a class name it would instantiate on its own. A subclass named in
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} - the load test uses
+ * one to slow the database down - is built the same way.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementCaptureCustomizer implements HibernatePropertiesCustomizer {
+
+    private final SlowStatementLog slowStatements;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        Object configured = hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        Class<? extends StatementCapture> type = StatementCapture.class;
+        if (configured instanceof String name) {
+            Class<?> named = ClassUtils.resolveClassName(name, getClass().getClassLoader());
+            if (!StatementCapture.class.isAssignableFrom(named)) {
+                throw new IllegalStateException("Statement inspector " + name + " must extend "
+                        + StatementCapture.class.getName() + " to keep the slow-statement log fed");
+            }
+            type = named.asSubclass(StatementCapture.class);
+        }
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                BeanUtils.instantiateClass(ClassUtils.getConstructorIfAvailable(type, SlowStatementLog.class),
+                        slowStatements));
+    }
+}
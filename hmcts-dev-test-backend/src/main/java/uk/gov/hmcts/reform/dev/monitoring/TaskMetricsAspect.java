@@ -0,0 +1,95 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.dev.exceptions.BulkLimitExceededException;
+import uk.gov.hmcts.reform.dev.exceptions.InvalidCursorException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskPreconditionFailedException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskVersionConflictException;
+
+import java.util.Optional;
+
+/**
+ * Times every public {@code TaskService} method as {@code tasks.service} and every
+ * {@code TaskStore} call as {@code tasks.repository}, tagged with the method name and how it
+ * went. Both publish percentile histograms, so p99 can be worked out across instances in Prometheus.
+ *
+ * <p>Outcomes follow what {@code GlobalExceptionHandler} would turn them into: an empty
+ * {@code Optional} or a {@code false} is {@code not-found}, and exceptions map to
+ * {@code validation-error}, {@code conflict}, {@code precondition-failed} or {@code error}.
+ * Repository streams are only timed until they're opened - reading them is on the caller.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+// Just outside the transaction interceptor, so a service timer includes the commit
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class TaskMetricsAspect {
+
+    static final String SERVICE_TIMER = "tasks.service";
+    static final String REPOSITORY_TIMER = "tasks.repository";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * uk.gov.hmcts.reform.dev.services.TaskService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    @Around("this(uk.gov.hmcts.reform.dev.repositories.TaskStore)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = outcomeOf(result);
+            return result;
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcomeOf(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? "found" : "not-found";
+        }
+        if (result instanceof Boolean found) {
+            return found ? "found" : "not-found";
+        }
+        return "success";
+    }
+
+    static String outcomeOf(Throwable error) {
+        if (error instanceof ConstraintViolationException || error instanceof InvalidCursorException
+                || error instanceof BulkLimitExceededException) {
+            return "validation-error";
+        }
+        if (error instanceof TaskPreconditionFailedException) {
+            return "precondition-failed";
+        }
+        if (error instanceof TaskVersionConflictException || error instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        return "error";
+    }
+}
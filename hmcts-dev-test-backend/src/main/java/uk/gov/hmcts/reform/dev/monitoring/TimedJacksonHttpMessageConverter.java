@@ -0,0 +1,44 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.dev.monitoring.RequestTiming.Phase;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Spring Boot's Jackson converter with JSON writing charged to the {@code json} phase. Being a bean
+ * of this type, it replaces the one Boot would otherwise register, with the same ObjectMapper.
+ *
+ * <p>{@code Server-Timing}, when it's switched on, goes on here too, just before the body - once
+ * writing starts the headers are on their way out, so the header can't include the write itself.
+ * The access log line does.
+ */
+@Component
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        if (timing.sendsServerTiming()) {
+            outputMessage.getHeaders().set(RequestTimingFilter.SERVER_TIMING, timing.serverTiming());
+        }
+        Phase previous = timing.enter(Phase.SERIALIZATION);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timing.exit(previous);
+        }
+    }
+}
@@ -0,0 +1,582 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.dto.TaskSort;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskStore} held in this process instead of the tasks table, for ephemeral
+ * deployments (triage queues, load rigs) where Hibernate is most of the cost of a call.
+ * Switched on with the {@code memory} profile, and it then stands in for {@link JpaTaskStore}
+ * everywhere - services, the cache loader, stats, search and export don't know the difference.
+ *
+ * <p>Rows live in a {@link LongStripedMap} keyed by the raw id, as immutable {@link Row}s. The same
+ * secondary indexes the table has are kept in {@link ConcurrentSkipListSet}s:
+ * <ul>
+ *   <li>(status, due date) per status</li>
+ *   <li>(due date), tasks with no due date last</li>
+ *   <li>(created at)</li>
+ *   <li>(updated at)</li>
+ * </ul>
+ * Every key ends in the id. All writes to a task happen under its stripe's lock. They add the new
+ * index keys before removing the old ones, and readers check each index hit against the row, so a
+ * stale key is never returned.
+ *
+ * <p>What a transaction would do is copied only as far as the services rely on it:
+ * <ul>
+ *   <li>A write made inside a transaction is undone if that transaction rolls back - the task goes
+ *       back to the row it replaced, unless another write has replaced it again since.</li>
+ *   <li>There's no isolation. A write is visible to everyone as soon as it's made, before its
+ *       transaction commits.</li>
+ *   <li>Tasks are gone when the process stops.</li>
+ * </ul>
+ */
+@Repository
+@Profile("memory")
+public class InMemoryTaskStore implements TaskStore {
+
+    static final Set<TaskStatus> OPEN = EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+
+    private final LongStripedMap<Row> rows = new LongStripedMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<TaskStatus, NavigableSet<IndexKey>> byStatusDueDate = new EnumMap<>(TaskStatus.class);
+    private final NavigableSet<IndexKey> byDueDate = new ConcurrentSkipListSet<>();
+    private final NavigableSet<IndexKey> byCreatedAt = new ConcurrentSkipListSet<>();
+    private final NavigableSet<IndexKey> byUpdatedAt = new ConcurrentSkipListSet<>();
+
+    public InMemoryTaskStore() {
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatusDueDate.put(status, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    /**
+     * A task as stored. Immutable, so readers can use it without a lock.
+     */
+    record Row(long id, String title, String description, TaskStatus status, LocalDateTime dueDate,
+               LocalDateTime createdAt, LocalDateTime updatedAt, long version) {
+
+        static Row of(Task task) {
+            return new Row(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                    task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt(), task.getVersion());
+        }
+
+        Task toTask() {
+            return new Task(id, title, description, status, dueDate, createdAt, updatedAt, version);
+        }
+
+        TaskResponse toResponse() {
+            return new TaskResponse(id, title, description, status, dueDate, createdAt, updatedAt, version);
+        }
+
+        TaskSnapshot toSnapshot() {
+            return new TaskSnapshot(status, dueDate, version);
+        }
+
+        LocalDateTime key(TaskSort sort) {
+            return switch (sort) {
+                case CREATED_AT -> createdAt;
+                case UPDATED_AT -> updatedAt;
+                case DUE_DATE -> dueDate;
+            };
+        }
+
+        boolean sameContent(Task task) {
+            return Objects.equals(title, task.getTitle()) && Objects.equals(description, task.getDescription())
+                    && status == task.getStatus() && Objects.equals(dueDate, task.getDueDate());
+        }
+    }
+
+    /**
+     * A secondary index entry: a timestamp, then the id. Null timestamps sort after every other one.
+     */
+    record IndexKey(LocalDateTime key, long id) implements Comparable<IndexKey> {
+
+        private static final Comparator<IndexKey> ORDER = Comparator
+                .comparing(IndexKey::key, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(IndexKey::id);
+
+        static IndexKey first(LocalDateTime key) {
+            return new IndexKey(key, Long.MIN_VALUE);
+        }
+
+        static IndexKey last(LocalDateTime key) {
+            return new IndexKey(key, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(IndexKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    // --- Writes
+
+    @Override
+    public List<TaskResponse> insertAll(List<Task> tasks) {
+        List<TaskResponse> inserted = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            LocalDateTime now = LocalDateTime.now();
+            // What @PrePersist, the sequence and @Version would have filled in
+            task.setId(sequence.incrementAndGet());
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            task.setVersion(0L);
+            Row row = Row.of(task);
+            change(row.id(), current -> row);
+            inserted.add(row.toResponse());
+        }
+        return inserted;
+    }
+
+    // Each task is changed on a copy under its stripe lock, so whatever checks change makes (the version,
+    // say) see the row as it is at the moment of the write. Bumps version and updatedAt as @Version and
+    // @PreUpdate would, and only where something actually changed
+    @Override
+    public Map<Long, Change> updateAll(Collection<Long> ids, Consumer<Task> change) {
+        Map<Long, Change> changed = new LinkedHashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Row[] previous = new Row[1];
+            Row row = change(id, current -> {
+                if (current == null) {
+                    return null;
+                }
+                previous[0] = current;
+                Task task = current.toTask();
+                change.accept(task);
+                if (current.sameContent(task)) {
+                    return current;
+                }
+                return new Row(current.id(), task.getTitle(), task.getDescription(), task.getStatus(),
+                        task.getDueDate(), current.createdAt(), LocalDateTime.now(), current.version() + 1);
+            });
+            if (row != null) {
+                changed.put(id, new Change(previous[0].toSnapshot(), row.toResponse()));
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public Optional<TaskResponse> updateStatus(Long id, TaskStatus status, LocalDateTime updatedAt,
+                                               Long expectedVersion) {
+        TaskResponse[] previous = new TaskResponse[1];
+        change(id, current -> {
+            if (current == null || expectedVersion != null && !Objects.equals(current.version(), expectedVersion)) {
+                return current;
+            }
+            previous[0] = current.toResponse();
+            return new Row(current.id(), current.title(), current.description(), status, current.dueDate(),
+                    current.createdAt(), updatedAt, current.version() + 1);
+        });
+        return Optional.ofNullable(previous[0]);
+    }
+
+    // No row locks here, so "skip locked" is a compare-and-set per task under its stripe lock: whoever
+    // gets there first moves it on, and the others find it gone from the status index and take the next
+    @Override
+    public List<TaskResponse> claim(TaskStatus from, TaskStatus to, int limit) {
+        List<TaskResponse> claimed = new ArrayList<>();
+        Iterator<IndexKey> head = byStatusDueDate.get(from).iterator();
+        while (claimed.size() < limit && head.hasNext()) {
+            LocalDateTime now = LocalDateTime.now();
+            boolean[] won = new boolean[1];
+            Row row = change(head.next().id(), current -> {
+                if (current == null || current.status() != from) {
+                    return current;
+                }
+                won[0] = true;
+                return new Row(current.id(), current.title(), current.description(), to, current.dueDate(),
+                        current.createdAt(), now, current.version() + 1);
+            });
+            if (won[0]) {
+                claimed.add(row.toResponse());
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public Optional<TaskSnapshot> delete(Long id) {
+        Row[] deleted = new Row[1];
+        change(id, current -> {
+            deleted[0] = current;
+            return null;
+        });
+        return Optional.ofNullable(deleted[0]).map(Row::toSnapshot);
+    }
+
+    // --- Reads
+
+    @Override
+    public boolean existsById(Long id) {
+        return rows.get(id) != null;
+    }
+
+    long count() {
+        return rows.size();
+    }
+
+    @Override
+    public Optional<TaskResponse> findResponseById(Long id) {
+        return Optional.ofNullable(rows.get(id)).map(Row::toResponse);
+    }
+
+    @Override
+    public List<TaskResponse> findResponsesByIdIn(Collection<Long> ids) {
+        List<TaskResponse> found = new ArrayList<>();
+        for (Long id : ids) {
+            Row row = rows.get(id);
+            if (row != null) {
+                found.add(row.toResponse());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<TaskResponse> findResponsesChangedAfter(LocalDateTime afterKey, Long afterId, LocalDateTime upTo,
+                                                        Limit limit) {
+        NavigableSet<IndexKey> window = byUpdatedAt.subSet(
+                new IndexKey(afterKey, afterId), false, IndexKey.last(upTo), true);
+        return scan(window, row -> true, Row::updatedAt, limit.isLimited() ? limit.max() : Integer.MAX_VALUE)
+                .stream().map(Row::toResponse).toList();
+    }
+
+    @Override
+    public Stream<TaskResponse> streamAllResponses() {
+        return sortedById(rows.values()).stream().map(Row::toResponse);
+    }
+
+    @Override
+    public List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit) {
+        TaskSort sort = filter.getSort();
+        boolean ascending = filter.getDirection() == Sort.Direction.ASC;
+        Predicate<Row> matches = matcher(filter);
+        Function<Row, LocalDateTime> key = row -> row.key(sort);
+        NavigableSet<IndexKey> index = indexFor(sort, filter);
+
+        // Same order as the SQL: the sort column either way, ties on id the same way, no-value tail last
+        NavigableSet<IndexKey> keyed = index.headSet(IndexKey.first(null), false);
+        NavigableSet<IndexKey> unkeyed = index.tailSet(IndexKey.first(null), true);
+        if (afterId != null) {
+            if (afterKey == null) {
+                keyed = Collections.emptyNavigableSet();
+                unkeyed = ascending ? unkeyed.tailSet(new IndexKey(null, afterId), false)
+                        : unkeyed.headSet(new IndexKey(null, afterId), false);
+            } else {
+                keyed = ascending ? keyed.tailSet(new IndexKey(afterKey, afterId), false)
+                        : keyed.headSet(new IndexKey(afterKey, afterId), false);
+            }
+        }
+
+        List<Row> page = new ArrayList<>(scan(ascending ? keyed : keyed.descendingSet(), matches, key, limit));
+        if (page.size() < limit) {
+            page.addAll(scan(ascending ? unkeyed : unkeyed.descendingSet(), matches, key, limit - page.size()));
+        }
+        return page.stream().map(Row::toResponse).toList();
+    }
+
+    @Override
+    public List<StatusCount> countByStatus() {
+        Map<TaskStatus, long[]> counts = new EnumMap<>(TaskStatus.class);
+        rows.forEach(row -> counts.computeIfAbsent(row.status(), status -> new long[1])[0]++);
+        List<StatusCount> result = new ArrayList<>();
+        counts.forEach((status, count) -> result.add(new StatusTotal(status, count[0])));
+        return result;
+    }
+
+    @Override
+    public List<DayCount> countOpenByDueDay() {
+        Map<LocalDate, long[]> counts = new TreeMap<>();
+        rows.forEach(row -> {
+            if (OPEN.contains(row.status()) && row.dueDate() != null) {
+                counts.computeIfAbsent(row.dueDate().toLocalDate(), day -> new long[1])[0]++;
+            }
+        });
+        List<DayCount> result = new ArrayList<>();
+        counts.forEach((day, count) -> result.add(new DayTotal(day, count[0])));
+        return result;
+    }
+
+    record StatusTotal(TaskStatus status, long count) implements StatusCount {
+
+        @Override
+        public TaskStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+    }
+
+    record DayTotal(LocalDate day, long count) implements DayCount {
+
+        @Override
+        public LocalDate getDay() {
+            return day;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+    }
+
+    // --- Internals
+
+    /**
+     * Replaces a task's row as {@link #apply} does, and if that changed anything inside a transaction,
+     * remembers how to put it back should the transaction roll back.
+     */
+    private Row change(long id, UnaryOperator<Row> remapping) {
+        Row[] before = new Row[1];
+        Row after = apply(id, current -> {
+            before[0] = current;
+            return remapping.apply(current);
+        });
+        if (after != before[0] && TransactionSynchronizationManager.isSynchronizationActive()) {
+            undoLog().undos.push(new Undo(id, before[0], after));
+        }
+        return after;
+    }
+
+    /**
+     * Replaces a task's row with whatever {@code remapping} makes of the current one - null to delete
+     * it, the same row to leave it be - under the stripe lock, and keeps the indexes in step. A real
+     * change is also handed to {@link #append}, and once the lock is released this waits on
+     * {@link #awaitDurable} for it.
+     */
+    private Row apply(long id, UnaryOperator<Row> remapping) {
+        long[] ticket = new long[1];
+        Row result = rows.compute(id, current -> {
+            Row next = remapping.apply(current);
+            if (next != current) {
+                reindex(current, next);
+                ticket[0] = append(id, next);
+            }
+            return next;
+        });
+        if (ticket[0] != 0) {
+            awaitDurable(ticket[0]);
+        }
+        return result;
+    }
+
+    // The undo log registered with the current transaction, registering one if this is its first write
+    private UndoLog undoLog() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof UndoLog log && log.store() == this) {
+                return log;
+            }
+        }
+        UndoLog log = new UndoLog();
+        TransactionSynchronizationManager.registerSynchronization(log);
+        return log;
+    }
+
+    // A write made in a transaction: the row it replaced, and the one it wrote. Either is null for an
+    // insert or a delete
+    private record Undo(long id, Row before, Row after) {
+    }
+
+    /**
+     * The writes a transaction has made, newest first. Kept with the transaction's synchronizations
+     * rather than bound as a resource, so a transaction suspended for a REQUIRES_NEW one doesn't pick
+     * up the inner one's writes.
+     */
+    private final class UndoLog implements TransactionSynchronization {
+        private final Deque<Undo> undos = new ArrayDeque<>();
+
+        private InMemoryTaskStore store() {
+            return InMemoryTaskStore.this;
+        }
+
+        // Goes through apply() so the journal sees the undo like any other change. A task another
+        // transaction has written since is left as they left it
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_ROLLED_BACK) {
+                return;
+            }
+            for (Undo undo : undos) {
+                apply(undo.id(), current -> current == undo.after() ? undo.before() : current);
+            }
+        }
+    }
+
+    // --- Hooks for a durable variant. Nothing is logged here, so there's nothing to wait for
+
+    /**
+     * Records a change. Called under the task's stripe lock, so changes to one task are logged in the
+     * order they're made. {@code after} is null for a delete.
+     *
+     * @return a ticket for {@link #awaitDurable}, or 0 for nothing to wait on
+     */
+    long append(long id, Row after) {
+        return 0;
+    }
+
+    /**
+     * Blocks until the change behind {@code ticket} is durable. Called without any lock held.
+     */
+    void awaitDurable(long ticket) {
+    }
+
+    // Puts a recovered row back without logging it again
+    void restore(Row row) {
+        rows.compute(row.id(), current -> {
+            reindex(current, row);
+            return row;
+        });
+        advanceSequence(row.id());
+    }
+
+    // Removes a task during recovery without logging it again
+    void forget(long id) {
+        rows.compute(id, current -> {
+            if (current != null) {
+                reindex(current, null);
+            }
+            return null;
+        });
+        advanceSequence(id);
+    }
+
+    // Ids are never reused, even for tasks deleted before a restart
+    void advanceSequence(long id) {
+        sequence.accumulateAndGet(id, Math::max);
+    }
+
+    long sequence() {
+        return sequence.get();
+    }
+
+    void forEachRow(Consumer<Row> action) {
+        rows.forEach(action);
+    }
+
+    // Called under the row's stripe lock. New keys go in before old ones come out, so a concurrent scan
+    // sees the task in at least one place most of the time - and verifies whichever it finds against the row
+    private void reindex(Row before, Row after) {
+        if (after != null) {
+            byStatusDueDate.get(after.status()).add(new IndexKey(after.dueDate(), after.id()));
+            byCreatedAt.add(new IndexKey(after.createdAt(), after.id()));
+            byUpdatedAt.add(new IndexKey(after.updatedAt(), after.id()));
+            byDueDate.add(new IndexKey(after.dueDate(), after.id()));
+        }
+        if (before != null) {
+            removeIfChanged(byStatusDueDate.get(before.status()), new IndexKey(before.dueDate(), before.id()),
+                    after == null || after.status() != before.status()
+                            || !Objects.equals(after.dueDate(), before.dueDate()));
+            removeIfChanged(byCreatedAt, new IndexKey(before.createdAt(), before.id()), after == null);
+            removeIfChanged(byUpdatedAt, new IndexKey(before.updatedAt(), before.id()),
+                    after == null || !Objects.equals(after.updatedAt(), before.updatedAt()));
+            removeIfChanged(byDueDate, new IndexKey(before.dueDate(), before.id()),
+                    after == null || !Objects.equals(after.dueDate(), before.dueDate()));
+        }
+    }
+
+    private static void removeIfChanged(Set<IndexKey> index, IndexKey key, boolean changed) {
+        if (changed) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Walks index keys in the order given, keeping rows that still have that key and match,
+     * up to {@code limit} of them.
+     */
+    private List<Row> scan(Iterable<IndexKey> keys, Predicate<Row> matches, Function<Row, LocalDateTime> keyOf,
+                           int limit) {
+        List<Row> found = new ArrayList<>();
+        Iterator<IndexKey> iterator = keys.iterator();
+        while (found.size() < limit && iterator.hasNext()) {
+            IndexKey entry = iterator.next();
+            Row row = rows.get(entry.id());
+            if (row != null && Objects.equals(keyOf.apply(row), entry.key()) && matches.test(row)) {
+                found.add(row);
+            }
+        }
+        return found;
+    }
+
+    // A single status sorted on due date walks that status's own index, as (status, due_date) does in the table
+    private NavigableSet<IndexKey> indexFor(TaskSort sort, TaskFilter filter) {
+        return switch (sort) {
+            case CREATED_AT -> byCreatedAt;
+            case UPDATED_AT -> byUpdatedAt;
+            case DUE_DATE -> filter.getStatus() != null && filter.getStatus().size() == 1
+                    ? byStatusDueDate.get(filter.getStatus().iterator().next())
+                    : byDueDate;
+        };
+    }
+
+    private static Predicate<Row> matcher(TaskFilter filter) {
+        Predicate<Row> matches = row -> true;
+        if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+            Set<TaskStatus> statuses = EnumSet.copyOf(filter.getStatus());
+            matches = matches.and(row -> statuses.contains(row.status()));
+        }
+        matches = matches.and(inRange(Row::dueDate, filter.getDueFrom(), filter.getDueTo()));
+        matches = matches.and(inRange(Row::createdAt, filter.getCreatedFrom(), filter.getCreatedTo()));
+        return matches.and(inRange(Row::updatedAt, filter.getUpdatedFrom(), filter.getUpdatedTo()));
+    }
+
+    // Inclusive both ends, and like SQL a missing value never matches a bound
+    private static Predicate<Row> inRange(Function<Row, LocalDateTime> value, LocalDateTime from,
+                                          LocalDateTime to) {
+        if (from == null && to == null) {
+            return row -> true;
+        }
+        return row -> {
+            LocalDateTime at = value.apply(row);
+            return at != null && (from == null || !at.isBefore(from)) && (to == null || !at.isAfter(to));
+        };
+    }
+
+    private static List<Row> sortedById(List<Row> rows) {
+        rows.sort(Comparator.comparingLong(Row::id));
+        return rows;
+    }
+}
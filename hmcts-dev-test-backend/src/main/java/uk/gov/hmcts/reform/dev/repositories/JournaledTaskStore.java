@@ -0,0 +1,91 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The in-memory store, made durable by a {@link TaskJournal} on local disk - tasks survive a restart
+ * without an external database. Switched on with the {@code journal} profile, in place of
+ * {@code memory}.
+ *
+ * <p>Every change is appended to the journal under the task's stripe lock and the call returns once
+ * it's been fsynced. Concurrent writers share fsyncs, so throughput scales with concurrency rather
+ * than being capped at one write per disk flush. A snapshot is written every
+ * {@code tasks.journal.snapshot-interval}, and startup loads the latest one and replays the records
+ * written after it.
+ *
+ * <p>Everything said about transactions on {@link InMemoryTaskStore} holds here too. A write is
+ * durable as soon as it's made, before its transaction commits; if that transaction rolls back, the
+ * undo is journaled like any other change.
+ */
+@Slf4j
+@Repository
+@Profile("journal")
+public class JournaledTaskStore extends InMemoryTaskStore {
+
+    private final TaskJournal journal;
+
+    public JournaledTaskStore(@Value("${tasks.journal.directory:data/journal}") Path directory,
+                                   @Value("${tasks.journal.segment-size:64MB}") DataSize segmentSize)
+            throws IOException {
+        long started = System.nanoTime();
+        journal = TaskJournal.open(directory, Math.toIntExact(segmentSize.toBytes()), new TaskJournal.Replay() {
+            @Override
+            public void put(Row row) {
+                restore(row);
+            }
+
+            @Override
+            public void delete(long id) {
+                forget(id);
+            }
+
+            @Override
+            public void sequenceAtLeast(long sequence) {
+                advanceSequence(sequence);
+            }
+        });
+        log.info("Recovered {} tasks from {} in {} ms", count(), directory,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    long append(long id, Row after) {
+        return after == null ? journal.delete(id) : journal.put(after);
+    }
+
+    @Override
+    void awaitDurable(long ticket) {
+        journal.awaitDurable(ticket);
+    }
+
+    /**
+     * Writes a snapshot if anything has changed since the last one, so recovery has less log to
+     * replay and old segments can be deleted.
+     */
+    @Scheduled(fixedDelayString = "${tasks.journal.snapshot-interval:PT5M}",
+            initialDelayString = "${tasks.journal.snapshot-interval:PT5M}")
+    public void snapshot() throws IOException {
+        long position = journal.position();
+        if (position == journal.snapshotPosition()) {
+            return;
+        }
+        long started = System.nanoTime();
+        journal.snapshot(position, sequence(), this::forEachRow);
+        log.info("Wrote task snapshot at journal position {} in {} ms", position,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+}
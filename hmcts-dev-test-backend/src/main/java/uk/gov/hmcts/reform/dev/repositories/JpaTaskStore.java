@@ -0,0 +1,122 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskStore} on the tasks table, through {@link TaskRepository}. Entities only live inside a
+ * call here - they're loaded, changed and flushed, and what goes back is a projection. The default
+ * store; the {@code memory} and {@code journal} profiles replace it.
+ */
+@Repository
+@Profile("!memory & !journal")
+@RequiredArgsConstructor
+public class JpaTaskStore implements TaskStore {
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    public Optional<TaskResponse> findResponseById(Long id) {
+        return taskRepository.findResponseById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return taskRepository.existsById(id);
+    }
+
+    @Override
+    public List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit) {
+        return taskRepository.findResponses(filter, afterKey, afterId, limit);
+    }
+
+    @Override
+    public List<TaskResponse> findResponsesByIdIn(Collection<Long> ids) {
+        return taskRepository.findResponsesByIdIn(ids);
+    }
+
+    @Override
+    public List<TaskResponse> findResponsesChangedAfter(LocalDateTime afterKey, Long afterId, LocalDateTime upTo,
+                                                        Limit limit) {
+        return taskRepository.findResponsesChangedAfter(afterKey, afterId, upTo, limit);
+    }
+
+    @Override
+    public Stream<TaskResponse> streamAllResponses() {
+        return taskRepository.streamAllResponses();
+    }
+
+    @Override
+    public List<StatusCount> countByStatus() {
+        return taskRepository.countByStatus();
+    }
+
+    @Override
+    public List<DayCount> countOpenByDueDay() {
+        return taskRepository.countOpenByDueDay();
+    }
+
+    // With the pooled task_seq ids and hibernate.jdbc.batch_size the flush is a handful of batched
+    // INSERTs rather than one per task
+    @Override
+    public List<TaskResponse> insertAll(List<Task> tasks) {
+        List<Task> saved = taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        return saved.stream().map(TaskResponse::of).toList();
+    }
+
+    // One SELECT ... IN for the lot. Dirty checking turns the changes into batched UPDATEs at the flush,
+    // where @PreUpdate stamps updatedAt and @Version moves on - and checks nobody got in after our read
+    @Override
+    public Map<Long, Change> updateAll(Collection<Long> ids, Consumer<Task> change) {
+        List<Task> tasks = taskRepository.findAllById(ids);
+        Map<Long, TaskSnapshot> previous = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            previous.put(task.getId(), TaskSnapshot.of(task));
+            change.accept(task);
+        }
+        taskRepository.flush();
+
+        Map<Long, Change> changed = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            changed.put(task.getId(), new Change(previous.get(task.getId()), TaskResponse.of(task)));
+        }
+        return changed;
+    }
+
+    @Override
+    public Optional<TaskResponse> updateStatus(Long id, TaskStatus status, LocalDateTime updatedAt,
+                                               Long expectedVersion) {
+        return taskRepository.updateStatus(id, status, updatedAt, expectedVersion);
+    }
+
+    @Override
+    public List<TaskResponse> claim(TaskStatus from, TaskStatus to, int limit) {
+        return taskRepository.claim(from, to, limit);
+    }
+
+    // deleteById loads the entity anyway, so load it ourselves and keep what the caller needs
+    @Override
+    public Optional<TaskSnapshot> delete(Long id) {
+        return taskRepository.findById(id).map(task -> {
+            taskRepository.delete(task);
+            return TaskSnapshot.of(task);
+        });
+    }
+}
@@ -0,0 +1,260 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Concurrent map from primitive {@code long} keys, split into lock stripes. Each stripe is an
+ * open-addressing table of {@code long[]} keys, so there's no boxed {@code Long} or hash node per
+ * entry. Writers to different stripes never meet, and reads are optimistic - they only take the
+ * stripe's lock if a write got in while they were looking.
+ *
+ * <p>Null values aren't allowed - a null slot is an empty slot.
+ */
+final class LongStripedMap<V> {
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Stripe<V>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    LongStripedMap() {
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    V get(long key) {
+        long hash = mix(key);
+        return stripeFor(hash).get(key, hash);
+    }
+
+    /**
+     * Replaces the value for {@code key} with whatever {@code remapping} returns for the current one
+     * (null if absent), or removes it if that's null. Runs under the stripe's write lock, so it's
+     * atomic with respect to every other write to the key - and must be quick.
+     *
+     * @return the new value
+     */
+    V compute(long key, UnaryOperator<V> remapping) {
+        long hash = mix(key);
+        return stripeFor(hash).compute(key, hash, remapping);
+    }
+
+    void forEach(Consumer<V> action) {
+        for (Stripe<V> stripe : stripes) {
+            stripe.forEach(action);
+        }
+    }
+
+    // Point-in-time per stripe, not across the whole map
+    List<V> values() {
+        List<V> values = new ArrayList<>();
+        forEach(values::add);
+        return values;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    void clear() {
+        for (Stripe<V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private Stripe<V> stripeFor(long hash) {
+        // High bits pick the stripe, low bits the slot, so the two don't correlate
+        return stripes[(int) (hash >>> 58) & (STRIPES - 1)];
+    }
+
+    // Murmur3 finalizer - sequence ids are consecutive, and linear probing needs them spread out
+    static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stripe<V> {
+
+        private final StampedLock lock = new StampedLock();
+        // Keys and values are swapped together on resize, so a reader never pairs one table's keys
+        // with another's values
+        private Table table = new Table(INITIAL_CAPACITY);
+        private int size;
+
+        V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Object value = table.find(key, hash);
+                if (lock.validate(stamp)) {
+                    return cast(value);
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return cast(table.find(key, hash));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        V compute(long key, long hash, UnaryOperator<V> remapping) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = table.slotOf(key, hash);
+                V current = slot < 0 ? null : cast(table.values[slot]);
+                V updated = remapping.apply(current);
+                if (updated == null) {
+                    if (slot >= 0) {
+                        table.removeAt(slot);
+                        size--;
+                    }
+                } else if (slot >= 0) {
+                    table.values[slot] = updated;
+                } else {
+                    if ((size + 1) * 4 > table.keys.length * 3) {
+                        table = table.resized();
+                    }
+                    table.insert(key, hash, updated);
+                    size++;
+                }
+                return updated;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void forEach(Consumer<V> action) {
+            Object[] values;
+            long stamp = lock.readLock();
+            try {
+                values = table.values.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (Object value : values) {
+                if (value != null) {
+                    action.accept(cast(value));
+                }
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(INITIAL_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V cast(Object value) {
+            return (V) value;
+        }
+    }
+
+    // Linear probing with backward-shift deletion, so there are no tombstones to clean up
+    private static final class Table {
+
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        // Safe to call mid-write under an optimistic read - bounded, and the caller validates after
+        Object find(long key, long hash) {
+            long[] keys = this.keys;
+            Object[] values = this.values;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        int slotOf(long key, long hash) {
+            int slot = (int) hash & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void insert(long key, long hash, Object value) {
+            int slot = (int) hash & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        void removeAt(int slot) {
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            // Pull back any entry that probed past the gap, so lookups don't stop short at it
+            while (values[next] != null) {
+                int home = (int) mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[gap] = null;
+            keys[gap] = 0;
+        }
+
+        Table resized() {
+            Table bigger = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    bigger.insert(keys[i], mix(keys[i]), values[i]);
+                }
+            }
+            return bigger;
+        }
+    }
+}
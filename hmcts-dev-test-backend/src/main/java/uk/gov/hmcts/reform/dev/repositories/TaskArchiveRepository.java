@@ -0,0 +1,66 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskArchive;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The archive table, and the queries that move tasks into it. Those go straight at the tasks
+ * table with JPQL, so the archiver only ever touches the JPA tables whichever store serves tasks.
+ */
+@Repository
+public interface TaskArchiveRepository extends JpaRepository<TaskArchive, Long>, TaskArchiveRepositoryCustom {
+
+    @Query("SELECT new uk.gov.hmcts.reform.dev.dto.TaskResponse("
+            + "t.id, t.title, t.description, t.status, t.dueDate, t.createdAt, t.updatedAt, t.version) "
+            + "FROM TaskArchive t WHERE t.id = :id")
+    Optional<TaskResponse> findResponseById(@Param("id") Long id);
+
+    // The archiver's keyset walk, off idx_tasks_updated_at_id. Only the key comes back - no rows, no locks
+    @Query("SELECT t.updatedAt AS updatedAt, t.id AS id FROM Task t "
+            + "WHERE t.status IN :statuses AND t.updatedAt < :cutoff "
+            + "AND (t.updatedAt > :afterKey OR (t.updatedAt = :afterKey AND t.id > :afterId)) "
+            + "ORDER BY t.updatedAt, t.id")
+    List<TaskKey> findArchivable(@Param("statuses") Collection<TaskStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterKey") LocalDateTime afterKey,
+                                 @Param("afterId") Long afterId, Limit limit);
+
+    // Row locks on one batch, re-checking each task still qualifies - one may have been reopened since
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND t.status IN :statuses AND t.updatedAt < :cutoff")
+    List<Task> lockArchivable(@Param("ids") Collection<Long> ids,
+                              @Param("statuses") Collection<TaskStatus> statuses,
+                              @Param("cutoff") LocalDateTime cutoff);
+
+    // INSERT ... SELECT, so the rows never pass through the application
+    @Modifying
+    @Query("INSERT INTO TaskArchive (id, title, description, status, dueDate, createdAt, updatedAt, version) "
+            + "SELECT t.id, t.title, t.description, t.status, t.dueDate, t.createdAt, t.updatedAt, t.version "
+            + "FROM Task t WHERE t.id IN :ids")
+    int copyFromTasks(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteFromTasks(@Param("ids") Collection<Long> ids);
+
+    interface TaskKey {
+        LocalDateTime getUpdatedAt();
+
+        Long getId();
+    }
+}
@@ -0,0 +1,16 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The task list's queries, run against the archive - same filter, order and keyset as
+ * {@link TaskRepositoryCustom}, so the two can be merged page by page.
+ */
+public interface TaskArchiveRepositoryCustom {
+
+    List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit);
+}
@@ -0,0 +1,11 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.EntityManager;
+import uk.gov.hmcts.reform.dev.models.TaskArchive;
+
+public class TaskArchiveRepositoryCustomImpl extends TaskRepositoryCustomImpl implements TaskArchiveRepositoryCustom {
+
+    public TaskArchiveRepositoryCustomImpl(EntityManager entityManager) {
+        super(entityManager, TaskArchive.class);
+    }
+}
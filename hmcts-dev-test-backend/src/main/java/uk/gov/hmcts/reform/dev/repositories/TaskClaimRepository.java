@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.util.List;
+
+public interface TaskClaimRepository {
+
+    /**
+     * Moves up to {@code limit} tasks from {@code from} to {@code to} and returns them as they are now.
+     * Takes them from the head of the queue - earliest due date first, tasks with none last, then by id -
+     * passing over any another claimer already has, so concurrent callers come away with different tasks
+     * instead of queueing behind each other. Must be called inside a transaction.
+     */
+    List<TaskResponse> claim(TaskStatus from, TaskStatus to, int limit);
+}
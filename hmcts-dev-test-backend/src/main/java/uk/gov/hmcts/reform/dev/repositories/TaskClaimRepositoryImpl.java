@@ -0,0 +1,46 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.LockOptions;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+/**
+ * Claiming on the table: {@code SELECT ... FOR UPDATE SKIP LOCKED} off the (status, due_date) index.
+ * Rows another transaction has locked are left out of the result rather than waited on, so each
+ * claimer locks its own slice of the queue head and the claims go through side by side. The row locks
+ * last until commit, which is what stops two claimers taking the same task.
+ */
+@RequiredArgsConstructor
+public class TaskClaimRepositoryImpl implements TaskClaimRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TaskResponse> claim(TaskStatus from, TaskStatus to, int limit) {
+        List<Task> tasks = entityManager.createQuery(
+                        "SELECT t FROM Task t WHERE t.status = :status ORDER BY t.dueDate ASC NULLS LAST, t.id",
+                        Task.class)
+                .setParameter("status", from)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+                .getResultList();
+
+        tasks.forEach(task -> task.setStatus(to));
+        // Now rather than at commit, so what we return carries the version and updatedAt that were written.
+        // They're all the same shape of UPDATE, so hibernate.jdbc.batch_size sends them as one batch
+        entityManager.flush();
+        return tasks.stream()
+                .map(task -> new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                        task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt(), task.getVersion()))
+                .toList();
+    }
+}
@@ -0,0 +1,42 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.reform.dev.models.TaskEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface TaskEventRepository extends JpaRepository<TaskEvent, Long> {
+
+    // A primary key range scan. Read-only, so a big batch doesn't leave dirty-checking snapshots behind.
+    // Offsets only - filtering on recordedAt here would drop a row out of the middle of a batch, and a
+    // consumer reading past it would never see it. The settle cut-off is applied in offset order by the caller
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM TaskEvent e WHERE e.id > :after AND e.id < :below ORDER BY e.id")
+    List<TaskEvent> findAfter(@Param("after") long after, @Param("below") long below, Limit limit);
+
+    // Drops events that a later event for the same task has made redundant
+    @Modifying
+    @Query("DELETE FROM TaskEvent e WHERE e.recordedAt < :cutoff AND EXISTS ("
+            + "SELECT 1 FROM TaskEvent later WHERE later.taskId = e.taskId AND later.id > e.id)")
+    int deleteSupersededBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Once every consumer has seen a delete, the task may as well never have existed
+    @Modifying
+    @Query("DELETE FROM TaskEvent e WHERE e.recordedAt < :cutoff AND e.type = 'deleted'")
+    int deleteDeletionsBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,589 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.InMemoryTaskStore.Row;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of task changes for {@link JournaledTaskStore}, and the snapshots that let
+ * it be trimmed.
+ *
+ * <p>The log is a run of fixed-size segment files, each named after the log position of its first
+ * record. The current segment is memory-mapped, so an append is a copy into the page cache under a
+ * short lock. Durability is group commit: one flusher thread forces whatever has been written since
+ * its last pass and wakes every writer waiting on it, so a single fsync covers all the appends that
+ * queued up behind the previous one.
+ *
+ * <p>Records are framed as length, CRC32C, payload. A put carries the whole row, so replaying a
+ * record twice does no harm. Recovery stops at the first frame in the last segment that's cut short
+ * or fails its checksum - a write torn by a crash - and zeroes the rest so appends carry on there.
+ *
+ * <p>A snapshot is every row as of a log position. Rows are read after the position is taken, so it
+ * may already hold some later changes, but replaying the tail over it ends with each task's last
+ * image either way. Once it's written, older snapshots and segments wholly before it are deleted.
+ */
+final class TaskJournal implements Closeable {
+
+    /**
+     * Where recovered state goes.
+     */
+    interface Replay {
+
+        void put(Row row);
+
+        void delete(long id);
+
+        void sequenceAtLeast(long sequence);
+    }
+
+    static final int FRAME_HEADER = 8;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final long SNAPSHOT_MAGIC = 0x5441534b534e4150L;
+    // Magic, position, sequence, row count
+    private static final int SNAPSHOT_HEADER = 32;
+    // A mapping can't pass 2GB, so big snapshots are read through a sliding window
+    private static final int SNAPSHOT_WINDOW = 1 << 30;
+    private static final int SNAPSHOT_BUFFER = 1 << 20;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // Appends, the current segment and the segment list
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long base;
+    private volatile long written;
+
+    // Group commit. ReentrantLock rather than synchronized so waiting virtual threads don't pin a carrier
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition pending = durableLock.newCondition();
+    private final Condition flushed = durableLock.newCondition();
+    private volatile long durable;
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    private volatile long snapshotPosition;
+
+    private TaskJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flusher = Thread.ofPlatform().daemon().name("task-journal-flusher").unstarted(this::flushLoop);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if need be, and replays what's there: the
+     * latest snapshot, then every record after it.
+     */
+    static TaskJournal open(Path directory, int segmentSize, Replay replay) throws IOException {
+        TaskJournal journal = new TaskJournal(directory, segmentSize);
+        Files.createDirectories(directory);
+        journal.recover(replay);
+        journal.flusher.start();
+        return journal;
+    }
+
+    // --- Appends
+
+    long put(Row row) {
+        return append(encode(row));
+    }
+
+    long delete(long id) {
+        return append(ByteBuffer.allocate(9).put(DELETE).putLong(id).array());
+    }
+
+    /**
+     * Writes one record into the current segment, starting a new segment if it won't fit.
+     *
+     * @return the log position just past it, to pass to {@link #awaitDurable}
+     */
+    private long append(byte[] payload) {
+        int size = FRAME_HEADER + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Journal record of %d bytes doesn't fit in a %d byte segment", size, segmentSize));
+        }
+        int checksum = checksum(ByteBuffer.wrap(payload));
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Task journal is closed");
+            }
+            if (written - base + size > segmentSize) {
+                roll();
+            }
+            int offset = (int) (written - base);
+            buffer.putInt(offset + 4, checksum);
+            buffer.put(offset + FRAME_HEADER, payload);
+            buffer.putInt(offset, payload.length);
+            written += size;
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until everything up to {@code position} is on disk.
+     */
+    void awaitDurable(long position) {
+        if (durable >= position) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            pending.signal();
+            while (durable < position) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    long position() {
+        return written;
+    }
+
+    long snapshotPosition() {
+        return snapshotPosition;
+    }
+
+    // Forces the segment being written since the last pass, then lets everyone waiting on it go
+    private void flushLoop() {
+        while (true) {
+            durableLock.lock();
+            try {
+                while (!closed && durable >= written) {
+                    pending.await();
+                }
+                if (closed) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                durableLock.unlock();
+            }
+
+            MappedByteBuffer target;
+            long segmentBase;
+            long upTo;
+            appendLock.lock();
+            try {
+                target = buffer;
+                segmentBase = base;
+                upTo = written;
+            } finally {
+                appendLock.unlock();
+            }
+            long from = Math.max(durable, segmentBase);
+            if (upTo > from) {
+                target.force((int) (from - segmentBase), (int) (upTo - from));
+            }
+            markDurable(upTo);
+        }
+    }
+
+    private void markDurable(long position) {
+        durableLock.lock();
+        try {
+            if (position > durable) {
+                durable = position;
+            }
+            flushed.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    // Under appendLock. The old segment is forced in full first, so the flusher never has to look back
+    private void roll() throws IOException {
+        buffer.force();
+        channel.close();
+        markDurable(written);
+        openSegment(written);
+        syncDirectory();
+    }
+
+    private void openSegment(long segmentBase) throws IOException {
+        Path file = directory.resolve(fileName(segmentBase, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        base = segmentBase;
+        segments.put(segmentBase, file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+        markDurable(written);
+        durableLock.lock();
+        try {
+            pending.signal();
+        } finally {
+            durableLock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Snapshots
+
+    /**
+     * Writes every row {@code rows} hands over as a snapshot at {@code position}, then deletes what
+     * it makes redundant. Take the position (and sequence) before reading any rows.
+     */
+    void snapshot(long position, long sequence, Consumer<Consumer<Row>> rows) throws IOException {
+        Path file = directory.resolve(fileName(position, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + TEMPORARY_SUFFIX);
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(SNAPSHOT_BUFFER);
+            chunk.position(SNAPSHOT_HEADER);
+            long[] count = new long[1];
+            try {
+                rows.accept(row -> {
+                    byte[] payload = encode(row);
+                    ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payload.length)
+                            .putInt(payload.length).putInt(checksum(ByteBuffer.wrap(payload))).put(payload)
+                            .flip();
+                    if (chunk.remaining() < frame.remaining()) {
+                        drain(out, chunk);
+                    }
+                    if (chunk.remaining() < frame.remaining()) {
+                        write(out, frame);
+                    } else {
+                        chunk.put(frame);
+                    }
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            drain(out, chunk);
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER)
+                    .putLong(SNAPSHOT_MAGIC).putLong(position).putLong(sequence).putLong(count[0]).flip();
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+            out.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        snapshotPosition = position;
+        trim(position, file);
+    }
+
+    private static void drain(FileChannel out, ByteBuffer chunk) {
+        chunk.flip();
+        write(out, chunk);
+        chunk.clear();
+    }
+
+    // Unchecked, since it's called from inside the row callback - snapshot() unwraps it again
+    private static void write(FileChannel out, ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                out.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void trim(long position, Path keep) throws IOException {
+        for (Path snapshot : list(SNAPSHOT_SUFFIX)) {
+            if (!snapshot.equals(keep)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        appendLock.lock();
+        try {
+            // A segment can go once the next one starts at or before the snapshot
+            while (segments.size() > 1 && segments.higherKey(segments.firstKey()) <= position) {
+                Files.deleteIfExists(segments.pollFirstEntry().getValue());
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // --- Recovery
+
+    private void recover(Replay replay) throws IOException {
+        for (Path leftover : list(TEMPORARY_SUFFIX)) {
+            Files.delete(leftover);
+        }
+        long from = 0;
+        List<Path> snapshots = list(SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            from = readSnapshot(snapshots.get(snapshots.size() - 1), replay);
+        }
+        snapshotPosition = from;
+
+        for (Path file : list(SEGMENT_SUFFIX)) {
+            segments.put(position(file), file);
+        }
+        long end = from;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            boolean last = segment.getKey().equals(segments.lastKey());
+            end = replaySegment(segment.getKey(), segment.getValue(), from, last, replay);
+        }
+
+        if (segments.isEmpty() || end - segments.lastKey() >= segmentSize) {
+            openSegment(Math.max(end, from));
+        } else {
+            openSegment(segments.lastKey());
+            clearTornTail((int) (end - base));
+        }
+        written = end;
+        durable = end;
+    }
+
+    // Anything past the last good record is a torn write. Clear it, so nothing stale can line up with
+    // a later record and be read back as if it were one. Usually it's all zeros already
+    private void clearTornTail(int from) {
+        if (isZero(from)) {
+            return;
+        }
+        byte[] zeros = new byte[SNAPSHOT_BUFFER];
+        for (int offset = from; offset < segmentSize; offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, segmentSize - offset));
+        }
+        buffer.force();
+    }
+
+    private boolean isZero(int from) {
+        int offset = from;
+        while (offset + 8 <= segmentSize) {
+            if (buffer.getLong(offset) != 0) {
+                return false;
+            }
+            offset += 8;
+        }
+        while (offset < segmentSize) {
+            if (buffer.get(offset) != 0) {
+                return false;
+            }
+            offset++;
+        }
+        return true;
+    }
+
+    private long readSnapshot(Path file, Replay replay) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = in.map(FileChannel.MapMode.READ_ONLY, 0, SNAPSHOT_HEADER);
+            if (header.getLong() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("Not a task journal snapshot: " + file);
+            }
+            long position = header.getLong();
+            replay.sequenceAtLeast(header.getLong());
+            long count = header.getLong();
+
+            long windowStart = SNAPSHOT_HEADER;
+            long read = 0;
+            while (read < count) {
+                ByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(SNAPSHOT_WINDOW, in.size() - windowStart));
+                int offset = 0;
+                ByteBuffer payload = frameAt(window, offset);
+                while (read < count && payload != null) {
+                    offset += FRAME_HEADER + payload.remaining();
+                    payload.get();
+                    replay.put(decodeRow(payload));
+                    read++;
+                    payload = frameAt(window, offset);
+                }
+                if (offset == 0) {
+                    throw new IllegalStateException(String.format(
+                            "Snapshot %s is corrupt after %d of %d rows", file, read, count));
+                }
+                windowStart += offset;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Replays the records in one segment at or after {@code from}.
+     *
+     * @return the position just past its last good record
+     */
+    private long replaySegment(long segmentBase, Path file, long from, boolean last, Replay replay)
+            throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer segment = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            int offset = 0;
+            ByteBuffer payload = frameAt(segment, offset);
+            while (payload != null) {
+                long position = segmentBase + offset;
+                offset += FRAME_HEADER + payload.remaining();
+                if (position >= from) {
+                    apply(payload, replay);
+                }
+                payload = frameAt(segment, offset);
+            }
+            if (!last && offset + 4 <= segment.limit() && segment.getInt(offset) != 0) {
+                // Segments are forced in full before the next is started, so this isn't a torn write
+                throw new IllegalStateException(String.format(
+                        "Journal segment %s is corrupt at offset %d", file, offset));
+            }
+            return segmentBase + offset;
+        }
+    }
+
+    // The payload of the frame at offset, or null if there isn't a whole, intact one there
+    private static ByteBuffer frameAt(ByteBuffer buffer, int offset) {
+        if (offset + FRAME_HEADER > buffer.limit()) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.limit() - offset - FRAME_HEADER) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(offset + FRAME_HEADER, length);
+        return checksum(payload.duplicate()) == buffer.getInt(offset + 4) ? payload : null;
+    }
+
+    private static void apply(ByteBuffer payload, Replay replay) {
+        byte kind = payload.get();
+        if (kind == PUT) {
+            replay.put(decodeRow(payload));
+        } else if (kind == DELETE) {
+            replay.delete(payload.getLong());
+        } else {
+            throw new IllegalStateException("Unknown journal record type " + kind);
+        }
+    }
+
+    // --- Record format
+
+    private static byte[] encode(Row row) {
+        byte[] title = row.title().getBytes(StandardCharsets.UTF_8);
+        byte[] description = row.description() == null ? null : row.description().getBytes(StandardCharsets.UTF_8);
+        int size = 1 + 8 + 1 + 8 + 12 + 12 + 1 + (row.dueDate() == null ? 0 : 12)
+                + 4 + title.length + 4 + (description == null ? 0 : description.length);
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(PUT).putLong(row.id()).put((byte) row.status().ordinal()).putLong(row.version());
+        putTime(buffer, row.createdAt());
+        putTime(buffer, row.updatedAt());
+        buffer.put((byte) (row.dueDate() == null ? 0 : 1));
+        if (row.dueDate() != null) {
+            putTime(buffer, row.dueDate());
+        }
+        buffer.putInt(title.length).put(title);
+        if (description == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(description.length).put(description);
+        }
+        return buffer.array();
+    }
+
+    // Reads a put's row, positioned just after the record type
+    private static Row decodeRow(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        TaskStatus status = STATUSES[buffer.get()];
+        long version = buffer.getLong();
+        LocalDateTime createdAt = getTime(buffer);
+        LocalDateTime updatedAt = getTime(buffer);
+        LocalDateTime dueDate = buffer.get() == 0 ? null : getTime(buffer);
+        String title = getString(buffer, buffer.getInt());
+        int descriptionLength = buffer.getInt();
+        String description = descriptionLength < 0 ? null : getString(buffer, descriptionLength);
+        return new Row(id, title, description, status, dueDate, createdAt, updatedAt, version);
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // --- Files
+
+    // Zero-padded so the names sort in log order
+    private static String fileName(long position, String suffix) {
+        return String.format("%020d%s", position, suffix);
+    }
+
+    private static long position(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    // So a new or renamed file survives a crash too, not just its contents
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not every platform lets a directory be opened - the rename itself is still atomic there
+        }
+    }
+}
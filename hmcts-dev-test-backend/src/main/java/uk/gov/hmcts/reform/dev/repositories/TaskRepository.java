@@ -1,15 +1,31 @@
 package uk.gov.hmcts.reform.dev.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
 import uk.gov.hmcts.reform.dev.models.Task;
 import uk.gov.hmcts.reform.dev.models.TaskStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * The tasks table. Services go through {@link JpaTaskStore} rather than using this directly.
+ */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom, TaskClaimRepository,
+        TaskStatusRepository {
     
     List<Task> findByStatus(TaskStatus status);
     
@@ -18,4 +34,57 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByStatusOrderByDueDateAsc(TaskStatus status);
     
     List<Task> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+
+    // Read paths project straight into TaskResponse - no managed entities, no first-level cache
+    // entries and no dirty-checking snapshots, just the columns we actually send back
+    String SELECT_RESPONSE = "SELECT new uk.gov.hmcts.reform.dev.dto.TaskResponse("
+            + "t.id, t.title, t.description, t.status, t.dueDate, t.createdAt, t.updatedAt, t.version) "
+            + "FROM Task t ";
+
+    @Query(SELECT_RESPONSE + "WHERE t.id = :id")
+    Optional<TaskResponse> findResponseById(@Param("id") Long id);
+
+    @Query(SELECT_RESPONSE + "WHERE t.status = :status")
+    List<TaskResponse> findResponsesByStatus(@Param("status") TaskStatus status);
+
+    @Query(SELECT_RESPONSE + "WHERE t.dueDate BETWEEN :start AND :end")
+    List<TaskResponse> findResponsesByDueDateBetween(@Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
+
+    @Query(SELECT_RESPONSE + "WHERE t.status = :status ORDER BY t.dueDate ASC")
+    List<TaskResponse> findResponsesByStatusOrderByDueDateAsc(@Param("status") TaskStatus status);
+
+    @Query(SELECT_RESPONSE + "WHERE t.id IN :ids")
+    List<TaskResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Delta sync - keyset over (updatedAt, id), which the idx_tasks_updated_at_id index serves in order
+    @Query(SELECT_RESPONSE + "WHERE (t.updatedAt > :afterKey OR (t.updatedAt = :afterKey AND t.id > :afterId)) "
+            + "AND t.updatedAt <= :upTo ORDER BY t.updatedAt, t.id")
+    List<TaskResponse> findResponsesChangedAfter(@Param("afterKey") LocalDateTime afterKey,
+                                                 @Param("afterId") Long afterId,
+                                                 @Param("upTo") LocalDateTime upTo, Limit limit);
+
+    // Must be consumed inside a transaction. Read-only so Hibernate skips the dirty-checking snapshots,
+    // and a fetch size so the driver pulls rows in chunks rather than materialising the whole result
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t ORDER BY t.id")
+    Stream<Task> streamAllByOrderById();
+
+    // Same idea for rebuilding in-memory views (search index) - projected, so there's nothing to detach
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE + "ORDER BY t.id")
+    Stream<TaskResponse> streamAllResponses();
+
+    // Reconciliation queries for the stats counters. "Open" means TODO or IN_PROGRESS
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM Task t GROUP BY t.status")
+    List<TaskStore.StatusCount> countByStatus();
+
+    @Query("SELECT CAST(t.dueDate AS LocalDate) AS day, COUNT(t) AS count FROM Task t "
+            + "WHERE t.status IN (uk.gov.hmcts.reform.dev.models.TaskStatus.TODO, "
+            + "uk.gov.hmcts.reform.dev.models.TaskStatus.IN_PROGRESS) AND t.dueDate IS NOT NULL "
+            + "GROUP BY CAST(t.dueDate AS LocalDate)")
+    List<TaskStore.DayCount> countOpenByDueDay();
+}
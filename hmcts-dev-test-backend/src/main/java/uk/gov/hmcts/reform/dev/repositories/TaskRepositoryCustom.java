@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * One keyset page of tasks matching the filter, ordered by the filter's sort column then id.
+     * Pass a null {@code afterId} for the first page; {@code afterKey} may be null when the
+     * previous page ended among tasks with no value for the sort column.
+     */
+    List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit);
+}
@@ -0,0 +1,106 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-built list query. Only the criteria that were actually supplied end up in the
+ * WHERE clause, so the planner can pick the matching index - (status, due_date) for status and
+ * due-date filters, (updated_at) for change windows, (created_at, id) for the default ordering.
+ * The archive has the same columns and indexes, so the same queries serve it too.
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final Class<?> entity;
+
+    @Autowired
+    public TaskRepositoryCustomImpl(EntityManager entityManager) {
+        this(entityManager, Task.class);
+    }
+
+    TaskRepositoryCustomImpl(EntityManager entityManager, Class<?> entity) {
+        this.entityManager = entityManager;
+        this.entity = entity;
+    }
+
+    @Override
+    public List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<?> task = query.from(entity);
+
+        query.select(cb.construct(TaskResponse.class,
+                task.get("id"), task.get("title"), task.get("description"), task.get("status"),
+                task.get("dueDate"), task.get("createdAt"), task.get("updatedAt"), task.get("version")));
+
+        List<Predicate> predicates = filterPredicates(cb, task, filter);
+
+        Path<LocalDateTime> key = task.get(filter.getSort().getAttribute());
+        Path<Long> id = task.get("id");
+        boolean ascending = filter.getDirection() == Sort.Direction.ASC;
+        if (afterId != null) {
+            predicates.add(seekPast(cb, key, id, afterKey, afterId, ascending));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        // Tasks with no value for the sort column (no due date) always go last, whichever way we sort
+        query.orderBy(
+                ascending ? cb.asc(key, false) : cb.desc(key, false),
+                ascending ? cb.asc(id) : cb.desc(id)
+        );
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private List<Predicate> filterPredicates(HibernateCriteriaBuilder cb, Root<?> task, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+            predicates.add(task.get("status").in(filter.getStatus()));
+        }
+        addRange(cb, predicates, task.get("dueDate"), filter.getDueFrom(), filter.getDueTo());
+        addRange(cb, predicates, task.get("createdAt"), filter.getCreatedFrom(), filter.getCreatedTo());
+        addRange(cb, predicates, task.get("updatedAt"), filter.getUpdatedFrom(), filter.getUpdatedTo());
+        return predicates;
+    }
+
+    private void addRange(HibernateCriteriaBuilder cb, List<Predicate> predicates,
+                          Path<LocalDateTime> path, LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, to));
+        }
+    }
+
+    private Predicate seekPast(HibernateCriteriaBuilder cb, Path<LocalDateTime> key, Path<Long> id,
+                               LocalDateTime afterKey, Long afterId, boolean ascending) {
+        Predicate idPast = ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId);
+        if (afterKey == null) {
+            // Already into the null tail - only other nulls can follow
+            return cb.and(cb.isNull(key), idPast);
+        }
+        Predicate keyPast = ascending ? cb.greaterThan(key, afterKey) : cb.lessThan(key, afterKey);
+        return cb.or(
+                keyPast,
+                cb.and(cb.equal(key, afterKey), idPast),
+                cb.isNull(key)
+        );
+    }
+}
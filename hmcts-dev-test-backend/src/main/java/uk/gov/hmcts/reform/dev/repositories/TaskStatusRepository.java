@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface TaskStatusRepository {
+
+    /**
+     * Moves a task to {@code status} without loading the entity and returns the whole task as it was
+     * just before the change - or empty if nothing was updated, because the task doesn't exist or (with an
+     * {@code expectedVersion}) has moved on. Bumps the version and sets {@code updatedAt}.
+     */
+    Optional<TaskResponse> updateStatus(Long id, TaskStatus status, LocalDateTime updatedAt, Long expectedVersion);
+}
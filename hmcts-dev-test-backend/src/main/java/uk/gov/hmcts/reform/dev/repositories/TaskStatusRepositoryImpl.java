@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Two plain statements in the caller's transaction, nothing dialect-specific: the row is read as a
+ * projection under {@code FOR UPDATE}, then updated {@code WHERE id = ? AND version = ?} with the
+ * version just read. The lock means nobody can change the row in between, so what was read is exactly
+ * what the status moved from - the stats need that, and listeners get the rest of the row without the
+ * entity ever being loaded.
+ */
+@RequiredArgsConstructor
+public class TaskStatusRepositoryImpl implements TaskStatusRepository {
+
+    private static final String SELECT = "SELECT id, title, description, status, due_date, created_at, updated_at,"
+            + " version FROM tasks WHERE id = :id FOR UPDATE";
+    private static final String UPDATE = "UPDATE tasks SET status = :status, updated_at = :updatedAt,"
+            + " version = version + 1 WHERE id = :id AND version = :version";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<TaskResponse> updateStatus(Long id, TaskStatus status, LocalDateTime updatedAt,
+                                               Long expectedVersion) {
+        // Anything pending on a loaded Task goes out first, as Hibernate would before a bulk update
+        entityManager.flush();
+        Optional<TaskResponse> previous = lock(id)
+                .filter(task -> expectedVersion == null || expectedVersion.equals(task.getVersion()));
+        if (previous.isEmpty()) {
+            return previous;
+        }
+        entityManager.createNativeQuery(UPDATE)
+                .setParameter("status", status.name())
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", id)
+                .setParameter("version", previous.get().getVersion())
+                .executeUpdate();
+        // Only this task is stale now - a reference is whatever's already managed, or a proxy that
+        // costs nothing, so detaching it leaves the rest of the persistence context alone
+        entityManager.detach(entityManager.getReference(Task.class, id));
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<TaskResponse> lock(Long id) {
+        List<Object[]> rows = entityManager.createNativeQuery(SELECT)
+                .setParameter("id", id)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("status", String.class)
+                .addScalar("due_date", LocalDateTime.class)
+                .addScalar("created_at", LocalDateTime.class)
+                .addScalar("updated_at", LocalDateTime.class)
+                .addScalar("version", Long.class)
+                .getResultList();
+        return rows.stream()
+                .findFirst()
+                .map(row -> new TaskResponse((Long) row[0], (String) row[1], (String) row[2],
+                        TaskStatus.valueOf((String) row[3]), (LocalDateTime) row[4], (LocalDateTime) row[5],
+                        (LocalDateTime) row[6], (Long) row[7]));
+    }
+}
@@ -0,0 +1,113 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.springframework.data.domain.Limit;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Everything the services do with live tasks, and nothing else. {@link JpaTaskStore} puts it on the
+ * tasks table; the {@code memory} and {@code journal} profiles swap in {@link InMemoryTaskStore} or
+ * {@link JournaledTaskStore} instead.
+ *
+ * <p>Reads hand back {@link TaskResponse}s and writes say what they did, so no caller ever holds an
+ * entity that a store would have to track. Writes are made inside the caller's transaction and undone
+ * if it rolls back.
+ */
+public interface TaskStore {
+
+    Optional<TaskResponse> findResponseById(Long id);
+
+    boolean existsById(Long id);
+
+    /**
+     * One keyset page of tasks matching the filter, ordered by the filter's sort column then id.
+     * Pass a null {@code afterId} for the first page; {@code afterKey} may be null when the
+     * previous page ended among tasks with no value for the sort column.
+     */
+    List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit);
+
+    // In no particular order
+    List<TaskResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    // Delta sync - tasks changed after (afterKey, afterId) and no later than upTo, in (updatedAt, id) order
+    List<TaskResponse> findResponsesChangedAfter(LocalDateTime afterKey, Long afterId, LocalDateTime upTo,
+                                                 Limit limit);
+
+    /**
+     * Every task in id order. Close it when done; the table-backed one has to be read inside a transaction.
+     */
+    Stream<TaskResponse> streamAllResponses();
+
+    // For reconciling the stats counters. "Open" means TODO or IN_PROGRESS
+    List<StatusCount> countByStatus();
+
+    List<DayCount> countOpenByDueDay();
+
+    /**
+     * Adds new tasks, filling in their ids, timestamps and versions, and returns them as stored.
+     */
+    List<TaskResponse> insertAll(List<Task> tasks);
+
+    default TaskResponse insert(Task task) {
+        return insertAll(List.of(task)).get(0);
+    }
+
+    /**
+     * Hands each of the tasks that exist to {@code change} and writes back whatever it did, bumping
+     * version and updatedAt where something actually changed. Ids that don't exist are left out of
+     * the result. An exception from {@code change} abandons the write.
+     */
+    Map<Long, Change> updateAll(Collection<Long> ids, Consumer<Task> change);
+
+    default Optional<Change> update(Long id, Consumer<Task> change) {
+        return Optional.ofNullable(updateAll(List.of(id), change).get(id));
+    }
+
+    /**
+     * Moves a task to {@code status} in one step and returns the whole task as it was just before -
+     * or empty if nothing was updated, because the task doesn't exist or (with an
+     * {@code expectedVersion}) has moved on. Bumps the version and sets {@code updatedAt}.
+     */
+    Optional<TaskResponse> updateStatus(Long id, TaskStatus status, LocalDateTime updatedAt, Long expectedVersion);
+
+    /**
+     * Moves up to {@code limit} tasks from {@code from} to {@code to} and returns them as they are now.
+     * Takes them from the head of the queue - earliest due date first, tasks with none last, then by id -
+     * passing over any another claimer already has, so concurrent callers come away with different tasks
+     * instead of queueing behind each other.
+     */
+    List<TaskResponse> claim(TaskStatus from, TaskStatus to, int limit);
+
+    /**
+     * Removes a task and returns what it was, or empty if there was no such task.
+     */
+    Optional<TaskSnapshot> delete(Long id);
+
+    // A task before and after an update
+    record Change(TaskSnapshot previous, TaskResponse task) {
+    }
+
+    interface StatusCount {
+        TaskStatus getStatus();
+
+        long getCount();
+    }
+
+    interface DayCount {
+        LocalDate getDay();
+
+        long getCount();
+    }
+}
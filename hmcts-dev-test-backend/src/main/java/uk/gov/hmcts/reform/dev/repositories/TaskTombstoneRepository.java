@@ -0,0 +1,23 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.reform.dev.models.TaskTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("SELECT t.taskId FROM TaskTombstone t WHERE t.deletedAt > :after AND t.deletedAt <= :upTo "
+            + "ORDER BY t.deletedAt")
+    List<Long> findTaskIdsDeletedBetween(@Param("after") LocalDateTime after, @Param("upTo") LocalDateTime upTo);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
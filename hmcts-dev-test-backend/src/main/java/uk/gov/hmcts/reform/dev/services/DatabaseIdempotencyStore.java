@@ -0,0 +1,76 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.dev.models.IdempotencyRecord;
+import uk.gov.hmcts.reform.dev.repositories.IdempotencyRecordRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Store shared through the idempotency_keys table, for when the gateway can send the retry to a
+ * different instance. A claim is an INSERT on the key, so the primary key decides which instance
+ * runs the request.
+ *
+ * <p>A claim whose instance dies mid-request would otherwise hold the key until the purge. It
+ * lapses after {@code tasks.idempotency.claim-timeout} and the next retry takes it over.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tasks.idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration timeToLive;
+    private final Duration claimTimeout;
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository,
+                                    @Value("${tasks.idempotency.time-to-live:PT24H}") Duration timeToLive,
+                                    @Value("${tasks.idempotency.claim-timeout:PT1M}") Duration claimTimeout) {
+        this.repository = repository;
+        this.timeToLive = timeToLive;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Override
+    public Optional<Entry> find(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.findById(key)
+                .filter(found -> found.getExpiresAt().isAfter(now))
+                .map(found -> new Entry(found.getFingerprint(), found.getResponse()));
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.deleteExpired(key, now);
+        try {
+            repository.saveAndFlush(new IdempotencyRecord(key, fingerprint, null, now.plus(claimTimeout), null));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String key, Entry entry) {
+        repository.complete(key, entry.response(), LocalDateTime.now().plus(timeToLive));
+    }
+
+    @Override
+    public void release(String key) {
+        repository.deleteById(key);
+    }
+
+    @Scheduled(cron = "${tasks.idempotency.purge-cron:0 */10 * * * *}")
+    public void purge() {
+        int purged = repository.deleteAllExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+}
@@ -0,0 +1,178 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.dev.exceptions.IdempotencyKeyInProgressException;
+import uk.gov.hmcts.reform.dev.exceptions.IdempotencyKeyReusedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes a write safe to retry. The first request with a given {@code Idempotency-Key} runs, and its
+ * response is kept in the {@link IdempotencyStore}. Any retry with the same key gets that response
+ * back instead of writing again.
+ *
+ * <p>Duplicates that arrive while the first request is still running wait for it rather than
+ * racing it. On this instance they share its future, so only one insert ever runs. With the
+ * database store, a duplicate on another instance loses the claim and polls for the result. Either
+ * way a duplicate gives up with a 409 after {@code tasks.idempotency.wait-timeout}.
+ *
+ * <p>Reusing a key with a different body is refused with a 422. If the first request fails, the
+ * key is released and the client's next retry runs for real.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    /**
+     * The response, and whether it was replayed rather than produced just now.
+     */
+    public record Idempotent<T>(T body, boolean replayed) {
+    }
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<String, CompletableFuture<IdempotencyStore.Entry>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper objectMapper,
+                              @Value("${tasks.idempotency.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Runs {@code action} once per {@code key} and {@code operation}, or replays its earlier
+     * response. A null or blank key just runs it.
+     */
+    public <T> Idempotent<T> execute(String key, String operation, Object request, TypeReference<T> type,
+                                     Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Idempotent<>(action.get(), false);
+        }
+        String storeKey = sha256(operation + ":" + key);
+        String fingerprint = sha256(toJson(request));
+
+        Optional<IdempotencyStore.Entry> stored = store.find(storeKey);
+        if (stored.isPresent() && stored.get().response() != null) {
+            return replay(stored.get(), fingerprint, key, type);
+        }
+
+        CompletableFuture<IdempotencyStore.Entry> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyStore.Entry> running = inFlight.putIfAbsent(storeKey, mine);
+        if (running != null) {
+            return replay(await(running, key), fingerprint, key, type);
+        }
+        try {
+            // Lost the claim - the first request is on another instance, or finished just now
+            while (!store.claim(storeKey, fingerprint)) {
+                Optional<IdempotencyStore.Entry> done = awaitStored(storeKey, key);
+                if (done.isPresent()) {
+                    mine.complete(done.get());
+                    return replay(done.get(), fingerprint, key, type);
+                }
+            }
+
+            T result;
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                store.release(storeKey);
+                throw e;
+            }
+            IdempotencyStore.Entry entry = new IdempotencyStore.Entry(fingerprint, toJson(result));
+            store.complete(storeKey, entry);
+            mine.complete(entry);
+            return new Idempotent<>(result, false);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(storeKey, mine);
+        }
+    }
+
+    // A duplicate on this instance - wait for the request already running. If that fails, so does this
+    private IdempotencyStore.Entry await(CompletableFuture<IdempotencyStore.Entry> running, String key) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        }
+    }
+
+    // Another instance holds the claim. Empty means it gave the key up, so try claiming it again
+    private Optional<IdempotencyStore.Entry> awaitStored(String storeKey, String key) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<IdempotencyStore.Entry> stored = store.find(storeKey);
+            if (stored.isEmpty() || stored.get().response() != null) {
+                return stored;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new IdempotencyKeyInProgressException(key);
+    }
+
+    private <T> Idempotent<T> replay(IdempotencyStore.Entry entry, String fingerprint, String key,
+                                     TypeReference<T> type) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        try {
+            return new Idempotent<>(objectMapper.readValue(entry.response(), type), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize for idempotency", e);
+        }
+    }
+
+    static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import java.util.Optional;
+
+/**
+ * Where {@link IdempotencyService} keeps the responses it may need to replay. Keys arrive already
+ * hashed and scoped to the operation. {@code tasks.idempotency.store} picks the implementation:
+ * {@code memory} (the default, one instance) or {@code database} (shared by every instance).
+ */
+public interface IdempotencyStore {
+
+    /**
+     * What's held for a key. {@code response} is null while the request that claimed it is still running.
+     */
+    record Entry(String fingerprint, String response) {
+    }
+
+    Optional<Entry> find(String key);
+
+    /**
+     * Takes the key for a request about to run.
+     *
+     * @return false if the key is already taken - in flight elsewhere or already answered
+     */
+    boolean claim(String key, String fingerprint);
+
+    void complete(String key, Entry entry);
+
+    // The request failed - let the next retry have another go
+    void release(String key);
+}
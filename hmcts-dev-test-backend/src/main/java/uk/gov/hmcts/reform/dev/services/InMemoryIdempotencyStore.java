@@ -0,0 +1,50 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Single-instance store - a bounded Caffeine cache, so a flood of unique keys can't grow it past
+ * {@code tasks.idempotency.maximum-size}. Only finished responses are kept. {@link IdempotencyService}
+ * already holds duplicates back while the first request is running.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> cache;
+
+    public InMemoryIdempotencyStore(@Value("${tasks.idempotency.maximum-size:100000}") long maximumSize,
+                                    @Value("${tasks.idempotency.time-to-live:PT24H}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    @Override
+    public Optional<Entry> find(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint) {
+        return cache.getIfPresent(key) == null;
+    }
+
+    @Override
+    public void complete(String key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    @Override
+    public void release(String key) {
+        // Nothing was written for the key until it completed
+    }
+}
@@ -0,0 +1,13 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+
+import java.util.Map;
+
+/**
+ * Published once per archived batch, for the listeners that keep state about the live table -
+ * the tasks have gone from it, but they haven't been deleted. It's deliberately not a
+ * {@link TaskChangeEvent}, so nothing lands in the outbox or as a tombstone.
+ */
+public record TaskArchivedEvent(Map<Long, TaskSnapshot> tasks) {
+}
@@ -0,0 +1,144 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskArchiveRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves finished tasks out of the live table once nobody's touched them for {@code tasks.archive.after},
+ * so the table and its indexes stay the size of the work that's actually in flight.
+ *
+ * <p>Each run walks the candidates in (updatedAt, id) order and moves them {@code tasks.archive.batch-size}
+ * at a time, each batch in its own short transaction: lock the rows, copy them across with an
+ * INSERT ... SELECT, delete them. The lock query re-checks status and age, so a task reopened since
+ * the walk found it stays where it is. Batches are {@code tasks.archive.pause} apart, so a big
+ * backlog drains without hogging the database.
+ *
+ * <p>Archiving isn't a delete - there's no tombstone and no outbox event. Reads see archived tasks
+ * again with {@code includeArchived}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "tasks.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver {
+
+    static final Set<TaskStatus> FINISHED = EnumSet.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+
+    private final TaskArchiveRepository archiveRepository;
+    private final TransactionOperations transactions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration after;
+    private final int batchSize;
+    private final Duration pause;
+    private final Clock clock;
+
+    @Autowired
+    public TaskArchiver(TaskArchiveRepository archiveRepository, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${tasks.archive.after:P30D}") Duration after,
+                        @Value("${tasks.archive.batch-size:500}") int batchSize,
+                        @Value("${tasks.archive.pause:PT0.2S}") Duration pause) {
+        this(archiveRepository, new TransactionTemplate(transactionManager), eventPublisher, after, batchSize, pause,
+                Clock.systemDefaultZone());
+    }
+
+    TaskArchiver(TaskArchiveRepository archiveRepository, TransactionOperations transactions,
+                 ApplicationEventPublisher eventPublisher, Duration after, int batchSize, Duration pause,
+                 Clock clock) {
+        this.archiveRepository = archiveRepository;
+        this.transactions = transactions;
+        this.eventPublisher = eventPublisher;
+        this.after = after;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.clock = clock;
+    }
+
+    /**
+     * Archives everything that's due, a batch at a time.
+     *
+     * @return how many tasks were moved
+     */
+    @Scheduled(fixedDelayString = "${tasks.archive.interval:PT10M}",
+            initialDelayString = "${tasks.archive.interval:PT10M}")
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(after);
+        LocalDateTime afterKey = TaskChangesService.BEGINNING;
+        long afterId = 0;
+        int archived = 0;
+        long started = System.nanoTime();
+
+        while (true) {
+            List<TaskArchiveRepository.TaskKey> keys =
+                    archiveRepository.findArchivable(FINISHED, cutoff, afterKey, afterId, Limit.of(batchSize));
+            if (keys.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(keys.size());
+            keys.forEach(key -> ids.add(key.getId()));
+            Integer moved = transactions.execute(status -> archiveBatch(ids, cutoff));
+            archived += moved == null ? 0 : moved;
+
+            TaskArchiveRepository.TaskKey last = keys.get(keys.size() - 1);
+            afterKey = last.getUpdatedAt();
+            afterId = last.getId();
+            if (keys.size() < batchSize || !rest()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} tasks finished before {} in {} ms", archived, cutoff,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(List<Long> ids, LocalDateTime cutoff) {
+        List<Task> locked = archiveRepository.lockArchivable(ids, FINISHED, cutoff);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        Map<Long, TaskSnapshot> tasks = new LinkedHashMap<>();
+        locked.forEach(task -> tasks.put(task.getId(), TaskSnapshot.of(task)));
+        archiveRepository.copyFromTasks(tasks.keySet());
+        archiveRepository.deleteFromTasks(tasks.keySet());
+        eventPublisher.publishEvent(new TaskArchivedEvent(tasks));
+        return tasks.size();
+    }
+
+    // False if we're being shut down, so the run stops between batches rather than in one
+    private boolean rest() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkResult;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkUpdateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.exceptions.BulkLimitExceededException;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create and update for the upstream case system, which sends tasks in bursts of thousands.
+ *
+ * <p>Each item is validated on its own so one bad row doesn't sink the rest. Everything that
+ * passes goes through in one call to the store, in a single transaction - on the tasks table that's
+ * a handful of batched statements rather than one per task.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(timeoutString = TaskChangesService.BULK_WRITE_TIMEOUT)
+public class TaskBulkService {
+
+    public static final int MAX_BULK_SIZE = 1000;
+
+    private final TaskStore taskStore;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public List<TaskBulkResult> createTasks(List<TaskCreateRequest> requests) {
+        checkSize(requests);
+        TaskBulkResult[] results = new TaskBulkResult[requests.size()];
+
+        List<Integer> indexes = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> fieldErrors = validate(requests.get(i));
+            if (fieldErrors.isEmpty()) {
+                indexes.add(i);
+                tasks.add(TaskService.newTask(requests.get(i)));
+            } else {
+                results[i] = invalid(i, fieldErrors);
+            }
+        }
+
+        List<TaskResponse> saved = taskStore.insertAll(tasks);
+
+        for (int i = 0; i < saved.size(); i++) {
+            int index = indexes.get(i);
+            TaskResponse response = saved.get(i);
+            results[index] = new TaskBulkResult(index, HttpStatus.CREATED.value(), response, null);
+            eventPublisher.publishEvent(TaskChangeEvent.created(response));
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<TaskBulkResult> updateTasks(List<TaskBulkUpdateRequest> requests) {
+        checkSize(requests);
+        TaskBulkResult[] results = new TaskBulkResult[requests.size()];
+
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> fieldErrors = validate(requests.get(i));
+            if (fieldErrors.isEmpty()) {
+                indexes.add(i);
+            } else {
+                results[i] = invalid(i, fieldErrors);
+            }
+        }
+
+        // Applied in request order, so an id repeated in the request ends up as its last item says
+        Map<Long, List<Integer>> itemsById = indexes.stream()
+                .collect(Collectors.groupingBy(i -> requests.get(i).getId(), LinkedHashMap::new, Collectors.toList()));
+        Map<Long, TaskStore.Change> changes = taskStore.updateAll(itemsById.keySet(),
+                task -> itemsById.get(task.getId()).forEach(i -> TaskService.applyUpdate(task, requests.get(i))));
+
+        for (int index : indexes) {
+            TaskStore.Change change = changes.get(requests.get(index).getId());
+            results[index] = change == null
+                    ? new TaskBulkResult(index, HttpStatus.NOT_FOUND.value(), null, null)
+                    : new TaskBulkResult(index, HttpStatus.OK.value(), change.task(), null);
+        }
+        // One event per task even if its id was repeated, from its original state
+        changes.values().forEach(change -> eventPublisher.publishEvent(
+                TaskChangeEvent.updated(change.previous(), change.task())));
+        return Arrays.asList(results);
+    }
+
+    private void checkSize(List<?> requests) {
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new BulkLimitExceededException(requests.size(), MAX_BULK_SIZE);
+        }
+    }
+
+    private Map<String, String> validate(Object request) {
+        Map<String, String> fieldErrors = new HashMap<>();
+        if (request == null) {
+            fieldErrors.put("item", "Item is required");
+            return fieldErrors;
+        }
+        for (ConstraintViolation<Object> violation : validator.validate(request)) {
+            fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return fieldErrors;
+    }
+
+    private TaskBulkResult invalid(int index, Map<String, String> fieldErrors) {
+        return new TaskBulkResult(index, HttpStatus.BAD_REQUEST.value(), null, fieldErrors);
+    }
+}
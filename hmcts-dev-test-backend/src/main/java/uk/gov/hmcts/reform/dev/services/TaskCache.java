@@ -0,0 +1,70 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single-task reads. Caffeine gives us size-bounded W-TinyLFU
+ * eviction, so a burst of one-off lookups can't push out the tasks people keep coming back to.
+ *
+ * <p>Entries are dropped once a change to the task commits - never before, so nobody can read
+ * a write that later rolls back. Caffeine holds an invalidation until any in-flight load for
+ * the same id finishes, so a load that started before the commit can't leave stale data behind.
+ * Loads are read from the primary (see {@link TaskService#getTaskById}), never a replica. The TTL
+ * is the backstop for writes made by other instances.
+ *
+ * <p>Hits, misses and evictions show up in actuator under {@code cache.*} with {@code cache=tasks}.
+ */
+@Component
+public class TaskCache {
+
+    private final Cache<Long, TaskResponse> cache;
+
+    public TaskCache(@Value("${tasks.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${tasks.cache.time-to-live:PT1M}") Duration timeToLive,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+    }
+
+    // Misses aren't cached - a task that doesn't exist yet shouldn't stay missing once it's created
+    public Optional<TaskResponse> get(Long id, Function<Long, Optional<TaskResponse>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Invalidate rather than put the new state - after-commit listeners can run out of order
+    // across threads, and an older update landing last would otherwise stick until the TTL
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        if (event.type() != TaskChangeEvent.Type.CREATED) {
+            invalidate(event.taskId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksArchived(TaskArchivedEvent event) {
+        cache.invalidateAll(event.tasks().keySet());
+    }
+}
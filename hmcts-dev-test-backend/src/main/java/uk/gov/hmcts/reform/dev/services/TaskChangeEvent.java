@@ -0,0 +1,41 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+/**
+ * Published by the write paths whenever a task changes. Listeners that keep derived state
+ * (search index and friends) should use {@code @TransactionalEventListener} so they only
+ * ever see committed changes.
+ *
+ * <p>{@code task} is the full state after the change, for everything except deletes - even a
+ * status-only write has the row to hand, so listeners never need to load it. {@code previous}
+ * is what the task looked like before, for everything except creates.
+ */
+public record TaskChangeEvent(Type type, Long taskId, TaskStatus status, TaskResponse task,
+                              TaskSnapshot previous) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    public static TaskChangeEvent created(TaskResponse task) {
+        return new TaskChangeEvent(Type.CREATED, task.getId(), task.getStatus(), task, null);
+    }
+
+    public static TaskChangeEvent updated(TaskSnapshot previous, TaskResponse task) {
+        return new TaskChangeEvent(Type.UPDATED, task.getId(), task.getStatus(), task, previous);
+    }
+
+    public static TaskChangeEvent statusChanged(TaskSnapshot previous, TaskResponse task) {
+        return new TaskChangeEvent(Type.STATUS_CHANGED, task.getId(), task.getStatus(), task, previous);
+    }
+
+    public static TaskChangeEvent deleted(Long taskId, TaskSnapshot previous) {
+        return new TaskChangeEvent(Type.DELETED, taskId, null, null, previous);
+    }
+}
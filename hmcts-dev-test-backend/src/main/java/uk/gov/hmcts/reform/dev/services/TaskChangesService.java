@@ -0,0 +1,135 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.dev.dto.TaskChanges;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.exceptions.WatermarkExpiredException;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+import uk.gov.hmcts.reform.dev.repositories.TaskTombstoneRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync: tasks changed since a watermark, walked in (updatedAt, id) order off the updated_at
+ * index, plus the ids of tasks deleted in the same window.
+ *
+ * <p>The window stops {@code tasks.changes.settle} short of now. updatedAt is stamped when a write
+ * happens, not when it commits, so a transaction still in flight can land with a time just behind
+ * what we've already handed out - holding back the last moment gives it time to commit. That only
+ * holds if no write takes longer than the window, so it's a hard limit: every write that stamps
+ * updatedAt runs with {@link #WRITE_TIMEOUT}, or {@link #BULK_WRITE_TIMEOUT} for the ones that touch
+ * up to a thousand rows at once, Hibernate refuses statements once it's up, and we won't start with a
+ * settle window that isn't longer than the longer of the two.
+ *
+ * <p>The watermark is a {@link TaskCursor} - opaque to clients. Deletions are only kept for
+ * {@code tasks.changes.tombstone-retention}; a watermark older than that gets a 410 and the client
+ * reloads from scratch.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class TaskChangesService {
+
+    public static final int MAX_CHANGES = 1000;
+    // Seconds - for @Transactional(timeoutString) on anything that stamps updatedAt
+    public static final String WRITE_TIMEOUT = "${tasks.changes.write-timeout:1}";
+    // Seconds - the same for bulk writes and batch claims, which a single-task timeout would cut short
+    public static final String BULK_WRITE_TIMEOUT = "${tasks.changes.bulk-write-timeout:5}";
+    // Before any task could exist - a first sync starts from here
+    static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TaskStore taskStore;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final Duration settle;
+    private final Duration tombstoneRetention;
+    private final Clock clock;
+
+    @Autowired
+    public TaskChangesService(TaskStore taskStore, TaskTombstoneRepository tombstoneRepository,
+                              @Value("${tasks.changes.settle:PT6S}") Duration settle,
+                              @Value("${tasks.changes.tombstone-retention:P30D}") Duration tombstoneRetention,
+                              @Value(WRITE_TIMEOUT) int writeTimeoutSeconds,
+                              @Value(BULK_WRITE_TIMEOUT) int bulkWriteTimeoutSeconds) {
+        this(taskStore, tombstoneRepository, settle, tombstoneRetention, writeTimeoutSeconds,
+                bulkWriteTimeoutSeconds, Clock.systemDefaultZone());
+    }
+
+    TaskChangesService(TaskStore taskStore, TaskTombstoneRepository tombstoneRepository, Duration settle,
+                       Duration tombstoneRetention, int writeTimeoutSeconds, int bulkWriteTimeoutSeconds,
+                       Clock clock) {
+        checkSettle("tasks.changes.settle", settle, writeTimeoutSeconds, bulkWriteTimeoutSeconds);
+        this.taskStore = taskStore;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settle = settle;
+        this.tombstoneRetention = tombstoneRetention;
+        this.clock = clock;
+    }
+
+    // Shared with the outbox, whose settle window has to cover the same writes
+    static void checkSettle(String property, Duration settle, int writeTimeoutSeconds, int bulkWriteTimeoutSeconds) {
+        if (writeTimeoutSeconds < 1 || bulkWriteTimeoutSeconds < 1) {
+            throw new IllegalArgumentException("tasks.changes.write-timeout (" + writeTimeoutSeconds
+                    + "s) and tasks.changes.bulk-write-timeout (" + bulkWriteTimeoutSeconds + "s) have to be positive");
+        }
+        int longest = Math.max(writeTimeoutSeconds, bulkWriteTimeoutSeconds);
+        if (settle.compareTo(Duration.ofSeconds(longest)) <= 0) {
+            throw new IllegalArgumentException(property + " (" + settle + ") has to be longer than both "
+                    + "tasks.changes.write-timeout (" + writeTimeoutSeconds + "s) and "
+                    + "tasks.changes.bulk-write-timeout (" + bulkWriteTimeoutSeconds + "s)");
+        }
+    }
+
+    // Not read-only, so with replicas it's served by the primary - one lagging further behind than the
+    // settle window would have a client step past changes it then never sees
+    @Transactional
+    public TaskChanges getChanges(String since, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_CHANGES);
+        LocalDateTime now = LocalDateTime.now(clock);
+        boolean firstSync = since == null || since.isBlank();
+        TaskCursor from = firstSync ? new TaskCursor(BEGINNING, Long.MAX_VALUE) : TaskCursor.decode(since);
+        // Only a caught-up watermark can go stale. One from the middle of a hasMore run sits at the last
+        // task's updatedAt, which can be as old as you like, and is used straight away anyway
+        if (!firstSync && from.id() == Long.MAX_VALUE && from.key().isBefore(now.minus(tombstoneRetention))) {
+            throw new WatermarkExpiredException(from.key());
+        }
+
+        LocalDateTime upTo = now.minus(settle);
+        if (!from.key().isBefore(upTo)) {
+            return new TaskChanges(List.of(), List.of(), from.encode(), false);
+        }
+
+        List<TaskResponse> changed = taskStore.findResponsesChangedAfter(
+                from.key(), from.id(), upTo, Limit.of(pageSize + 1));
+        boolean hasMore = changed.size() > pageSize;
+        TaskCursor next;
+        if (hasMore) {
+            changed = changed.subList(0, pageSize);
+            TaskResponse last = changed.get(pageSize - 1);
+            next = new TaskCursor(last.getUpdatedAt(), last.getId());
+        } else {
+            // Everything up to the end of the window has been seen
+            next = new TaskCursor(upTo, Long.MAX_VALUE);
+        }
+
+        // A first sync has nothing to delete
+        List<Long> deleted = firstSync ? List.of()
+                : tombstoneRepository.findTaskIdsDeletedBetween(from.key(), next.key());
+        return new TaskChanges(changed, deleted, next.encode(), hasMore);
+    }
+
+    @Scheduled(cron = "${tasks.changes.tombstone-purge-cron:0 30 2 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now(clock).minus(tombstoneRetention));
+        log.info("Purged {} task tombstones older than {}", purged, tombstoneRetention);
+    }
+}
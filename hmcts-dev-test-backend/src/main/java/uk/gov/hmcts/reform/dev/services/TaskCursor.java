@@ -0,0 +1,93 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSort;
+import uk.gov.hmcts.reform.dev.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position over (sort key, id) for the task list. The key is null when
+ * paging through the tail of tasks that have no value for the sort column (no due date).
+ *
+ * <p>Clients just echo the string back - the encoding is an implementation detail,
+ * so we're free to change it later without breaking anyone. List cursors also carry the sort and
+ * direction they were made for, since the same position means a different page in another order.
+ */
+public record TaskCursor(LocalDateTime key, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TaskCursor of(TaskResponse task, TaskSort sort) {
+        return new TaskCursor(sort.keyOf(task), task.getId());
+    }
+
+    public String encode() {
+        return toBase64(raw());
+    }
+
+    /**
+     * Encodes the position for the list ordered as {@code filter} asks, so it can only be used
+     * to carry on in that order.
+     */
+    public String encode(TaskFilter filter) {
+        return toBase64(orderOf(filter) + raw());
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            return parse(fromBase64(cursor));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Decodes a list cursor, rejecting one that was made for a different sort or direction.
+     */
+    public static TaskCursor decode(String cursor, TaskFilter filter) {
+        String raw;
+        try {
+            raw = fromBase64(cursor);
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+        String order = orderOf(filter);
+        if (!raw.startsWith(order)) {
+            throw new InvalidCursorException(cursor, "it was issued for a different sort or direction");
+        }
+        try {
+            return parse(raw.substring(order.length()));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private String raw() {
+        return (key == null ? "" : key.toString()) + SEPARATOR + id;
+    }
+
+    private static TaskCursor parse(String raw) {
+        int split = raw.lastIndexOf(SEPARATOR);
+        String key = raw.substring(0, split);
+        return new TaskCursor(
+                key.isEmpty() ? null : LocalDateTime.parse(key),
+                Long.valueOf(raw.substring(split + 1))
+        );
+    }
+
+    private static String orderOf(TaskFilter filter) {
+        return filter.getSort().name() + SEPARATOR + filter.getDirection().name() + SEPARATOR;
+    }
+
+    private static String toBase64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromBase64(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
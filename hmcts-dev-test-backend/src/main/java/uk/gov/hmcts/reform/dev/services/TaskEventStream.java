@@ -0,0 +1,245 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uk.gov.hmcts.reform.dev.dto.TaskFeedEvent;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed task changes to everyone subscribed to {@code /api/tasks/events}, so screens can
+ * stay fresh without polling the list.
+ *
+ * <p>An idle subscriber is an async servlet request and a small queue - no thread. Each change is
+ * turned into an SSE frame once and queued for every subscriber whose status filter it matches; a
+ * virtual thread per busy subscriber does the actual writing, so a slow client only holds up itself.
+ * When a subscriber's queue fills up its backlog is thrown away and replaced with a single
+ * {@code resync} event: the client should reload the list rather than trust a feed with holes in it.
+ *
+ * <p>Every change has an id, and the last {@code tasks.events.buffer-size} of them are kept. A client
+ * that reconnects with {@code Last-Event-ID} (EventSource sends it for you) is sent whatever it
+ * missed, if all of that is still here. Otherwise it gets a {@code resync}: the id is too old, from
+ * before a restart, or from a stretch when nobody was subscribed and so nothing was kept.
+ *
+ * <p>A comment line goes to everyone every {@code tasks.events.heartbeat-interval} - it keeps proxies
+ * from closing quiet connections and finds the ones that have gone away.
+ */
+@Slf4j
+@Component
+public class TaskEventStream implements DisposableBean {
+
+    static final String RESYNC = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    // Ids are only meaningful to the instance that issued them, so they carry its start time
+    private final String idPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    // Guards sequence too, so a new subscriber's catch-up and the live events after it neither overlap nor gap
+    private final Deque<Recent> recent = new ArrayDeque<>();
+    private long sequence;
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+    private final Counter resyncs;
+
+    public TaskEventStream(ObjectMapper objectMapper,
+                           @Value("${tasks.events.buffer-size:256}") int bufferSize,
+                           @Value("${tasks.events.timeout:PT30M}") Duration timeout,
+                           MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        meterRegistry.gauge("tasks.events.subscribers", subscribers, Set::size);
+        this.resyncs = Counter.builder("tasks.events.resyncs")
+                .description("Subscribers whose backlog overflowed and were told to reload")
+                .register(meterRegistry);
+    }
+
+    private record Recent(long sequence, TaskStatus after, TaskStatus before, Set<DataWithMediaType> frame) {
+    }
+
+    /**
+     * Opens a stream. {@code statuses} narrows it to changes into or out of those statuses; null or
+     * empty means everything. Clients reconnect when it times out - EventSource does that on its own,
+     * passing the last id it saw as {@code lastEventId}.
+     */
+    public SseEmitter subscribe(Set<TaskStatus> statuses, String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), statuses, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Set<TaskStatus> statuses, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, statuses == null || statuses.isEmpty() ? null : statuses);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            // Ends the response cleanly - left open, the timeout is raised as an error instead
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (recent) {
+            if (lastEventId != null) {
+                catchUp(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        TaskStatus before = event.previous() == null ? null : event.previous().status();
+        synchronized (recent) {
+            long id = ++sequence;
+            if (subscribers.isEmpty()) {
+                // Nobody to send it to, so we skip serializing it - and anyone who reconnects past it reloads
+                recent.clear();
+                return;
+            }
+            String type = event.type().name().toLowerCase(Locale.ROOT);
+            Set<DataWithMediaType> frame;
+            try {
+                String data = objectMapper.writeValueAsString(
+                        new TaskFeedEvent(type, event.taskId(), event.status(), event.task()));
+                frame = SseEmitter.event().id(idPrefix + id).name(type).data(data, MediaType.APPLICATION_JSON).build();
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize change to task {} for the event stream", event.taskId(), e);
+                return;
+            }
+
+            if (recent.size() == bufferSize) {
+                recent.removeFirst();
+            }
+            recent.addLast(new Recent(id, event.status(), before, frame));
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.wants(event.status(), before)) {
+                    subscriber.offer(frame);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${tasks.events.heartbeat-interval:PT15S}",
+            initialDelayString = "${tasks.events.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(heartbeat);
+        }
+    }
+
+    // Called holding the recent lock, before the subscriber starts hearing live events
+    private void catchUp(Subscriber subscriber, String lastEventId) {
+        long seen = sequenceOf(lastEventId);
+        long oldestKept = recent.isEmpty() ? sequence + 1 : recent.getFirst().sequence();
+        if (seen < oldestKept - 1 || seen > sequence) {
+            subscriber.offer(resync());
+            return;
+        }
+        for (Recent change : recent) {
+            if (change.sequence() > seen && subscriber.wants(change.after(), change.before())) {
+                subscriber.offer(change.frame());
+            }
+        }
+    }
+
+    // -1 for an id some other instance issued, or that isn't one of ours at all
+    private long sequenceOf(String eventId) {
+        if (!eventId.startsWith(idPrefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(idPrefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Set<DataWithMediaType> resync() {
+        return SseEmitter.event().name(RESYNC).data("{}", MediaType.APPLICATION_JSON).build();
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        writers.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<TaskStatus> statuses;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<TaskStatus> statuses) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+        }
+
+        boolean wants(TaskStatus after, TaskStatus before) {
+            return statuses == null
+                    || after != null && statuses.contains(after)
+                    || before != null && statuses.contains(before);
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (!queue.offer(frame)) {
+                synchronized (this) {
+                    // Whatever's queued is now useless - the client has to reload anyway
+                    queue.clear();
+                    queue.offer(resync());
+                }
+                resyncs.increment();
+            }
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while ((frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone away, or the emitter already completed
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                writing.set(false);
+            }
+            if (!queue.isEmpty() && writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Streams every task out as newline-delimited JSON for the nightly reporting pull.
+ *
+ * <p>Rows are written as they come off the cursor, projected rather than loaded as entities, so
+ * memory stays flat no matter how big the table gets.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskExportService {
+
+    static final int FLUSH_EVERY = 500;
+
+    private final TaskStore taskStore;
+    private final ObjectMapper objectMapper;
+
+    public void exportTasks(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TaskResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<TaskResponse> tasks = taskStore.streamAllResponses()) {
+            // The servlet container owns the response stream, so don't let Jackson close it
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Jackson puts a space between root values by default - we write our own newline instead
+            generator.setRootValueSeparator(null);
+
+            long written = 0;
+            for (TaskResponse task : (Iterable<TaskResponse>) tasks::iterator) {
+                writer.writeValue(generator, task);
+                generator.writeRaw('\n');
+
+                // Flush the first row straight away so the client sees bytes immediately
+                if (++written % FLUSH_EVERY == 1) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+}
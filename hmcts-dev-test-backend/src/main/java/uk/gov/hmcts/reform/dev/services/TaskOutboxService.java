@@ -0,0 +1,194 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.hmcts.reform.dev.dto.TaskLog;
+import uk.gov.hmcts.reform.dev.dto.TaskLogEntry;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.TaskEvent;
+import uk.gov.hmcts.reform.dev.repositories.TaskEventRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The task change log (transactional outbox) that downstream consumers replay from an offset.
+ *
+ * <p>Rows are written by a plain {@code @EventListener}, not a transactional one, so they go in
+ * the writer's own transaction - a change and its event commit together or not at all. That
+ * covers every path that publishes a {@link TaskChangeEvent}, bulk writes included.
+ *
+ * <p>Offsets come from an unpooled sequence, so they're handed out in the order writes happen - but
+ * before commit, so two writers can still commit out of order. Reads are cut off twice over so a
+ * consumer never steps past an offset that's still about to appear:
+ * <ul>
+ *   <li>below the oldest offset whose transaction is still open on this instance, which makes the
+ *       log commit-ordered for writes made here, however long they take;</li>
+ *   <li>at the first event recorded less than {@code tasks.outbox.settle} ago, for writes on other
+ *       instances. Events are written inside the task writes, so {@code tasks.changes.write-timeout}
+ *       and {@code tasks.changes.bulk-write-timeout} bound how long one can stay open.</li>
+ * </ul>
+ * Both cut the batch off in offset order and never skip a row to carry on after it. recordedAt is
+ * stamped before the offset is taken, and instances' clocks differ, so a lower offset can carry a
+ * later time than a higher one - filtering on time alone would hand out the higher one, move
+ * {@code nextOffset} past the lower, and lose it for good.
+ *
+ * <p>Compaction keeps the newest event per task. Older ones are dropped once they're past
+ * {@code tasks.outbox.compact-after}, and deletes go entirely after {@code tasks.outbox.delete-retention}.
+ * A consumer starting from 0 still ends up with every live task.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class TaskOutboxService {
+
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    private final TaskEventRepository eventRepository;
+    private final Duration settle;
+    private final Duration compactAfter;
+    private final Duration deleteRetention;
+    private final Clock clock;
+    // Offsets written by transactions on this instance that haven't finished yet
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // Shared while a writer takes an offset and registers it, exclusive while a read finds the oldest -
+    // so a read can't land between a writer's nextval and its offset showing up in inFlight
+    private final ReadWriteLock offsets = new ReentrantReadWriteLock();
+
+    @Autowired
+    public TaskOutboxService(TaskEventRepository eventRepository,
+                             @Value("${tasks.outbox.settle:PT6S}") Duration settle,
+                             @Value("${tasks.outbox.compact-after:P7D}") Duration compactAfter,
+                             @Value("${tasks.outbox.delete-retention:P30D}") Duration deleteRetention,
+                             @Value(TaskChangesService.WRITE_TIMEOUT) int writeTimeoutSeconds,
+                             @Value(TaskChangesService.BULK_WRITE_TIMEOUT) int bulkWriteTimeoutSeconds) {
+        this(eventRepository, settle, compactAfter, deleteRetention, writeTimeoutSeconds, bulkWriteTimeoutSeconds,
+                Clock.systemDefaultZone());
+    }
+
+    TaskOutboxService(TaskEventRepository eventRepository, Duration settle, Duration compactAfter,
+                      Duration deleteRetention, int writeTimeoutSeconds, int bulkWriteTimeoutSeconds, Clock clock) {
+        TaskChangesService.checkSettle("tasks.outbox.settle", settle, writeTimeoutSeconds, bulkWriteTimeoutSeconds);
+        this.eventRepository = eventRepository;
+        this.settle = settle;
+        this.compactAfter = compactAfter;
+        this.deleteRetention = deleteRetention;
+        this.clock = clock;
+    }
+
+    // MANDATORY - an event written outside the change's transaction is exactly the dual write we're avoiding
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChange(TaskChangeEvent event) {
+        long offset;
+        offsets.readLock().lock();
+        try {
+            // The sequence isn't pooled, so persist takes the offset there and then
+            offset = eventRepository.save(toEvent(event, event.task(), LocalDateTime.now(clock))).getId();
+            inFlight.add(offset);
+        } finally {
+            offsets.readLock().unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Committed or rolled back, either way there's nothing left to wait for
+                inFlight.remove(offset);
+            }
+        });
+    }
+
+    /**
+     * Up to {@code limit} events after {@code after}, oldest first. Pass 0 to start from the beginning.
+     *
+     * <p>Not read-only, so with replicas it's served by the primary - one lagging further behind than
+     * the settle window would have a consumer step past offsets it then never sees.
+     */
+    @Transactional
+    public TaskLog read(long after, int limit) {
+        int batchSize = Math.min(Math.max(limit, 1), MAX_BATCH_SIZE);
+        LocalDateTime upTo = LocalDateTime.now(clock).minus(settle);
+        long below;
+        offsets.writeLock().lock();
+        try {
+            below = inFlight.isEmpty() ? Long.MAX_VALUE : inFlight.first();
+        } finally {
+            offsets.writeLock().unlock();
+        }
+
+        List<TaskEvent> events = eventRepository.findAfter(after, below, Limit.of(batchSize + 1));
+        List<TaskLogEntry> entries = new ArrayList<>(Math.min(events.size(), batchSize));
+        long nextOffset = after;
+        boolean hasMore = false;
+        for (TaskEvent event : events) {
+            if (event.getRecordedAt().isAfter(upTo)) {
+                // Still settling - everything from here on waits for the next read
+                break;
+            }
+            if (entries.size() == batchSize) {
+                hasMore = true;
+                break;
+            }
+            entries.add(toEntry(event));
+            nextOffset = event.getId();
+        }
+        return new TaskLog(entries, nextOffset, hasMore);
+    }
+
+    @Scheduled(cron = "${tasks.outbox.compaction-cron:0 0 3 * * *}")
+    @Transactional
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int superseded = eventRepository.deleteSupersededBefore(now.minus(compactAfter));
+        int deletions = eventRepository.deleteDeletionsBefore(now.minus(deleteRetention));
+        log.info("Compacted task event log: {} superseded events and {} deletes removed", superseded, deletions);
+    }
+
+    static TaskEvent toEvent(TaskChangeEvent change, TaskResponse task, LocalDateTime recordedAt) {
+        TaskEvent event = new TaskEvent();
+        event.setType(change.type().name().toLowerCase(Locale.ROOT));
+        event.setTaskId(change.taskId());
+        if (task != null) {
+            event.setTitle(task.getTitle());
+            event.setDescription(task.getDescription());
+            event.setStatus(task.getStatus());
+            event.setDueDate(task.getDueDate());
+            event.setCreatedAt(task.getCreatedAt());
+            event.setUpdatedAt(task.getUpdatedAt());
+            event.setVersion(task.getVersion());
+        }
+        event.setRecordedAt(recordedAt);
+        return event;
+    }
+
+    static TaskLogEntry toEntry(TaskEvent event) {
+        TaskResponse task = event.getVersion() == null ? null : new TaskResponse(
+                event.getTaskId(),
+                event.getTitle(),
+                event.getDescription(),
+                event.getStatus(),
+                event.getDueDate(),
+                event.getCreatedAt(),
+                event.getUpdatedAt(),
+                event.getVersion()
+        );
+        return new TaskLogEntry(event.getId(), event.getType(), event.getTaskId(), task);
+    }
+}
@@ -0,0 +1,623 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process inverted index over task titles and descriptions, so keyword search never
+ * has to LIKE-scan the description column.
+ *
+ * <p>Each term maps to a postings list of task ids held in a sorted primitive {@code long[]}
+ * alongside a parallel {@code int[]} of term frequencies - no boxing, and ids from the task
+ * sequence only ever grow, so new tasks are a plain append. Queries AND their terms together,
+ * treating the last one as a prefix so results keep up while someone is still typing, and rank
+ * by summed term frequency (title hits count double).
+ *
+ * <p>Writes never shift a long postings list. A removed id is zeroed in place and skipped by
+ * searches, and re-indexing a task with the same terms fills its slots back in. The lists are
+ * compacted once half their slots are dead. An older task picking up a new term goes into a small
+ * second sorted run, which is merged in once it's grown enough to pay for the copy. So a write
+ * costs a binary search per term, plus about the square root of the list's length for a term new
+ * to an older task, rather than a shift of the whole list.
+ *
+ * <p>Concurrency is one read/write lock: searches run in parallel, writes are short and exclusive.
+ * {@link #rebuild} loads a fresh index off to the side without holding it.
+ */
+@Component
+public class TaskSearchIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Contents contents = new Contents();
+    // Set while a rebuild is loading - the latest terms of every task written meanwhile, null for a removal
+    private Map<Long, Map<String, Integer>> writtenDuringRebuild;
+
+    /**
+     * Feeds the index from outside, for {@link #rebuild}.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        void index(long id, String title, String description);
+    }
+
+    public void index(long id, String title, String description) {
+        Map<String, Integer> frequencies = frequencies(title, description);
+        lock.writeLock().lock();
+        try {
+            contents.put(id, frequencies);
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.put(id, frequencies);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            contents.remove(id);
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with what {@code load} feeds in. The new index is built off to the
+     * side, so searches keep being answered from the old one until it's swapped in. Writes made
+     * while it loads go to the old index as usual, and are applied again on top of the new one just
+     * before the swap - they're at least as new as anything the load read, so they win.
+     */
+    public void rebuild(Consumer<Loader> load) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringRebuild != null) {
+                throw new IllegalStateException("Search index is already being rebuilt");
+            }
+            writtenDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Contents fresh = new Contents();
+        try {
+            load.accept((id, title, description) -> fresh.put(id, frequencies(title, description)));
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                writtenDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            writtenDuringRebuild.forEach((id, frequencies) -> {
+                if (frequencies == null) {
+                    fresh.remove(id);
+                } else {
+                    fresh.put(id, frequencies);
+                }
+            });
+            writtenDuringRebuild = null;
+            contents = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return contents.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} matching task ids, best match first (newest first on ties).
+     */
+    public long[] search(String query, int limit) {
+        // A lone trailing letter is still a useful prefix while typing, even though it's never a term
+        List<String> tokens = tokenize(query, true);
+        if (tokens.isEmpty() || limit < 1) {
+            return new long[0];
+        }
+        String prefix = tokens.get(tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, Postings> dictionary = contents.dictionary;
+            List<Postings> required = new ArrayList<>();
+            for (String term : tokens.subList(0, tokens.size() - 1)) {
+                Postings list = dictionary.get(term);
+                if (list == null) {
+                    return new long[0];
+                }
+                required.add(list);
+            }
+            List<Postings> expansions = new ArrayList<>();
+            for (Postings list : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.add(list);
+            }
+            if (expansions.isEmpty()) {
+                return new long[0];
+            }
+
+            TopK top = new TopK(limit);
+            if (required.isEmpty()) {
+                unionInto(expansions, top);
+            } else {
+                intersectInto(required, expansions, top);
+            }
+            return top.drain();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> frequencies(String title, String description) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    // Walk the shortest exact-term list and gallop through the others - work is bounded by the rarest term
+    private void intersectInto(List<Postings> requiredLists, List<Postings> expansionLists, TopK top) {
+        requiredLists.sort((a, b) -> Integer.compare(a.live, b.live));
+        Postings driving = requiredLists.get(0);
+        List<Cursor> required = new ArrayList<>();
+        for (Postings list : requiredLists.subList(1, requiredLists.size())) {
+            required.add(new Cursor(list));
+        }
+        List<Cursor> expansions = new ArrayList<>();
+        for (Postings list : expansionLists) {
+            expansions.add(new Cursor(list));
+        }
+
+        // Both of the driver's runs, merged into id order, since the other cursors only move forwards
+        Run main = driving.main;
+        Run late = driving.late;
+        int i = 0;
+        int j = 0;
+        while (i < main.size || j < late.size) {
+            boolean fromMain = j >= late.size || (i < main.size && main.ids[i] < late.ids[j]);
+            long id = fromMain ? main.ids[i] : late.ids[j];
+            int freq = fromMain ? main.freqs[i++] : late.freqs[j++];
+            if (freq > 0) {
+                offerIfMatches(id, freq, required, expansions, top);
+            }
+        }
+    }
+
+    private void offerIfMatches(long id, int score, List<Cursor> required, List<Cursor> expansions, TopK top) {
+        for (Cursor cursor : required) {
+            int freq = cursor.advanceTo(id);
+            if (freq == 0) {
+                return;
+            }
+            score += freq;
+        }
+        int prefixScore = 0;
+        for (Cursor expansion : expansions) {
+            prefixScore += expansion.advanceTo(id);
+        }
+        if (prefixScore > 0) {
+            top.offer(id, score + prefixScore);
+        }
+    }
+
+    // Single-term queries: k-way merge of the prefix expansions so a task matching several sums up once
+    private void unionInto(List<Postings> expansions, TopK top) {
+        if (expansions.size() == 1) {
+            for (Run run : expansions.get(0).runs()) {
+                for (int i = 0; i < run.size; i++) {
+                    if (run.freqs[i] > 0) {
+                        top.offer(run.ids[i], run.freqs[i]);
+                    }
+                }
+            }
+            return;
+        }
+        PriorityQueue<RunCursor> heads = new PriorityQueue<>((a, b) -> Long.compare(a.currentId(), b.currentId()));
+        for (Postings list : expansions) {
+            for (Run run : list.runs()) {
+                if (run.size > 0) {
+                    heads.add(new RunCursor(run));
+                }
+            }
+        }
+        while (!heads.isEmpty()) {
+            RunCursor head = heads.poll();
+            long id = head.currentId();
+            int score = head.currentFreq();
+            head.position++;
+            if (!head.exhausted()) {
+                heads.add(head);
+            }
+            while (!heads.isEmpty() && heads.peek().currentId() == id) {
+                RunCursor same = heads.poll();
+                score += same.currentFreq();
+                same.position++;
+                if (!same.exhausted()) {
+                    heads.add(same);
+                }
+            }
+            if (score > 0) {
+                top.offer(id, score);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<String> tokenize(String text, boolean keepShortTail) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                if (token.length() >= MIN_TERM_LENGTH || (keepShortTail && i == text.length())) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The dictionary and forward index together, so a rebuild can fill a fresh pair and swap it in whole.
+     */
+    private static final class Contents {
+
+        final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+        // Forward index, so re-indexing or deleting a task knows which postings to take it out of
+        final Map<Long, Postings[]> documents = new HashMap<>();
+
+        void put(long id, Map<String, Integer> frequencies) {
+            remove(id);
+            Postings[] postings = new Postings[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings list = dictionary.computeIfAbsent(entry.getKey(), Postings::new);
+                list.put(id, entry.getValue());
+                postings[i++] = list;
+            }
+            documents.put(id, postings);
+        }
+
+        void remove(long id) {
+            Postings[] postings = documents.remove(id);
+            if (postings == null) {
+                return;
+            }
+            for (Postings list : postings) {
+                list.remove(id);
+                if (list.live == 0) {
+                    dictionary.remove(list.term);
+                }
+            }
+        }
+    }
+
+    /**
+     * A term's ids and frequencies. Most live in {@code main}, in id order. {@code late} holds ids
+     * that arrived after a higher one, kept sorted and small. A frequency of 0 marks a removed id.
+     */
+    static final class Postings {
+
+        // A late run this short is cheap to shift into, however short the main one is
+        static final int MIN_LATE_RUN = 32;
+
+        final String term;
+        final Run main = new Run();
+        final Run late = new Run();
+        int live;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void put(long id, int freq) {
+            if (main.size == 0 || main.ids[main.size - 1] < id) {
+                main.append(id, freq);
+                live++;
+                return;
+            }
+            if (revive(main, id, freq) || revive(late, id, freq)) {
+                return;
+            }
+            late.insert(id, freq);
+            live++;
+            // Each insert shifts up to the late run's length and each merge copies the main run, so a late
+            // run of about sqrt(main) keeps both costs down to sqrt(main) per insert
+            if (late.size > Math.max(MIN_LATE_RUN, (int) Math.sqrt(main.size))) {
+                compact();
+            }
+        }
+
+        void remove(long id) {
+            if (!kill(main, id) && !kill(late, id)) {
+                return;
+            }
+            int slots = main.size + late.size;
+            if (slots - live > slots / 2) {
+                compact();
+            }
+        }
+
+        Run[] runs() {
+            return new Run[] {main, late};
+        }
+
+        private boolean revive(Run run, long id, int freq) {
+            int at = run.find(id);
+            if (at < 0) {
+                return false;
+            }
+            if (run.freqs[at] == 0) {
+                live++;
+            }
+            run.freqs[at] = freq;
+            return true;
+        }
+
+        private boolean kill(Run run, long id) {
+            int at = run.find(id);
+            if (at < 0 || run.freqs[at] == 0) {
+                return false;
+            }
+            run.freqs[at] = 0;
+            live--;
+            return true;
+        }
+
+        // Merges the late run into the main one and drops removed ids - linear, but only once enough
+        // writes have piled up to pay for it
+        private void compact() {
+            long[] ids = new long[Math.max(live, 4)];
+            int[] freqs = new int[ids.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < main.size || j < late.size) {
+                boolean fromMain = j >= late.size || (i < main.size && main.ids[i] < late.ids[j]);
+                long id = fromMain ? main.ids[i] : late.ids[j];
+                int freq = fromMain ? main.freqs[i++] : late.freqs[j++];
+                if (freq > 0) {
+                    ids[n] = id;
+                    freqs[n++] = freq;
+                }
+            }
+            main.ids = ids;
+            main.freqs = freqs;
+            main.size = n;
+            late.ids = new long[4];
+            late.freqs = new int[4];
+            late.size = 0;
+        }
+    }
+
+    /**
+     * Sorted ids with their term frequencies, in parallel primitive arrays.
+     */
+    static final class Run {
+
+        long[] ids = new long[4];
+        int[] freqs = new int[4];
+        int size;
+
+        int find(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void append(long id, int freq) {
+            ensureCapacity();
+            ids[size] = id;
+            freqs[size] = freq;
+            size++;
+        }
+
+        // Only used on the late run, which is kept short
+        void insert(long id, int freq) {
+            int insertAt = -find(id) - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(freqs, insertAt, freqs, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            freqs[insertAt] = freq;
+            size++;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+        }
+    }
+
+    /**
+     * Forward-only position in a postings list, across both of its runs.
+     */
+    private static final class Cursor {
+
+        private final RunCursor main;
+        private final RunCursor late;
+
+        Cursor(Postings postings) {
+            this.main = new RunCursor(postings.main);
+            this.late = new RunCursor(postings.late);
+        }
+
+        // Returns the frequency of id in the list, or 0 if it isn't there (or was removed)
+        int advanceTo(long id) {
+            return main.advanceTo(id) + late.advanceTo(id);
+        }
+    }
+
+    /**
+     * Forward-only position in one run. Candidates arrive in ascending id order,
+     * so each lookup gallops on from where the last one stopped.
+     */
+    private static final class RunCursor {
+
+        final Run run;
+        int position;
+
+        RunCursor(Run run) {
+            this.run = run;
+        }
+
+        long currentId() {
+            return run.ids[position];
+        }
+
+        int currentFreq() {
+            return run.freqs[position];
+        }
+
+        boolean exhausted() {
+            return position >= run.size;
+        }
+
+        int advanceTo(long id) {
+            int size = run.size;
+            if (position >= size) {
+                return 0;
+            }
+            long[] ids = run.ids;
+            int step = 1;
+            int high = position;
+            while (high < size && ids[high] < id) {
+                position = high;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(ids, position, Math.min(high + 1, size), id);
+            if (found >= 0) {
+                position = found;
+                return run.freqs[found];
+            }
+            position = -found - 1;
+            return 0;
+        }
+    }
+
+    /**
+     * Bounded min-heap on (score, id) in primitive arrays - keeps the best k without boxing every candidate.
+     */
+    private static final class TopK {
+
+        private final long[] ids;
+        private final int[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            ids = new long[capacity];
+            scores = new int[capacity];
+        }
+
+        void offer(long id, int score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(0, id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        long[] drain() {
+            long[] ranked = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return ranked;
+        }
+
+        // True if the entry at slot ranks below (id, score)
+        private boolean worse(int slot, long id, int score) {
+            return scores[slot] < score || (scores[slot] == score && ids[slot] < id);
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) / 2;
+                if (!worse(slot, ids[parent], scores[parent])) {
+                    break;
+                }
+                swap(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int smallest = slot;
+                for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                    if (worse(child, ids[smallest], scores[smallest])) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == slot) {
+                    return;
+                }
+                swap(slot, smallest);
+                slot = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            int score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
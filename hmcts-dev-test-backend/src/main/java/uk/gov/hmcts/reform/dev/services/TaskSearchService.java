@@ -0,0 +1,95 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keyword search over tasks, backed by {@link TaskSearchIndex}.
+ *
+ * <p>The index is rebuilt from the table on startup and then kept current from
+ * {@link TaskChangeEvent}s once their transaction commits. Results are always hydrated
+ * from the database, so a task deleted between the index lookup and the read simply drops out.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskSearchService {
+
+    public static final int MAX_RESULTS = 100;
+
+    private final TaskSearchIndex searchIndex;
+    private final TaskStore taskStore;
+
+    @Transactional(readOnly = true)
+    public List<TaskResponse> search(String query, int limit) {
+        long[] ids = searchIndex.search(query, Math.clamp(limit, 1, MAX_RESULTS));
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Long, TaskResponse> byId = taskStore
+                .findResponsesByIdIn(Arrays.stream(ids).boxed().toList()).stream()
+                .collect(Collectors.toMap(TaskResponse::getId, Function.identity()));
+
+        // IN (...) comes back in whatever order the database likes - put the ranking back
+        List<TaskResponse> results = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            TaskResponse task = byId.get(id);
+            if (task != null) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    // Holds back readiness until the index is built, so we never answer searches from a half-empty index.
+    // Writes are already being applied by then - the index keeps them and puts them back on top of what
+    // was streamed, so a row the stream read before it changed can't overwrite the change
+    // Not read-only, so with replicas it's read from the primary - a lagging replica would leave out
+    // writes that committed before startup, and nothing would ever put them back
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        searchIndex.rebuild(loader -> {
+            try (Stream<TaskResponse> tasks = taskStore.streamAllResponses()) {
+                tasks.forEach(task -> loader.index(task.getId(), task.getTitle(), task.getDescription()));
+            }
+        });
+        log.info("Search index built with {} tasks in {} ms",
+                searchIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // fallbackExecution covers callers outside a transaction, where there's nothing to wait for
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> searchIndex.index(
+                    event.taskId(), event.task().getTitle(), event.task().getDescription());
+            case DELETED -> searchIndex.remove(event.taskId());
+            case STATUS_CHANGED -> {
+                // Status isn't searchable text, nothing to do
+            }
+        }
+    }
+
+    // Search covers the live table only
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksArchived(TaskArchivedEvent event) {
+        event.tasks().keySet().forEach(searchIndex::remove);
+    }
+}
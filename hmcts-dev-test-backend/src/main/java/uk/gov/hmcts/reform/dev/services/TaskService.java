@@ -1,97 +1,262 @@
 package uk.gov.hmcts.reform.dev.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskPage;
 import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
 import uk.gov.hmcts.reform.dev.dto.TaskUpdateRequest;
+import uk.gov.hmcts.reform.dev.exceptions.TaskPreconditionFailedException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskVersionConflictException;
 import uk.gov.hmcts.reform.dev.models.Task;
 import uk.gov.hmcts.reform.dev.models.TaskStatus;
-import uk.gov.hmcts.reform.dev.repositories.TaskRepository;
+import uk.gov.hmcts.reform.dev.models.TaskTombstone;
+import uk.gov.hmcts.reform.dev.repositories.TaskArchiveRepository;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+import uk.gov.hmcts.reform.dev.repositories.TaskTombstoneRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TaskService {
 
-    private final TaskRepository taskRepository;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_CLAIM_SIZE = 100;
+    // The expected version for If-Match: * - any version will do, but a missing task is a failed
+    // precondition rather than a 404. No task ever has it
+    public static final long ANY_VERSION = Long.MIN_VALUE;
 
-    public List<TaskResponse> getAllTasks() {
-        return taskRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    private final TaskStore taskStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskCache taskCache;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final TaskArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Returns one page of tasks matching the filter, starting after the given cursor.
+     * We fetch one extra row to find out whether there's another page without a COUNT query.
+     * No limit means the default page size - there's no way to ask for the whole table at once.
+     */
+    public TaskPage getTasks(TaskFilter filter, String cursor, Integer limit) {
+        int pageSize = Math.min(Math.max(limit == null ? DEFAULT_PAGE_SIZE : limit, 1), MAX_PAGE_SIZE);
+
+        List<TaskResponse> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = findResponses(filter, null, null, pageSize + 1);
+        } else {
+            TaskCursor position = TaskCursor.decode(cursor, filter);
+            items = findResponses(filter, position.key(), position.id(), pageSize + 1);
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = TaskCursor.of(items.get(pageSize - 1), filter.getSort()).encode(filter);
+        }
+        return new TaskPage(items, nextCursor);
     }
 
+    /**
+     * One page from the live table, or with {@code includeArchived} from both tables merged. Each
+     * comes back in list order from the same cursor, so the first {@code limit} of the two together
+     * is the page.
+     */
+    private List<TaskResponse> findResponses(TaskFilter filter, LocalDateTime afterKey, Long afterId, int limit) {
+        List<TaskResponse> live = taskStore.findResponses(filter, afterKey, afterId, limit);
+        if (!filter.isIncludeArchived()) {
+            return live;
+        }
+        List<TaskResponse> merged = new ArrayList<>(live);
+        merged.addAll(archiveRepository.findResponses(filter, afterKey, afterId, limit));
+        merged.sort(listOrder(filter));
+        // The live table is read first, so a task archived in between shows up twice rather than not at all
+        Set<Long> seen = new HashSet<>();
+        merged.removeIf(task -> !seen.add(task.getId()));
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    // The SQL's ORDER BY: sort key then id, both the same way, tasks with no key last
+    static Comparator<TaskResponse> listOrder(TaskFilter filter) {
+        boolean ascending = filter.getDirection() == Sort.Direction.ASC;
+        Comparator<LocalDateTime> keys = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        Comparator<Long> ids = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        return Comparator.comparing(filter.getSort()::keyOf, Comparator.nullsLast(keys))
+                .thenComparing(TaskResponse::getId, ids);
+    }
+
+    // No transaction of our own - a cache hit shouldn't borrow a pooled connection just to return
+    // what's already in memory. A miss loads in a read-write one so that, with replicas, it comes from
+    // the primary: a replica's stale row would be served to everyone until the TTL, not just the lag
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<TaskResponse> getTaskById(Long id) {
-        return taskRepository.findById(id)
-                .map(this::convertToResponse);
+        return taskCache.get(id, key -> transactionTemplate.execute(status -> taskStore.findResponseById(key)));
+    }
+
+    // Archived tasks never change, so there's nothing to keep fresh in the cache
+    public Optional<TaskResponse> getArchivedTaskById(Long id) {
+        return archiveRepository.findResponseById(id);
     }
 
-    @Transactional
+    @Transactional(timeoutString = TaskChangesService.WRITE_TIMEOUT)
     public TaskResponse createTask(TaskCreateRequest request) {
+        TaskResponse response = taskStore.insert(newTask(request));
+        eventPublisher.publishEvent(TaskChangeEvent.created(response));
+        return response;
+    }
+
+    @Transactional(timeoutString = TaskChangesService.WRITE_TIMEOUT)
+    public Optional<TaskResponse> updateTask(Long id, TaskUpdateRequest request) {
+        return updateTask(id, request, null);
+    }
+
+    /**
+     * Full update that only applies if the task is still at {@code expectedVersion} (null for any,
+     * {@link #ANY_VERSION} for any so long as it exists). The store's own version check on the write
+     * covers anyone who gets in after our read.
+     *
+     * @throws TaskVersionConflictException if the task has moved past {@code expectedVersion}
+     * @throws TaskPreconditionFailedException if the task doesn't exist and {@code expectedVersion} is
+     *     {@link #ANY_VERSION}
+     */
+    @Transactional(timeoutString = TaskChangesService.WRITE_TIMEOUT)
+    public Optional<TaskResponse> updateTask(Long id, TaskUpdateRequest request, Long expectedVersion) {
+        Long required = isAnyVersion(expectedVersion) ? null : expectedVersion;
+        Optional<TaskResponse> updated = taskStore.update(id, task -> {
+            if (required != null && !required.equals(task.getVersion())) {
+                throw new TaskVersionConflictException(id, required);
+            }
+            applyUpdate(task, request);
+        }).map(change -> {
+            eventPublisher.publishEvent(TaskChangeEvent.updated(change.previous(), change.task()));
+            return change.task();
+        });
+        if (updated.isEmpty() && isAnyVersion(expectedVersion)) {
+            throw new TaskPreconditionFailedException(id, "*");
+        }
+        return updated;
+    }
+
+    /**
+     * Moves a task to a new status with a locked read of the row and an UPDATE - the entity is never
+     * loaded, and the read hands back the whole row as it was just before, so the stats know exactly
+     * what it moved from and listeners get the task without loading it again.
+     * If {@code expectedVersion} is given the write only lands if nobody else got there first.
+     *
+     * @return false if the task doesn't exist
+     * @throws TaskVersionConflictException if the task exists but its version has moved on
+     * @throws TaskPreconditionFailedException if the task doesn't exist and {@code expectedVersion} is
+     *     {@link #ANY_VERSION}
+     */
+    @Transactional(timeoutString = TaskChangesService.WRITE_TIMEOUT)
+    public boolean changeTaskStatus(Long id, TaskStatus status, Long expectedVersion) {
+        return moveToStatus(id, status, expectedVersion).isPresent();
+    }
+
+    @Transactional(timeoutString = TaskChangesService.WRITE_TIMEOUT)
+    public Optional<TaskResponse> updateTaskStatus(Long id, TaskStatus status, Long expectedVersion) {
+        return moveToStatus(id, status, expectedVersion);
+    }
+
+    private Optional<TaskResponse> moveToStatus(Long id, TaskStatus status, Long expectedVersion) {
+        // The column keeps microseconds, so the response and the events match what's stored
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Long required = isAnyVersion(expectedVersion) ? null : expectedVersion;
+        Optional<TaskResponse> previous = taskStore.updateStatus(id, status, now, required);
+        if (previous.isPresent()) {
+            TaskResponse was = previous.get();
+            // The statement only sets these three, so the rest of the row is as it was
+            TaskResponse task = new TaskResponse(was.getId(), was.getTitle(), was.getDescription(), status,
+                    was.getDueDate(), was.getCreatedAt(), now, was.getVersion() + 1);
+            eventPublisher.publishEvent(TaskChangeEvent.statusChanged(TaskSnapshot.of(was), task));
+            return Optional.of(task);
+        }
+        // Only pay for the extra lookup on the failure path, to tell "gone" apart from "stale"
+        if (required != null && taskStore.existsById(id)) {
+            throw new TaskVersionConflictException(id, required);
+        }
+        if (isAnyVersion(expectedVersion)) {
+            throw new TaskPreconditionFailedException(id, "*");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isAnyVersion(Long expectedVersion) {
+        return expectedVersion != null && expectedVersion == ANY_VERSION;
+    }
+
+    /**
+     * The work queue: moves up to {@code limit} of the TODO tasks due soonest to IN_PROGRESS and
+     * returns them. Tasks another worker is claiming at the same moment are passed over, not waited
+     * on or fought over, so every worker gets different tasks first time.
+     */
+    @Transactional(timeoutString = TaskChangesService.BULK_WRITE_TIMEOUT)
+    public List<TaskResponse> claimTasks(int limit) {
+        List<TaskResponse> claimed = taskStore.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS,
+                Math.min(Math.max(limit, 1), MAX_CLAIM_SIZE));
+        for (TaskResponse task : claimed) {
+            // A claim only touches the status, and moves the version on by one
+            TaskSnapshot previous = new TaskSnapshot(TaskStatus.TODO, task.getDueDate(), task.getVersion() - 1);
+            eventPublisher.publishEvent(TaskChangeEvent.statusChanged(previous, task));
+        }
+        return claimed;
+    }
+
+    @Transactional(timeoutString = TaskChangesService.WRITE_TIMEOUT)
+    public boolean deleteTask(Long id) {
+        // The tombstone goes in the same transaction, so delta sync can't miss a delete
+        return taskStore.delete(id)
+                .map(previous -> {
+                    tombstoneRepository.save(new TaskTombstone(id, LocalDateTime.now()));
+                    eventPublisher.publishEvent(TaskChangeEvent.deleted(id, previous));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    static Task newTask(TaskCreateRequest request) {
         Task task = new Task();
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setStatus(request.getStatus());
         task.setDueDate(request.getDueDate());
-        
-        Task savedTask = taskRepository.save(task);
-        return convertToResponse(savedTask);
+        return task;
     }
 
-    @Transactional
-    public Optional<TaskResponse> updateTask(Long id, TaskUpdateRequest request) {
-        return taskRepository.findById(id)
-                .map(task -> {
-                    if (request.getTitle() != null) {
-                        task.setTitle(request.getTitle());
-                    }
-                    if (request.getDescription() != null) {
-                        task.setDescription(request.getDescription());
-                    }
-                    if (request.getStatus() != null) {
-                        task.setStatus(request.getStatus());
-                    }
-                    if (request.getDueDate() != null) {
-                        task.setDueDate(request.getDueDate());
-                    }
-                    return convertToResponse(taskRepository.save(task));
-                });
-    }
-
-    @Transactional
-    public Optional<TaskResponse> updateTaskStatus(Long id, TaskStatus status) {
-        return taskRepository.findById(id)
-                .map(task -> {
-                    task.setStatus(status);
-                    return convertToResponse(taskRepository.save(task));
-                });
-    }
-
-    @Transactional
-    public boolean deleteTask(Long id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            return true;
+    // Null fields mean "leave as is", so a PUT can carry just the bits that changed
+    static void applyUpdate(Task task, TaskUpdateRequest request) {
+        if (request.getTitle() != null) {
+            task.setTitle(request.getTitle());
         }
-        return false;
-    }
-
-    private TaskResponse convertToResponse(Task task) {
-        return new TaskResponse(
-                task.getId(),
-                task.getTitle(),
-                task.getDescription(),
-                task.getStatus(),
-                task.getDueDate(),
-                task.getCreatedAt(),
-                task.getUpdatedAt()
-        );
+        if (request.getDescription() != null) {
+            task.setDescription(request.getDescription());
+        }
+        if (request.getStatus() != null) {
+            task.setStatus(request.getStatus());
+        }
+        if (request.getDueDate() != null) {
+            task.setDueDate(request.getDueDate());
+        }
+    }
+
+    static TaskResponse convertToResponse(Task task) {
+        return TaskResponse.of(task);
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.dto.TaskStats;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dashboard counts kept in memory, so polling them never touches the tasks table.
+ *
+ * <p>Every committed create, update, status change and delete nudges a few {@link LongAdder}s -
+ * striped internally, so concurrent writers don't fight over one cache line. A {@code GROUP BY}
+ * runs on a schedule to correct any drift, such as another instance writing to the same database.
+ *
+ * <p>Reads cost the same however many tasks there are: one counter per status, one per day in
+ * the coming week, plus a sum over the past days that still have open tasks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatsService {
+
+    static final int DUE_DAYS_AHEAD = 7;
+    static final Set<TaskStatus> OPEN = EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+
+    private final TaskStore taskStore;
+
+    private volatile Counters counters = new Counters();
+    // Changes seen while a reconciliation's queries run, by task, to lay over what they return
+    private volatile Map<Long, Queue<Seen>> seenDuringReconcile;
+    // Shared by every change, exclusive only for the moment reconcile() swaps the counters over
+    private final ReadWriteLock swap = new ReentrantReadWriteLock();
+    private volatile LocalDateTime reconciledAt;
+
+    public TaskStats getStats() {
+        Counters current = counters;
+        Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+        long total = 0;
+        for (Map.Entry<TaskStatus, LongAdder> entry : current.byStatus.entrySet()) {
+            long count = entry.getValue().sum();
+            statusCounts.put(entry.getKey(), count);
+            total += count;
+        }
+
+        LocalDate today = LocalDate.now();
+        long overdue = 0;
+        for (LongAdder count : current.openByDueDay.headMap(today).values()) {
+            overdue += count.sum();
+        }
+        Map<LocalDate, Long> dueByDay = new LinkedHashMap<>();
+        for (int i = 0; i < DUE_DAYS_AHEAD; i++) {
+            LocalDate day = today.plusDays(i);
+            LongAdder count = current.openByDueDay.get(day);
+            dueByDay.put(day, count == null ? 0 : count.sum());
+        }
+        return new TaskStats(total, statusCounts, overdue, dueByDay, reconciledAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        TaskSnapshot previous = event.previous();
+        TaskResponse task = event.task();
+        Long id = event.taskId();
+        switch (event.type()) {
+            case CREATED -> count(id, task.getVersion(), false, event.status(), task.getDueDate(), 1);
+            case UPDATED -> {
+                count(id, task.getVersion(), false, previous.status(), previous.dueDate(), -1);
+                count(id, task.getVersion(), false, event.status(), task.getDueDate(), 1);
+            }
+            case STATUS_CHANGED -> {
+                count(id, task.getVersion(), false, previous.status(), previous.dueDate(), -1);
+                count(id, task.getVersion(), false, event.status(), previous.dueDate(), 1);
+            }
+            case DELETED -> count(id, previous.version(), true, previous.status(), previous.dueDate(), -1);
+        }
+    }
+
+    // The stats are over the live table, so archived tasks come off them like deletes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksArchived(TaskArchivedEvent event) {
+        event.tasks().forEach((id, task) -> count(id, task.version(), true, task.status(), task.dueDate(), -1));
+    }
+
+    /**
+     * Brings the counters back in line with the table. A fresh set is built from the query results,
+     * plus the changes seen while they ran that they didn't already include, and swapped in whole -
+     * so days that have emptied out drop away and no change lands on counters being thrown away.
+     *
+     * <p>A change seen during the queries may have committed before or after they read the table, so
+     * each one is checked against the version its task had in the same snapshot: repeatable read, so
+     * the counts and the versions are of one moment. A task at or past a change's version already has
+     * it in the counts. A task missing from the snapshot either hadn't been created - everything seen
+     * for it came later - or had been removed, and then the removal was seen too and all of it is
+     * already in the counts. So nothing is counted twice or lost, however busy the table. The
+     * {@code memory} and {@code journal} stores have no snapshots; there the counts and the versions
+     * are two quick passes over the live map, and only a change landing between them waits for the
+     * next reconciliation.
+     *
+     * <p>Not read-only, so with replicas the counts come from the primary - a lagging replica would
+     * undo changes the counters had already taken in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tasks.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${tasks.stats.reconcile-interval:PT5M}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public synchronized void reconcile() {
+        Map<Long, Queue<Seen>> seen = new ConcurrentHashMap<>();
+        seenDuringReconcile = seen;
+
+        Counters actual = new Counters();
+        taskStore.countByStatus().forEach(row -> actual.byStatus.get(row.getStatus()).add(row.getCount()));
+        taskStore.countOpenByDueDay().forEach(row -> actual.bucket(row.getDay()).add(row.getCount()));
+
+        Set<Long> lookedUp = new HashSet<>();
+        Map<Long, Long> versions = new HashMap<>();
+        lookUpVersions(seen.keySet(), lookedUp, versions);
+
+        Counters replaced;
+        swap.writeLock().lock();
+        try {
+            // Only tasks first changed since the lookup above - usually none
+            lookUpVersions(seen.keySet(), lookedUp, versions);
+            seen.forEach((id, changes) -> {
+                Long version = versions.get(id);
+                boolean removed = changes.stream().anyMatch(Seen::removed);
+                for (Seen change : changes) {
+                    if (!change.alreadyCounted(version, removed)) {
+                        actual.count(change.status(), change.dueDate(), change.delta());
+                    }
+                }
+            });
+            replaced = counters;
+            counters = actual;
+            seenDuringReconcile = null;
+        } finally {
+            swap.writeLock().unlock();
+        }
+
+        reconciledAt = LocalDateTime.now();
+        long drift = 0;
+        for (TaskStatus status : TaskStatus.values()) {
+            drift += Math.abs(actual.byStatus.get(status).sum() - replaced.byStatus.get(status).sum());
+        }
+        if (drift > 0) {
+            log.info("Task stats reconciled, status counts were out by {}", drift);
+        }
+    }
+
+    // In reconcile()'s transaction, so these are the versions of the snapshot it counted
+    private void lookUpVersions(Set<Long> changed, Set<Long> lookedUp, Map<Long, Long> versions) {
+        List<Long> ids = changed.stream().filter(id -> !lookedUp.contains(id)).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        taskStore.findResponsesByIdIn(ids).forEach(task -> versions.put(task.getId(), task.getVersion()));
+        lookedUp.addAll(ids);
+    }
+
+    // version is the task's once the change is made, or for a removal the one it was removed at
+    private void count(Long id, Long version, boolean removed, TaskStatus status, LocalDateTime dueDate,
+                       int delta) {
+        if (status == null) {
+            return;
+        }
+        swap.readLock().lock();
+        try {
+            counters.count(status, dueDate, delta);
+            Map<Long, Queue<Seen>> seen = seenDuringReconcile;
+            if (seen != null) {
+                seen.computeIfAbsent(id, key -> new ConcurrentLinkedQueue<>())
+                        .add(new Seen(status, dueDate, delta, version == null ? 0 : version, removed));
+            }
+        } finally {
+            swap.readLock().unlock();
+        }
+    }
+
+    // One counter move made while a reconciliation was counting
+    private record Seen(TaskStatus status, LocalDateTime dueDate, int delta, long version, boolean removed) {
+
+        // snapshotVersion is null when the task wasn't in the snapshot; taskRemoved is whether any of
+        // the changes seen for it took it out of the table
+        boolean alreadyCounted(Long snapshotVersion, boolean taskRemoved) {
+            if (snapshotVersion == null) {
+                return taskRemoved;
+            }
+            return !removed && version <= snapshotVersion;
+        }
+    }
+
+    private static final class Counters {
+
+        // Filled once and never resized, so lock-free reads of the map itself are safe
+        private final Map<TaskStatus, LongAdder> byStatus = new EnumMap<>(TaskStatus.class);
+        // Only open tasks with a due date, bucketed by day
+        private final ConcurrentSkipListMap<LocalDate, LongAdder> openByDueDay = new ConcurrentSkipListMap<>();
+
+        private Counters() {
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+        }
+
+        private void count(TaskStatus status, LocalDateTime dueDate, int delta) {
+            byStatus.get(status).add(delta);
+            if (OPEN.contains(status) && dueDate != null) {
+                bucket(dueDate.toLocalDate()).add(delta);
+            }
+        }
+
+        private LongAdder bucket(LocalDate day) {
+            return openByDueDay.computeIfAbsent(day, d -> new LongAdder());
+        }
+    }
+}
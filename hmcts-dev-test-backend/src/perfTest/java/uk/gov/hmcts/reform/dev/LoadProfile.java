@@ -0,0 +1,75 @@
+package uk.gov.hmcts.reform.dev;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What {@link TaskApiLoadTest} throws at the app, read from {@code perf.*} system properties so a run
+ * can be tuned from the command line, e.g. {@code ./gradlew perfTest -Pperf.rate=500 -Pperf.budget.p99=100}.
+ *
+ * <ul>
+ *   <li>{@code perf.rate} - requests started per second, whether or not earlier ones have finished</li>
+ *   <li>{@code perf.warmup} / {@code perf.duration} - ISO-8601 durations; warmup isn't recorded</li>
+ *   <li>{@code perf.mix} - relative weights, e.g. {@code list=40,get=30,create=10,update=10,status=10}</li>
+ *   <li>{@code perf.seed} - tasks in the table before the run starts</li>
+ *   <li>{@code perf.budget.p99} / {@code perf.budget.p999} - millisecond ceilings across all operations</li>
+ * </ul>
+ */
+record LoadProfile(int rate, Duration warmup, Duration duration, Map<Operation, Integer> mix, int seed,
+                   long p99BudgetMillis, long p999BudgetMillis, Path reportDir) {
+
+    enum Operation {
+        LIST, GET, CREATE, UPDATE, STATUS
+    }
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("perf.rate", 200),
+                Duration.parse(System.getProperty("perf.warmup", "PT5S")),
+                Duration.parse(System.getProperty("perf.duration", "PT30S")),
+                parseMix(System.getProperty("perf.mix", "list=40,get=30,create=10,update=10,status=10")),
+                Integer.getInteger("perf.seed", 5000),
+                Long.getLong("perf.budget.p99", 250),
+                Long.getLong("perf.budget.p999", 1000),
+                Path.of(System.getProperty("perf.reportDir", "build/reports/perf"))
+        );
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad perf.mix entry '" + entry + "', expected name=weight");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("perf.mix has nothing to run: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Maps a uniform draw in [0, total weight) to an operation.
+     */
+    Operation pick(int draw) {
+        int remaining = draw;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            remaining -= entry.getValue();
+            if (remaining < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Draw " + draw + " is past the total weight");
+    }
+
+    int totalWeight() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,29 @@
+package uk.gov.hmcts.reform.dev;
+
+import uk.gov.hmcts.reform.dev.monitoring.SlowStatementLog;
+import uk.gov.hmcts.reform.dev.monitoring.StatementCapture;
+
+/**
+ * Plugged in as Hibernate's statement inspector to stand in for a slow database: every query
+ * sleeps before it runs, on the calling thread and while its transaction holds a pooled connection.
+ */
+public class SlowDatabase extends StatementCapture {
+
+    static volatile long delayMillis;
+
+    public SlowDatabase(SlowStatementLog slowStatements) {
+        super(slowStatements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (delayMillis > 0 && sql.startsWith("select") && !sql.contains("next value for")) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return super.inspect(sql);
+    }
+}
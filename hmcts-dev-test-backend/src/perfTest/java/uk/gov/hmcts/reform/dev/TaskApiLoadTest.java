@@ -0,0 +1,190 @@
+package uk.gov.hmcts.reform.dev;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import uk.gov.hmcts.reform.dev.LoadProfile.Operation;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkResult;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.services.TaskBulkService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-model load against {@code /api/tasks}: requests start on a fixed schedule set by
+ * {@code perf.rate}, whether or not the ones before them have finished, so a slow server builds a
+ * queue instead of quietly slowing the client down. Latency is measured from when each request was
+ * due to start, not when it actually got sent - otherwise a stall hides itself (coordinated omission).
+ *
+ * <p>Prints throughput and p50/p95/p99/p99.9 per operation, writes each histogram as an HdrHistogram
+ * {@code .hgrm} percentile file under {@code perf.reportDir}, and fails if the p99 or p99.9 across all
+ * operations is over budget. See {@link LoadProfile} for the knobs.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:perf",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+class TaskApiLoadTest {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskBulkService taskBulkService;
+
+    private final LoadProfile profile = LoadProfile.fromSystemProperties();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Long> ids = new ArrayList<>();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    @BeforeEach
+    void seed() {
+        List<TaskCreateRequest> batch = new ArrayList<>(TaskBulkService.MAX_BULK_SIZE);
+        for (int i = 0; i < profile.seed(); i++) {
+            batch.add(new TaskCreateRequest("Seeded task " + i, "Seeded for the load test",
+                    TaskStatus.values()[i % TaskStatus.values().length], null));
+            if (batch.size() == TaskBulkService.MAX_BULK_SIZE || i == profile.seed() - 1) {
+                for (TaskBulkResult result : taskBulkService.createTasks(batch)) {
+                    ids.add(result.getTask().getId());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    @Test
+    void latencyStaysWithinBudget() throws Exception {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation operation : profile.mix().keySet()) {
+            histograms.put(operation, new ConcurrentHistogram(3));
+        }
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+        long started = System.nanoTime();
+        long recordFrom = started + profile.warmup().toNanos();
+        long end = recordFrom + profile.duration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = started; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = profile.pick(ThreadLocalRandom.current().nextInt(profile.totalWeight()));
+                HttpRequest request = request(operation);
+                long scheduled = due;
+                clients.submit(() -> {
+                    send(request);
+                    if (scheduled >= recordFrom) {
+                        histograms.get(operation).recordValue(
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                    }
+                });
+            }
+        }
+
+        Histogram all = new Histogram(3);
+        histograms.values().forEach(all::add);
+        report(histograms, all);
+
+        assertThat(errors.get()).as("failed requests").isZero();
+        assertThat(millis(all, 99.0)).as("p99 ms").isLessThanOrEqualTo(profile.p99BudgetMillis());
+        assertThat(millis(all, 99.9)).as("p99.9 ms").isLessThanOrEqualTo(profile.p999BudgetMillis());
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String tasks = "http://localhost:" + port + "/api/tasks";
+        long id = ids.get(random.nextInt(ids.size()));
+        return switch (operation) {
+            case LIST -> HttpRequest.newBuilder(URI.create(tasks + "?limit=50")).build();
+            case GET -> HttpRequest.newBuilder(URI.create(tasks + "/" + id)).build();
+            case CREATE -> HttpRequest.newBuilder(URI.create(tasks))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load\",\"status\":\"TODO\"}"))
+                    .build();
+            case UPDATE -> HttpRequest.newBuilder(URI.create(tasks + "/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"title\":\"Updated " + random.nextInt() + "\"}"))
+                    .build();
+            case STATUS -> HttpRequest.newBuilder(URI.create(tasks + "/" + id + "/status?status="
+                            + TaskStatus.values()[random.nextInt(TaskStatus.values().length)]))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private void send(HttpRequest request) {
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            // Two unversioned PUTs on the same task can race - that's the API working, not failing
+            if (status == 409) {
+                conflicts.incrementAndGet();
+            } else if (status >= 400) {
+                errors.incrementAndGet();
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(Map<Operation, Histogram> histograms, Histogram all) throws IOException {
+        double seconds = profile.duration().toMillis() / 1000.0;
+        System.out.printf("%n%-8s %8s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((operation, histogram) -> printRow(operation.name().toLowerCase(), histogram, seconds));
+        printRow("all", all, seconds);
+        System.out.printf("rate %d/s, %d conflicts, %d errors%n", profile.rate(), conflicts.get(), errors.get());
+
+        Files.createDirectories(profile.reportDir());
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            writeDistribution(entry.getKey().name().toLowerCase(), entry.getValue());
+        }
+        writeDistribution("all", all);
+    }
+
+    private static void printRow(String name, Histogram histogram, double seconds) {
+        System.out.printf("%-8s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds, millis(histogram, 50.0), millis(histogram, 95.0),
+                millis(histogram, 99.0), millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    // Percentile distribution in the format HdrHistogram's plotter reads, scaled to milliseconds
+    private void writeDistribution(String name, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(profile.reportDir().resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
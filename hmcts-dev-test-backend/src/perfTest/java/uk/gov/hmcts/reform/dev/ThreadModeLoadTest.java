@@ -0,0 +1,172 @@
+package uk.gov.hmcts.reform.dev;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Platform threads vs virtual threads during a slow-database spike.
+ *
+ * <p>A burst of list requests lands while every query takes {@link #DB_DELAY_MS} - more than the
+ * Tomcat pool and the connection pool can absorb. Meanwhile a steady trickle of single-task reads
+ * is served from the cache and never needs the database. With platform threads those cache hits
+ * queue behind workers stuck in JDBC; with virtual threads they should go straight through, and
+ * far more requests are in flight at once (parked on the connection pool, not on Tomcat).
+ */
+class ThreadModeLoadTest {
+
+    private static final int TOMCAT_THREADS = 50;
+    private static final int DB_POOL_SIZE = 10;
+    private static final long DB_DELAY_MS = 50;
+    private static final int SLOW_REQUESTS = 400;
+    private static final int FAST_REQUESTS = 300;
+    private static final long FAST_INTERVAL_MS = 5;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private ConfigurableApplicationContext app;
+
+    @AfterEach
+    void tearDown() {
+        SlowDatabase.delayMillis = 0;
+        if (app != null) {
+            app.close();
+        }
+    }
+
+    @Test
+    void virtualThreadsKeepCachedReadsMovingDuringSlowDatabaseSpike() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-9s %14s %14s %14s %14s %8s%n",
+                "mode", "cached p50 ms", "cached p99 ms", "slow p99 ms", "max in flight", "pinned");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertThat(virtual.maxInFlight()).isGreaterThan(platform.maxInFlight());
+        assertThat(virtual.cached().getValueAtPercentile(99)).isLessThan(platform.cached().getValueAtPercentile(99));
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        // Command-line style so they win over application.yml
+        app = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + DB_POOL_SIZE,
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SlowDatabase.class.getName()
+        );
+        String base = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+        MeterRegistry registry = app.getBean(MeterRegistry.class);
+
+        send(HttpRequest.newBuilder(URI.create(base + "/api/tasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load\",\"status\":\"TODO\"}")).build());
+        HttpRequest cachedRead = HttpRequest.newBuilder(URI.create(base + "/api/tasks/1")).build();
+        // Fills the cache and gets the JIT going, so neither mode is measured cold
+        for (int i = 0; i < 500; i++) {
+            send(cachedRead);
+        }
+
+        AtomicLong maxInFlight = new AtomicLong();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().start(() -> {
+            while (sampling.get()) {
+                var active = Search.in(registry).name("http.server.requests.active").longTaskTimer();
+                if (active != null) {
+                    maxInFlight.accumulateAndGet(active.activeTasks(), Math::max);
+                }
+                sleep(2);
+            }
+        });
+
+        SlowDatabase.delayMillis = DB_DELAY_MS;
+        Histogram slow = new Histogram(TimeUnit.MINUTES.toMillis(5), 3);
+        Histogram cached = new Histogram(TimeUnit.MINUTES.toMillis(5), 3);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> pending = new ArrayList<>();
+            HttpRequest list = HttpRequest.newBuilder(URI.create(base + "/api/tasks?limit=10")).build();
+            for (int i = 0; i < SLOW_REQUESTS; i++) {
+                pending.add(clients.submit(() -> timed(list, slow)));
+            }
+            sleep(100);
+            for (int i = 0; i < FAST_REQUESTS; i++) {
+                pending.add(clients.submit(() -> timed(cachedRead, cached)));
+                sleep(FAST_INTERVAL_MS);
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } finally {
+            sampling.set(false);
+            sampler.join();
+            SlowDatabase.delayMillis = 0;
+        }
+
+        var pinned = Search.in(registry).name("jvm.threads.virtual.pinned").counter();
+        Result result = new Result(slow, cached, maxInFlight.get(), pinned == null ? 0 : (long) pinned.count());
+        app.close();
+        app = null;
+        return result;
+    }
+
+    private void timed(HttpRequest request, Histogram histogram) {
+        long started = System.nanoTime();
+        send(request);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        synchronized (histogram) {
+            histogram.recordValue(elapsed);
+        }
+    }
+
+    private void send(HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            assertThat(response.statusCode()).isLessThan(300);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(Histogram slow, Histogram cached, long maxInFlight, long pinned) {
+
+        void print(String mode) {
+            System.out.printf("%-9s %14d %14d %14d %14d %8d%n", mode,
+                    cached.getValueAtPercentile(50), cached.getValueAtPercentile(99),
+                    slow.getValueAtPercentile(99), maxInFlight, pinned);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+    private final List<Boolean> primaryOnly = new ArrayList<>();
+    private final FilterChain chain = (request, response) -> primaryOnly.add(ReplicaPool.primaryOnly());
+
+    @Test
+    void afterAWrite_ThatClientsReadsShouldGoToThePrimary() throws Exception {
+        perform("GET", "frontend", 200);
+        perform("POST", "frontend", 201);
+        perform("GET", "frontend", 200);
+        perform("GET", "someone-else", 200);
+
+        assertThat(primaryOnly).containsExactly(false, true, true, false);
+        assertThat(ReplicaPool.primaryOnly()).isFalse();
+    }
+
+    @Test
+    void afterAFailedWrite_ReadsShouldStayOnTheReplicas() throws Exception {
+        perform("PUT", "frontend", 409);
+        perform("GET", "frontend", 200);
+
+        assertThat(primaryOnly).containsExactly(true, false);
+    }
+
+    @Test
+    void withoutAClientId_ClientsShouldBeToldApartByAddress() throws Exception {
+        MockHttpServletRequest write = new MockHttpServletRequest("DELETE", "/api/tasks/1");
+        write.setRemoteAddr("10.0.0.1");
+        filter.doFilter(write, new MockHttpServletResponse(), chain);
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/tasks");
+        read.setRemoteAddr("10.0.0.2");
+        filter.doFilter(read, new MockHttpServletResponse(), chain);
+
+        assertThat(primaryOnly).containsExactly(true, false);
+    }
+
+    private void perform(String method, String clientId, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/tasks");
+        request.addHeader(ReadYourWritesFilter.CLIENT_ID_HEADER, clientId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        filter.doFilter(request, response, chain);
+    }
+}
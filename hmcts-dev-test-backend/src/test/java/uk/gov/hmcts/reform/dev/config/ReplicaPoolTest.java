@@ -0,0 +1,179 @@
+package uk.gov.hmcts.reform.dev.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection primaryConnection = mock(Connection.class);
+    private final DataSource primary = dataSource(primaryConnection);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private final DataSource first = dataSource(firstConnection);
+    private final DataSource second = dataSource(secondConnection);
+
+    @AfterEach
+    void tearDown() {
+        ReplicaPool.clearPrimary();
+    }
+
+    @Test
+    void roundRobin_ShouldTakeTurnsAcrossReplicas() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.ROUND_ROBIN);
+
+        List<Connection> targets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = pool.getConnection()) {
+                targets.add(target(connection));
+            }
+        }
+
+        assertThat(targets).containsExactly(firstConnection, secondConnection, firstConnection, secondConnection);
+    }
+
+    @Test
+    void leastBusy_ShouldPickTheReplicaWithFewestConnectionsOut() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.LEAST_BUSY);
+
+        Connection held = pool.getConnection();
+        assertThat(target(held)).isEqualTo(firstConnection);
+        // Round robin would be back on the first by now - it's still busy, so the second gets them all
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.getConnection()) {
+                assertThat(target(connection)).isEqualTo(secondConnection);
+            }
+        }
+        held.close();
+    }
+
+    @Test
+    void getConnection_WhenAReplicaFails_ShouldEjectItUntilItPassesAHealthCheck() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.ROUND_ROBIN);
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThat(target(pool.getConnection())).isEqualTo(secondConnection);
+        assertThat(target(pool.getConnection())).isEqualTo(secondConnection);
+        assertThat(pool.healthyReplicas()).isEqualTo(1);
+
+        Connection recovered = mock(Connection.class);
+        when(recovered.isValid(anyInt())).thenReturn(true);
+        doReturn(recovered).when(first).getConnection();
+        pool.checkHealth();
+
+        assertThat(pool.healthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_WhenAReplicaPoolIsExhausted_ShouldPassItOverWithoutEjectingIt() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.ROUND_ROBIN);
+        // What Hikari throws when every connection is in use and none came back in time
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException(
+                "replica-1 - Connection is not available, request timed out after 5000ms"));
+
+        assertThat(target(pool.getConnection())).isEqualTo(secondConnection);
+        pool.checkHealth();
+
+        assertThat(pool.healthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_WhenAReplicaIsUnreachable_ShouldEjectItEvenThoughThePoolTimedOut() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.ROUND_ROBIN);
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException(
+                "replica-1 - Connection is not available, request timed out after 5000ms", "08001",
+                new SQLException("Connection refused")));
+
+        assertThat(target(pool.getConnection())).isEqualTo(secondConnection);
+
+        assertThat(pool.healthyReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_WhenEveryReplicaIsDown_ShouldFallBackToThePrimary() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.LEAST_BUSY);
+        when(firstConnection.isValid(anyInt())).thenReturn(false);
+        when(secondConnection.isValid(anyInt())).thenReturn(false);
+        pool.checkHealth();
+
+        assertThat(pool.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get(ReplicaPool.READS).tag("target", ReplicaPool.PRIMARY).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_WhenPinnedToThePrimary_ShouldSkipTheReplicas() throws SQLException {
+        ReplicaPool pool = pool(ReplicaPool.Selection.LEAST_BUSY);
+
+        ReplicaPool.usePrimary();
+
+        assertThat(pool.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void propagatePrimary_ShouldPinTheOtherThreadOnlyWhileTheTaskRuns() throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        ReplicaPool.usePrimary();
+        Runnable task = ReplicaPool.propagatePrimary(() -> pinned.set(ReplicaPool.primaryOnly()));
+        ReplicaPool.clearPrimary();
+
+        AtomicBoolean pinnedAfter = new AtomicBoolean(true);
+        Thread thread = new Thread(() -> {
+            task.run();
+            pinnedAfter.set(ReplicaPool.primaryOnly());
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(pinned).isTrue();
+        assertThat(pinnedAfter).isFalse();
+    }
+
+    @Test
+    void propagatePrimary_WhenNotPinned_ShouldLeaveTheTaskAlone() {
+        Runnable task = () -> { };
+
+        assertThat(ReplicaPool.propagatePrimary(task)).isSameAs(task);
+    }
+
+    private ReplicaPool pool(ReplicaPool.Selection selection) throws SQLException {
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", first);
+        replicas.put("replica-2", second);
+        return new ReplicaPool(primary, replicas, selection, meterRegistry);
+    }
+
+    private static Connection target(Connection connection) {
+        return ((ConnectionProxy) connection).getTargetConnection();
+    }
+
+    private static DataSource dataSource(Connection connection) {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
@@ -1,34 +1,89 @@
 package uk.gov.hmcts.reform.dev.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkResult;
+import uk.gov.hmcts.reform.dev.dto.TaskChanges;
 import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskLog;
+import uk.gov.hmcts.reform.dev.dto.TaskLogEntry;
+import uk.gov.hmcts.reform.dev.dto.TaskPage;
 import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSort;
+import uk.gov.hmcts.reform.dev.dto.TaskStats;
 import uk.gov.hmcts.reform.dev.dto.TaskUpdateRequest;
+import uk.gov.hmcts.reform.dev.exceptions.BulkLimitExceededException;
+import uk.gov.hmcts.reform.dev.exceptions.InvalidCursorException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskPreconditionFailedException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskVersionConflictException;
+import uk.gov.hmcts.reform.dev.exceptions.WatermarkExpiredException;
+import uk.gov.hmcts.reform.dev.models.Task;
 import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.services.IdempotencyService;
+import uk.gov.hmcts.reform.dev.services.InMemoryIdempotencyStore;
+import uk.gov.hmcts.reform.dev.services.TaskBulkService;
+import uk.gov.hmcts.reform.dev.services.TaskChangesService;
+import uk.gov.hmcts.reform.dev.services.TaskEventStream;
+import uk.gov.hmcts.reform.dev.services.TaskExportService;
+import uk.gov.hmcts.reform.dev.services.TaskOutboxService;
+import uk.gov.hmcts.reform.dev.services.TaskSearchService;
+import uk.gov.hmcts.reform.dev.services.TaskStatsService;
 import uk.gov.hmcts.reform.dev.services.TaskService;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(TaskController.class)
+// Every request sampled, with the header on, so the Server-Timing breakdown can be checked
+@WebMvcTest(controllers = TaskController.class,
+        properties = {"tasks.timing.sample-rate=1.0", "tasks.timing.server-timing-header=true"})
+@Import({IdempotencyService.class, InMemoryIdempotencyStore.class})
 class TaskControllerTest {
 
     @Autowired
@@ -37,29 +92,239 @@ class TaskControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskExportService taskExportService;
+
+    @MockitoBean
+    private TaskBulkService taskBulkService;
+
+    @MockitoBean
+    private TaskSearchService taskSearchService;
+
+    @MockitoBean
+    private TaskStatsService taskStatsService;
+
+    @MockitoBean
+    private TaskEventStream taskEventStream;
+
+    @MockitoBean
+    private TaskChangesService taskChangesService;
+
+    @MockitoBean
+    private TaskOutboxService taskOutboxService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     private final LocalDateTime testDateTime = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
 
     @Test
-    void getAllTasks_ShouldReturnListOfTasks() throws Exception {
+    void getAllTasks_WithoutLimitOrCursor_ShouldLeaveThePageSizeToTheService() throws Exception {
         TaskResponse taskResponse = new TaskResponse(1L, "Test Task", "Description", 
-                TaskStatus.TODO, testDateTime, testDateTime, testDateTime);
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 0L);
         
-        when(taskService.getAllTasks()).thenReturn(List.of(taskResponse));
+        when(taskService.getTasks(any(TaskFilter.class), isNull(), isNull()))
+                .thenReturn(new TaskPage(List.of(taskResponse), null));
 
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].title").value("Test Task"))
                 .andExpect(jsonPath("$[0].status").value("TODO"));
     }
 
+    @Test
+    void getAllTasks_WhenMorePagesExist_ShouldReturnNextCursorHeader() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(2L, "Test Task", "Description", 
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 0L);
+
+        when(taskService.getTasks(any(TaskFilter.class), eq("abc"), eq(1)))
+                .thenReturn(new TaskPage(List.of(taskResponse), "def"));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("cursor", "abc")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, "def"))
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void getAllTasks_WithFilterParams_ShouldBindThemToFilter() throws Exception {
+        when(taskService.getTasks(any(TaskFilter.class), isNull(), isNull())).thenReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("status", "TODO", "IN_PROGRESS")
+                .param("dueFrom", "2024-01-01T00:00:00")
+                .param("dueTo", "2024-01-31T23:59:59")
+                .param("updatedFrom", "2024-01-15T09:30:00")
+                .param("sort", "DUE_DATE")
+                .param("direction", "ASC"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<TaskFilter> captor = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService).getTasks(captor.capture(), isNull(), isNull());
+        TaskFilter filter = captor.getValue();
+        assertThat(filter.getStatus()).containsExactlyInAnyOrder(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        assertThat(filter.getDueFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0, 0));
+        assertThat(filter.getDueTo()).isEqualTo(LocalDateTime.of(2024, 1, 31, 23, 59, 59));
+        assertThat(filter.getUpdatedFrom()).isEqualTo(LocalDateTime.of(2024, 1, 15, 9, 30, 0));
+        assertThat(filter.getCreatedFrom()).isNull();
+        assertThat(filter.getSort()).isEqualTo(TaskSort.DUE_DATE);
+        assertThat(filter.getDirection()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    void getAllTasks_WithoutSortParams_ShouldDefaultToNewestFirst() throws Exception {
+        when(taskService.getTasks(any(TaskFilter.class), isNull(), isNull())).thenReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<TaskFilter> captor = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService).getTasks(captor.capture(), isNull(), isNull());
+        assertThat(captor.getValue().getSort()).isEqualTo(TaskSort.CREATED_AT);
+        assertThat(captor.getValue().getDirection()).isEqualTo(Sort.Direction.DESC);
+    }
+
+    @Test
+    void getAllTasks_WithUnknownStatus_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("status", "NOT_A_STATUS"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllTasks_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(taskService.getTasks(any(TaskFilter.class), eq("garbage"), isNull()))
+                .thenThrow(new InvalidCursorException("garbage"));
+
+        mockMvc.perform(get("/api/tasks").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor 'garbage'"));
+    }
+
+    @Test
+    void exportTasks_ShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskExportService).exportTasks(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangedDeletedAndWatermark() throws Exception {
+        TaskResponse changed = new TaskResponse(1L, "Test Task", null, TaskStatus.TODO, null,
+                testDateTime, testDateTime, 2L);
+        when(taskChangesService.getChanges("abc", 1000))
+                .thenReturn(new TaskChanges(List.of(changed), List.of(7L), "def", false));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(1))
+                .andExpect(jsonPath("$.deleted[0]").value(7))
+                .andExpect(jsonPath("$.watermark").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getChanges_WhenWatermarkExpired_ShouldReturnGone() throws Exception {
+        when(taskChangesService.getChanges("old", 1000)).thenThrow(new WatermarkExpiredException(testDateTime));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "old"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void readLog_ShouldReturnEventsFromTheOffset() throws Exception {
+        when(taskOutboxService.read(100L, 5000))
+                .thenReturn(new TaskLog(List.of(new TaskLogEntry(101L, "deleted", 7L, null)), 101L, false));
+
+        mockMvc.perform(get("/api/tasks/log").param("after", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].offset").value(101))
+                .andExpect(jsonPath("$.events[0].type").value("deleted"))
+                .andExpect(jsonPath("$.nextOffset").value(101))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void streamEvents_ShouldSubscribeWithStatusFilter() throws Exception {
+        when(taskEventStream.subscribe(Set.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS), "k3x9-7"))
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/tasks/events").param("status", "TODO", "IN_PROGRESS")
+                        .header("Last-Event-ID", "k3x9-7"))
+                .andExpect(request().asyncStarted());
+
+        verify(taskEventStream).subscribe(Set.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS), "k3x9-7");
+    }
+
+    @Test
+    void streamEvents_WhenTheRequestTimesOut_ShouldNotAnswerWithAnErrorBody() throws Exception {
+        when(taskEventStream.subscribe(null, null)).thenReturn(new SseEmitter());
+        MvcResult started = mockMvc.perform(get("/api/tasks/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MockAsyncContext context = (MockAsyncContext) started.getRequest().getAsyncContext();
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onTimeout(new AsyncEvent(context));
+        }
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void searchTasks_ShouldReturnRankedMatches() throws Exception {
+        TaskResponse match = new TaskResponse(3L, "Review case bundle", null, TaskStatus.TODO, null,
+                testDateTime, testDateTime, 0L);
+        when(taskSearchService.search("case bun", 20)).thenReturn(List.of(match));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "case bun"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].title").value("Review case bundle"));
+    }
+
+    @Test
+    void searchTasks_WithoutQuery_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks/search"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskSearchService, never()).search(any(), anyInt());
+    }
+
+    @Test
+    void getStats_ShouldReturnCounters() throws Exception {
+        LocalDate today = LocalDate.of(2024, 1, 1);
+        when(taskStatsService.getStats()).thenReturn(new TaskStats(3, Map.of(TaskStatus.TODO, 3L), 1,
+                Map.of(today, 2L), testDateTime));
+
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.TODO").value(3))
+                .andExpect(jsonPath("$.overdue").value(1))
+                .andExpect(jsonPath("$.dueByDay['2024-01-01']").value(2));
+    }
+
     @Test
     void getTaskById_WhenTaskExists_ShouldReturnTask() throws Exception {
         TaskResponse taskResponse = new TaskResponse(1L, "Test Task", "Description", 
-                TaskStatus.TODO, testDateTime, testDateTime, testDateTime);
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 0L);
         
         when(taskService.getTaskById(1L)).thenReturn(Optional.of(taskResponse));
 
@@ -69,6 +334,92 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("Test Task"));
     }
 
+    @Test
+    void getTaskById_WithIncludeArchived_ShouldFallBackToTheArchive() throws Exception {
+        TaskResponse archived = new TaskResponse(1L, "Test Task", "Description",
+                TaskStatus.COMPLETED, testDateTime, testDateTime, testDateTime, 2L);
+        when(taskService.getTaskById(1L)).thenReturn(Optional.empty());
+        when(taskService.getArchivedTaskById(1L)).thenReturn(Optional.of(archived));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/tasks/1").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(header().string("ETag", "\"1-2\""));
+    }
+
+    @Test
+    void getTaskById_ShouldReturnETagAndHonourIfNoneMatch() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Test Task", "Description",
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 4L);
+        when(taskService.getTaskById(1L)).thenReturn(Optional.of(taskResponse));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllTasks_WhenPageUnchanged_ShouldReturnNotModified() throws Exception {
+        TaskResponse task = new TaskResponse(1L, "Test Task", "Description",
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 3L);
+        when(taskService.getTasks(any(TaskFilter.class), isNull(), eq(1)))
+                .thenReturn(new TaskPage(List.of(task), "next"));
+
+        String etag = mockMvc.perform(get("/api/tasks").param("status", "TODO").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks").param("status", "TODO").param("limit", "1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllTasks_ETag_ShouldFollowTheTasksOnThePageAndTheNextCursor() throws Exception {
+        TaskResponse task = new TaskResponse(1L, "Test Task", "Description",
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 3L);
+        TaskResponse edited = new TaskResponse(1L, "Edited", "Description",
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 4L);
+        when(taskService.getTasks(any(TaskFilter.class), isNull(), isNull()))
+                .thenReturn(new TaskPage(List.of(task), null))
+                .thenReturn(new TaskPage(List.of(edited), null))
+                .thenReturn(new TaskPage(List.of(edited), "next"));
+
+        String first = etagOf(get("/api/tasks"));
+        String afterEdit = etagOf(get("/api/tasks"));
+        String withNextPage = etagOf(get("/api/tasks"));
+
+        assertThat(first).startsWith("\"list-");
+        assertThat(afterEdit).isNotEqualTo(first);
+        assertThat(withNextPage).isNotEqualTo(afterEdit);
+    }
+
+    @Test
+    void getTaskById_ShouldReturnServerTimingBreakdown() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Test Task", "Description",
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 0L);
+        when(taskService.getTaskById(1L)).thenReturn(Optional.of(taskResponse));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+
+        when(taskService.getTaskById(2L)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/api/tasks/2"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+    }
+
     @Test
     void getTaskById_WhenTaskNotExists_ShouldReturnNotFound() throws Exception {
         when(taskService.getTaskById(1L)).thenReturn(Optional.empty());
@@ -82,7 +433,7 @@ class TaskControllerTest {
         TaskCreateRequest request = new TaskCreateRequest("New Task", "Description", 
                 TaskStatus.TODO, testDateTime);
         TaskResponse response = new TaskResponse(1L, "New Task", "Description", 
-                TaskStatus.TODO, testDateTime, testDateTime, testDateTime);
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 0L);
 
         when(taskService.createTask(any(TaskCreateRequest.class))).thenReturn(response);
 
@@ -94,6 +445,79 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("New Task"));
     }
 
+    @Test
+    void createTask_WhenRetriedWithIdempotencyKey_ShouldReplayWithoutCreatingAgain() throws Exception {
+        TaskCreateRequest request = new TaskCreateRequest("New Task", null, TaskStatus.TODO, null);
+        TaskResponse response = new TaskResponse(1L, "New Task", null,
+                TaskStatus.TODO, null, testDateTime, testDateTime, 0L);
+        when(taskService.createTask(any(TaskCreateRequest.class))).thenReturn(response);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/tasks")
+                    .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "retry-me")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+
+        verify(taskService, times(1)).createTask(any(TaskCreateRequest.class));
+        mockMvc.perform(post("/api/tasks")
+                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "retry-me")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    void claimTask_ShouldReturnTheClaimedTaskOrNoContentWhenTheQueueIsEmpty() throws Exception {
+        TaskResponse claimed = new TaskResponse(7L, "Next Task", null,
+                TaskStatus.IN_PROGRESS, testDateTime, testDateTime, testDateTime, 1L);
+        when(taskService.claimTasks(1)).thenReturn(List.of(claimed)).thenReturn(List.of());
+
+        mockMvc.perform(post("/api/tasks/claim"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                .andExpect(header().string("ETag", "\"7-1\""));
+
+        mockMvc.perform(post("/api/tasks/claim"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void claimTasks_WhenRetriedWithIdempotencyKey_ShouldReplayTheSameTasks() throws Exception {
+        when(taskService.claimTasks(2)).thenReturn(List.of(
+                new TaskResponse(3L, "First", null, TaskStatus.IN_PROGRESS, null, testDateTime, testDateTime, 1L),
+                new TaskResponse(4L, "Second", null, TaskStatus.IN_PROGRESS, null, testDateTime, testDateTime, 1L)));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/tasks/claim/batch").param("limit", "2")
+                    .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "claim-retry"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id").value(contains(3, 4)));
+        }
+
+        verify(taskService, times(1)).claimTasks(2);
+    }
+
+    @Test
+    void createTask_WhenIdempotencyKeyReusedWithDifferentBody_ShouldReturnUnprocessable() throws Exception {
+        when(taskService.createTask(any(TaskCreateRequest.class))).thenReturn(new TaskResponse(1L, "First", null,
+                TaskStatus.TODO, null, testDateTime, testDateTime, 0L));
+
+        mockMvc.perform(post("/api/tasks")
+                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TaskCreateRequest("First", null, TaskStatus.TODO, null))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/tasks")
+                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TaskCreateRequest("Second", null, TaskStatus.TODO, null))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void createTask_WithInvalidRequest_ShouldReturnBadRequest() throws Exception {
         TaskCreateRequest request = new TaskCreateRequest("", "Description", 
@@ -105,14 +529,47 @@ class TaskControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createTasks_ShouldReturnPerItemResults() throws Exception {
+        List<TaskCreateRequest> requests = List.of(
+                new TaskCreateRequest("New Task", "Description", TaskStatus.TODO, testDateTime),
+                new TaskCreateRequest("", "Description", null, null));
+        TaskResponse created = new TaskResponse(1L, "New Task", "Description", 
+                TaskStatus.TODO, testDateTime, testDateTime, testDateTime, 0L);
+
+        when(taskBulkService.createTasks(anyList())).thenReturn(List.of(
+                new TaskBulkResult(0, 201, created, null),
+                new TaskBulkResult(1, 400, null, Map.of("title", "Title is required"))));
+
+        mockMvc.perform(post("/api/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].task.id").value(1))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].fieldErrors.title").value("Title is required"));
+    }
+
+    @Test
+    void updateTasks_WhenTooManyItems_ShouldReturnBadRequest() throws Exception {
+        when(taskBulkService.updateTasks(anyList())).thenThrow(new BulkLimitExceededException(1001, 1000));
+
+        mockMvc.perform(put("/api/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\": 1, \"title\": \"Updated Task\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Bulk request has 1001 items, the limit is 1000"));
+    }
+
     @Test
     void updateTask_WhenTaskExists_ShouldReturnUpdatedTask() throws Exception {
         TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", "Updated Description", 
                 TaskStatus.IN_PROGRESS, testDateTime);
         TaskResponse response = new TaskResponse(1L, "Updated Task", "Updated Description", 
-                TaskStatus.IN_PROGRESS, testDateTime, testDateTime, testDateTime);
+                TaskStatus.IN_PROGRESS, testDateTime, testDateTime, testDateTime, 0L);
 
-        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class))).thenReturn(Optional.of(response));
+        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class), isNull())).thenReturn(Optional.of(response));
 
         mockMvc.perform(put("/api/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -126,7 +583,7 @@ class TaskControllerTest {
         TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", "Updated Description", 
                 TaskStatus.IN_PROGRESS, testDateTime);
 
-        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class))).thenReturn(Optional.empty());
+        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class), isNull())).thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -137,14 +594,127 @@ class TaskControllerTest {
     @Test
     void updateTaskStatus_WhenTaskExists_ShouldReturnUpdatedTask() throws Exception {
         TaskResponse response = new TaskResponse(1L, "Test Task", "Description", 
-                TaskStatus.COMPLETED, testDateTime, testDateTime, testDateTime);
+                TaskStatus.COMPLETED, testDateTime, testDateTime, testDateTime, 1L);
 
-        when(taskService.updateTaskStatus(1L, TaskStatus.COMPLETED)).thenReturn(Optional.of(response));
+        when(taskService.updateTaskStatus(1L, TaskStatus.COMPLETED, null)).thenReturn(Optional.of(response));
 
         mockMvc.perform(patch("/api/tasks/1/status")
                 .param("status", "COMPLETED"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status").value("COMPLETED"));
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void updateTaskStatus_WhenVersionIsStale_ShouldReturnConflict() throws Exception {
+        when(taskService.updateTaskStatus(1L, TaskStatus.COMPLETED, 3L))
+                .thenThrow(new TaskVersionConflictException(1L, 3L));
+
+        mockMvc.perform(patch("/api/tasks/1/status")
+                .param("status", "COMPLETED")
+                .param("version", "3"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Task 1 has been modified since version 3"));
+    }
+
+    @Test
+    void updateTaskStatus_WithReturnMinimal_ShouldReturnNoContent() throws Exception {
+        when(taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, 2L)).thenReturn(true);
+
+        mockMvc.perform(patch("/api/tasks/1/status")
+                .param("status", "COMPLETED")
+                .param("version", "2")
+                .header("Prefer", "return=minimal"))
+                .andExpect(status().isNoContent());
+
+        verify(taskService, never()).updateTaskStatus(any(), any(), any());
+    }
+
+    @Test
+    void updateTaskStatus_WithReturnMinimal_WhenTaskNotExists_ShouldReturnNotFound() throws Exception {
+        when(taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, null)).thenReturn(false);
+
+        mockMvc.perform(patch("/api/tasks/1/status")
+                .param("status", "COMPLETED")
+                .header("Prefer", "return=minimal"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateTask_WithIfMatch_ShouldPassVersionAndReturnNewETag() throws Exception {
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", null, TaskStatus.IN_PROGRESS, null);
+        TaskResponse response = new TaskResponse(1L, "Updated Task", null,
+                TaskStatus.IN_PROGRESS, null, testDateTime, testDateTime, 5L);
+        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class), eq(4L))).thenReturn(Optional.of(response));
+
+        mockMvc.perform(put("/api/tasks/1")
+                .header("If-Match", "\"1-4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-5\""));
+    }
+
+    @Test
+    void updateTask_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", null, TaskStatus.IN_PROGRESS, null);
+        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class), eq(3L)))
+                .thenThrow(new TaskVersionConflictException(1L, 3L));
+
+        mockMvc.perform(put("/api/tasks/1")
+                .header("If-Match", "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateTask_WithIfMatchAny_WhenTaskNotExists_ShouldReturnPreconditionFailed() throws Exception {
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", null, TaskStatus.IN_PROGRESS, null);
+        when(taskService.updateTask(eq(9L), any(TaskUpdateRequest.class), eq(TaskService.ANY_VERSION)))
+                .thenThrow(new TaskPreconditionFailedException(9L, "*"));
+
+        mockMvc.perform(put("/api/tasks/9")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateTaskStatus_WithIfMatchAny_ShouldAskForAnyVersionOfAnExistingTask() throws Exception {
+        when(taskService.changeTaskStatus(9L, TaskStatus.COMPLETED, TaskService.ANY_VERSION))
+                .thenThrow(new TaskPreconditionFailedException(9L, "*"));
+
+        mockMvc.perform(patch("/api/tasks/9/status")
+                .param("status", "COMPLETED")
+                .header("Prefer", "return=minimal")
+                .header("If-Match", "*"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateTaskStatus_WithForeignIfMatch_ShouldReturnPreconditionFailedWithoutWriting() throws Exception {
+        mockMvc.perform(patch("/api/tasks/1/status")
+                .param("status", "COMPLETED")
+                .header("If-Match", "\"2-3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(taskService, never()).updateTaskStatus(any(), any(), any());
+    }
+
+    @Test
+    void updateTask_WhenConcurrentlyModified_ShouldReturnConflict() throws Exception {
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", "Updated Description", 
+                TaskStatus.IN_PROGRESS, testDateTime);
+
+        when(taskService.updateTask(eq(1L), any(TaskUpdateRequest.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L));
+
+        mockMvc.perform(put("/api/tasks/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -162,4 +732,8 @@ class TaskControllerTest {
         mockMvc.perform(delete("/api/tasks/1"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+    }
+}
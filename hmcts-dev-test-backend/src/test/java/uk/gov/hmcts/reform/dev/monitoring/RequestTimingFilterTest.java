@@ -0,0 +1,46 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingFilterTest {
+
+    @Test
+    void doFilter_ByDefault_ShouldTimeSampledRequestsWithoutTellingTheClient() throws Exception {
+        MockHttpServletResponse response = filter(new RequestTimingFilter(1.0, false));
+
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+    }
+
+    @Test
+    void doFilter_WithHeaderSwitchedOn_ShouldSendServerTiming() throws Exception {
+        MockHttpServletResponse response = filter(new RequestTimingFilter(1.0, true));
+
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING)).contains("total;dur=");
+    }
+
+    @Test
+    void doFilter_WhenNotSampled_ShouldNotStartTiming() throws Exception {
+        AtomicReference<RequestTiming> seen = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestTimingFilter(0, true).doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response,
+                (request, ignored) -> seen.set(RequestTiming.current()));
+
+        assertThat(seen.get()).isNull();
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+    }
+
+    private static MockHttpServletResponse filter(RequestTimingFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response, new MockFilterChain());
+        assertThat(RequestTiming.current()).isNull();
+        return response;
+    }
+}
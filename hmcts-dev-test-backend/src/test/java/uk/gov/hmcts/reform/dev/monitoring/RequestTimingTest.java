@@ -0,0 +1,59 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.dev.monitoring.RequestTiming.Phase;
+
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingTest {
+
+    private final RequestTimingSessionListener listener = new RequestTimingSessionListener();
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.clear();
+    }
+
+    @Test
+    void nestedPhases_ShouldOnlyChargeTheInnermost() {
+        RequestTiming timing = RequestTiming.start(true);
+
+        Phase outside = timing.enter(Phase.SERVICE);
+        listener.jdbcExecuteStatementStart();
+        LockSupport.parkNanos(5_000_000);
+        listener.jdbcExecuteStatementEnd();
+        timing.exit(outside);
+
+        assertThat(outside).isNull();
+        assertThat(timing.nanos(Phase.DB)).isGreaterThanOrEqualTo(5_000_000);
+        assertThat(timing.nanos(Phase.SERVICE)).isLessThan(timing.nanos(Phase.DB));
+        assertThat(timing.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void serverTiming_ShouldSkipUnusedPhasesAndEndWithTotal() {
+        RequestTiming timing = RequestTiming.start(true);
+
+        listener.jdbcExecuteBatchStart();
+        LockSupport.parkNanos(1_000_000);
+        listener.jdbcExecuteBatchEnd();
+
+        assertThat(timing.serverTiming())
+                .startsWith("db;dur=")
+                .contains(";desc=\"1 statements\"")
+                .doesNotContain("service")
+                .contains("total;dur=");
+        assertThat(timing.logFields()).contains("service_ms=0.00", "statements=1", "total_ms=");
+    }
+
+    @Test
+    void listener_WithoutSampledRequest_ShouldDoNothing() {
+        listener.jdbcConnectionAcquisitionStart();
+        listener.jdbcConnectionAcquisitionEnd();
+
+        assertThat(RequestTiming.current()).isNull();
+    }
+}
@@ -0,0 +1,41 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlowStatementLogTest {
+
+    private final SlowStatementLog log = new SlowStatementLog(2, Duration.ofMillis(10));
+
+    @Test
+    void record_ShouldKeepOnlyTheSlowestOverThreshold() {
+        log.record("select 1", Duration.ofMillis(5).toNanos());
+        log.record("select 2", Duration.ofMillis(20).toNanos());
+        log.record("select 3", Duration.ofMillis(40).toNanos());
+        log.record("select 4", Duration.ofMillis(30).toNanos());
+        log.record("select 5", Duration.ofMillis(15).toNanos());
+
+        assertThat(log.entries()).extracting(SlowStatementLog.Entry::sql).containsExactly("select 3", "select 4");
+    }
+
+    @Test
+    void record_ShouldKeepShapeWithoutValues() {
+        log.record("select t.id from tasks t where t.status=? and t.id in (?,?,?,?)", Duration.ofMillis(12).toNanos());
+
+        SlowStatementLog.Entry entry = log.entries().get(0);
+        assertThat(entry.sql()).isEqualTo("select t.id from tasks t where t.status=? and t.id in (?[x4])");
+        assertThat(entry.parameters()).isEqualTo(5);
+        assertThat(entry.millis()).isEqualTo(12.0);
+    }
+
+    @Test
+    void constructor_WithNoCapacity_ShouldRefuseToStart() {
+        assertThatThrownBy(() -> new SlowStatementLog(0, Duration.ofMillis(10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tasks.slow-statements.capacity");
+    }
+}
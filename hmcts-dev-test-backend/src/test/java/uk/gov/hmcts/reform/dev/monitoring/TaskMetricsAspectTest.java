@@ -0,0 +1,97 @@
+package uk.gov.hmcts.reform.dev.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.dev.exceptions.BulkLimitExceededException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskVersionConflictException;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskArchiveRepository;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+import uk.gov.hmcts.reform.dev.repositories.TaskTombstoneRepository;
+import uk.gov.hmcts.reform.dev.services.TaskCache;
+import uk.gov.hmcts.reform.dev.services.TaskService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskMetricsAspectTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private TaskArchiveRepository archiveRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        TaskService target = new TaskService(taskStore, eventPublisher,
+                new TaskCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), tombstoneRepository,
+                archiveRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TaskMetricsAspect(meterRegistry));
+        taskService = factory.getProxy();
+    }
+
+    @Test
+    void serviceCall_ShouldBeTimedWithNotFoundOutcome() {
+        when(taskStore.findResponseById(1L)).thenReturn(Optional.empty());
+
+        assertThat(taskService.getTaskById(1L)).isEmpty();
+
+        Timer timer = meterRegistry.get(TaskMetricsAspect.SERVICE_TIMER)
+                .tag("operation", "getTaskById").tag("outcome", "not-found").timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void serviceCall_ShouldBeTimedWithConflictOutcomeAndRethrow() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), eq(2L)))
+                .thenReturn(Optional.empty());
+        when(taskStore.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, 2L))
+                .isInstanceOf(TaskVersionConflictException.class);
+
+        assertThat(meterRegistry.get(TaskMetricsAspect.SERVICE_TIMER)
+                .tag("operation", "changeTaskStatus").tag("outcome", "conflict").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void outcomeOf_ShouldFollowTheExceptionHandlerMapping() {
+        assertThat(TaskMetricsAspect.outcomeOf(Optional.of("task"))).isEqualTo("found");
+        assertThat(TaskMetricsAspect.outcomeOf(Boolean.FALSE)).isEqualTo("not-found");
+        assertThat(TaskMetricsAspect.outcomeOf((Object) null)).isEqualTo("success");
+        assertThat(TaskMetricsAspect.outcomeOf(new BulkLimitExceededException(2, 1))).isEqualTo("validation-error");
+        assertThat(TaskMetricsAspect.outcomeOf(new OptimisticLockingFailureException("raced"))).isEqualTo("conflict");
+        assertThat(TaskMetricsAspect.outcomeOf(new IllegalStateException())).isEqualTo("error");
+    }
+}
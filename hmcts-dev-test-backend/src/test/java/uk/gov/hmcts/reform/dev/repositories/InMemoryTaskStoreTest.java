@@ -0,0 +1,266 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.dto.TaskSort;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryTaskStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0, 0);
+
+    private final InMemoryTaskStore store = new InMemoryTaskStore();
+
+    @BeforeEach
+    void setUp() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            // Every fifth task has no due date, to exercise the tail of the keyset
+            task.setDueDate(i % 5 == 0 ? null : BASE.plusDays(i % 30));
+            tasks.add(task);
+        }
+        store.insertAll(tasks);
+    }
+
+    @Test
+    void findResponses_WhenPagingByDueDate_ShouldVisitEveryTaskOnceWithNoDueDateLast() {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            TaskFilter filter = new TaskFilter();
+            filter.setSort(TaskSort.DUE_DATE);
+            filter.setDirection(direction);
+
+            List<TaskResponse> seen = new ArrayList<>();
+            List<TaskResponse> page = store.findResponses(filter, null, null, 37);
+            while (!page.isEmpty()) {
+                seen.addAll(page);
+                TaskResponse last = page.get(page.size() - 1);
+                page = store.findResponses(filter, last.getDueDate(), last.getId(), 37);
+            }
+
+            assertThat(seen).extracting(TaskResponse::getId).hasSize(400).doesNotHaveDuplicates();
+            assertThat(seen.subList(320, 400)).allMatch(task -> task.getDueDate() == null);
+            Comparator<LocalDateTime> order = direction.isAscending()
+                    ? Comparator.naturalOrder() : Comparator.reverseOrder();
+            assertThat(seen.subList(0, 320)).extracting(TaskResponse::getDueDate).isSortedAccordingTo(order);
+        }
+    }
+
+    @Test
+    void findResponses_ShouldApplyEveryFilterCriterion() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatus(Set.of(TaskStatus.IN_PROGRESS));
+        filter.setDueFrom(BASE.plusDays(10));
+        filter.setDueTo(BASE.plusDays(12));
+
+        List<TaskResponse> tasks = store.findResponses(filter, null, null, 500);
+
+        assertThat(tasks).isNotEmpty().allSatisfy(task -> {
+            assertThat(task.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+            assertThat(task.getDueDate()).isBetween(BASE.plusDays(10), BASE.plusDays(12));
+        });
+    }
+
+    @Test
+    void updateStatus_ShouldOnlyApplyAtTheExpectedVersionAndReturnThePreviousState() {
+        TaskResponse task = store.findResponseById(1L).orElseThrow();
+
+        assertThat(store.updateStatus(1L, TaskStatus.COMPLETED, BASE, task.getVersion() + 1)).isEmpty();
+        assertThat(store.updateStatus(1L, TaskStatus.COMPLETED, BASE, task.getVersion()))
+                .get().usingRecursiveComparison().isEqualTo(task);
+
+        assertThat(store.findResponseById(1L)).get()
+                .satisfies(updated -> assertThat(updated.getVersion()).isEqualTo(task.getVersion() + 1));
+        assertThat(idsWithStatus(TaskStatus.COMPLETED)).contains(1L);
+        assertThat(idsWithStatus(TaskStatus.TODO)).doesNotContain(1L);
+        assertThat(store.findResponsesChangedAfter(BASE.minusSeconds(1), Long.MAX_VALUE, BASE, Limit.of(10)))
+                .extracting(TaskResponse::getId).containsExactly(1L);
+    }
+
+    @Test
+    void claim_ShouldTakeTheEarliestDueTasksFirstAndLeaveUndatedOnesToLast() {
+        List<TaskResponse> claimed = new ArrayList<>();
+        List<TaskResponse> batch = store.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 30);
+        while (!batch.isEmpty()) {
+            claimed.addAll(batch);
+            batch = store.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 30);
+        }
+
+        assertThat(claimed).extracting(TaskResponse::getId).hasSize(100).doesNotHaveDuplicates();
+        assertThat(claimed).allMatch(task -> task.getStatus() == TaskStatus.IN_PROGRESS);
+        assertThat(claimed.subList(0, 80)).extracting(TaskResponse::getDueDate)
+                .isSortedAccordingTo(Comparator.naturalOrder());
+        assertThat(claimed.subList(80, 100)).allMatch(task -> task.getDueDate() == null);
+        assertThat(idsWithStatus(TaskStatus.TODO)).isEmpty();
+    }
+
+    @Test
+    void claim_WhenWorkersClaimConcurrently_ShouldHandEachTaskToExactlyOneOfThem() throws Exception {
+        List<Future<List<TaskResponse>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                workers.add(executor.submit(() -> {
+                    List<TaskResponse> mine = new ArrayList<>();
+                    List<TaskResponse> batch = store.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 3);
+                    while (!batch.isEmpty()) {
+                        mine.addAll(batch);
+                        batch = store.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 3);
+                    }
+                    return mine;
+                }));
+            }
+        }
+
+        List<Long> claimed = new ArrayList<>();
+        for (Future<List<TaskResponse>> worker : workers) {
+            worker.get().forEach(task -> claimed.add(task.getId()));
+        }
+        assertThat(claimed).hasSize(100).doesNotHaveDuplicates();
+        assertThat(idsWithStatus(TaskStatus.TODO)).isEmpty();
+    }
+
+    @Test
+    void updateAll_ShouldWriteOnlyRealChangesAndLeaveOutMissingIds() {
+        TaskResponse renamed = store.findResponseById(1L).orElseThrow();
+        TaskResponse untouched = store.findResponseById(2L).orElseThrow();
+
+        Map<Long, TaskStore.Change> changes = store.updateAll(List.of(1L, 2L, 9999L), task -> {
+            if (task.getId() == 1L) {
+                task.setTitle("Renamed");
+            }
+        });
+
+        assertThat(changes).containsOnlyKeys(1L, 2L);
+        assertThat(changes.get(1L).previous().version()).isEqualTo(renamed.getVersion());
+        assertThat(changes.get(1L).task()).satisfies(task -> {
+            assertThat(task.getTitle()).isEqualTo("Renamed");
+            assertThat(task.getVersion()).isEqualTo(renamed.getVersion() + 1);
+        });
+        assertThat(changes.get(2L).task()).usingRecursiveComparison().isEqualTo(untouched);
+        assertThat(store.findResponseById(1L)).get().extracting(TaskResponse::getTitle).isEqualTo("Renamed");
+    }
+
+    @Test
+    void update_WhenTheChangeThrows_ShouldLeaveTheTaskAsItWas() {
+        TaskResponse before = store.findResponseById(1L).orElseThrow();
+
+        assertThatThrownBy(() -> store.update(1L, task -> {
+            task.setTitle("Half done");
+            throw new IllegalStateException("changed my mind");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.findResponseById(1L)).get().usingRecursiveComparison().isEqualTo(before);
+    }
+
+    @Test
+    void rollback_ShouldUndoEveryWriteTheTransactionMade() {
+        TaskResponse renamed = store.findResponseById(1L).orElseThrow();
+        TaskResponse moved = store.findResponseById(2L).orElseThrow();
+        TaskResponse deleted = store.findResponseById(6L).orElseThrow();
+
+        List<TransactionSynchronization> transaction = inTransaction(() -> {
+            store.insert(task("Inserted"));
+            store.update(1L, task -> task.setTitle("Renamed"));
+            store.update(1L, task -> task.setTitle("Renamed again"));
+            store.updateStatus(2L, TaskStatus.COMPLETED, BASE, null);
+            store.delete(6L);
+        });
+        complete(transaction, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(store.count()).isEqualTo(400);
+        assertThat(store.existsById(401L)).isFalse();
+        assertThat(store.findResponseById(1L)).get().usingRecursiveComparison().isEqualTo(renamed);
+        assertThat(store.findResponseById(2L)).get().usingRecursiveComparison().isEqualTo(moved);
+        assertThat(store.findResponseById(6L)).get().usingRecursiveComparison().isEqualTo(deleted);
+        assertThat(idsWithStatus(moved.getStatus())).contains(2L, 6L);
+        assertThat(idsWithStatus(TaskStatus.COMPLETED)).doesNotContain(2L);
+        // Ids handed out in a rolled back transaction aren't handed out again
+        assertThat(store.insert(task("Next")).getId()).isEqualTo(402L);
+    }
+
+    @Test
+    void rollback_WhenAnotherWriteGotInSince_ShouldLeaveThatWrite() {
+        List<TransactionSynchronization> transaction = inTransaction(
+                () -> store.update(1L, task -> task.setTitle("Ours")));
+        store.update(1L, task -> task.setTitle("Theirs"));
+        complete(transaction, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(store.findResponseById(1L)).get().extracting(TaskResponse::getTitle).isEqualTo("Theirs");
+    }
+
+    @Test
+    void commit_ShouldKeepTheTransactionsWrites() {
+        List<TransactionSynchronization> transaction = inTransaction(() -> store.delete(6L));
+        complete(transaction, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(store.existsById(6L)).isFalse();
+    }
+
+    @Test
+    void delete_ShouldRemoveTheTaskFromEveryIndexAndReturnWhatItWas() {
+        TaskResponse task = store.findResponseById(6L).orElseThrow();
+
+        assertThat(store.delete(6L)).contains(TaskSnapshot.of(task));
+        assertThat(store.delete(6L)).isEmpty();
+
+        assertThat(store.findResponseById(6L)).isEmpty();
+        assertThat(store.count()).isEqualTo(399);
+        assertThat(store.findResponses(new TaskFilter(), null, null, 500)).extracting(TaskResponse::getId)
+                .hasSize(399).doesNotContain(6L);
+        assertThat(idsWithStatus(TaskStatus.IN_PROGRESS)).doesNotContain(6L);
+        assertThat(store.countByStatus()).extracting(TaskStore.StatusCount::getCount)
+                .containsOnly(100L, 99L);
+    }
+
+    private List<Long> idsWithStatus(TaskStatus status) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatus(Set.of(status));
+        return store.findResponses(filter, null, null, 500).stream().map(TaskResponse::getId).toList();
+    }
+
+    // Runs the writes with synchronization on, as a transaction would, and hands back what they registered
+    private static List<TransactionSynchronization> inTransaction(Runnable writes) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writes.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // What the transaction manager does once synchronization is off again
+    private static void complete(List<TransactionSynchronization> transaction, int status) {
+        transaction.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(TaskStatus.TODO);
+        return task;
+    }
+}
@@ -0,0 +1,165 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournaledTaskStoreTest {
+
+    // Small, so a few hundred tasks span several segments
+    private static final DataSize SEGMENT_SIZE = DataSize.ofKilobytes(4);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restart_ShouldRecoverEveryChangeAndNeverReuseIds() throws IOException {
+        JournaledTaskStore store = open();
+        TaskResponse kept = store.insert(task("Kept"));
+        TaskResponse deleted = store.insert(task("Deleted"));
+        store.updateStatus(kept.getId(), TaskStatus.COMPLETED, LocalDateTime.of(2024, 1, 1, 9, 0), 0L);
+        store.delete(deleted.getId());
+        store.close();
+
+        JournaledTaskStore recovered = open();
+        assertThat(recovered.findResponseById(kept.getId())).get().satisfies(task -> {
+            assertThat(task.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+            assertThat(task.getVersion()).isEqualTo(1L);
+            assertThat(task.getCreatedAt()).isEqualTo(kept.getCreatedAt());
+        });
+        assertThat(recovered.findResponseById(deleted.getId())).isEmpty();
+        assertThat(recovered.insert(task("Next")).getId()).isGreaterThan(deleted.getId());
+        recovered.close();
+    }
+
+    @Test
+    void restart_AfterConcurrentWrites_ShouldHaveEveryAcknowledgedTask() throws IOException {
+        JournaledTaskStore store = open();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < 8; writer++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        store.insert(task("Concurrent"));
+                    }
+                });
+            }
+        }
+        store.close();
+
+        JournaledTaskStore recovered = open();
+        assertThat(recovered.count()).isEqualTo(400);
+        recovered.close();
+    }
+
+    @Test
+    void snapshot_ShouldLetRecoveryStartFromItAndTrimTheLog() throws IOException {
+        JournaledTaskStore store = open();
+        for (int i = 0; i < 200; i++) {
+            store.insert(task("Task " + i));
+        }
+        store.snapshot();
+        for (int i = 200; i < 250; i++) {
+            store.insert(task("Task " + i));
+        }
+        store.delete(1L);
+        store.close();
+
+        assertThat(files(".snapshot")).hasSize(1);
+        assertThat(files(".log")).hasSizeLessThanOrEqualTo(2);
+
+        JournaledTaskStore recovered = open();
+        assertThat(recovered.count()).isEqualTo(249);
+        assertThat(recovered.findResponseById(1L)).isEmpty();
+        assertThat(recovered.findResponseById(250L)).get().extracting(TaskResponse::getTitle).isEqualTo("Task 249");
+        recovered.close();
+    }
+
+    @Test
+    void restart_AfterATornWrite_ShouldDropOnlyTheLastRecordAndCarryOn() throws IOException {
+        JournaledTaskStore store = open();
+        store.insert(task("First"));
+        store.insert(task("Torn"));
+        store.close();
+
+        // Flip the last byte written, as if the crash came before that page reached the disk
+        Path segment = files(".log").get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 0x7f;
+        Files.write(segment, bytes);
+
+        JournaledTaskStore recovered = open();
+        assertThat(titles(recovered)).containsExactly("First");
+        recovered.insert(task("After"));
+        recovered.close();
+
+        JournaledTaskStore again = open();
+        assertThat(titles(again)).containsExactly("First", "After");
+        again.close();
+    }
+
+    @Test
+    void restart_AfterARollback_ShouldRecoverTheUndoneState() throws IOException {
+        JournaledTaskStore store = open();
+        TaskResponse kept = store.insert(task("Kept"));
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> transaction;
+        try {
+            store.insert(task("Rolled back"));
+            store.update(kept.getId(), task -> task.setTitle("Renamed"));
+            transaction = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        transaction.forEach(synchronization -> synchronization.afterCompletion(
+                TransactionSynchronization.STATUS_ROLLED_BACK));
+        store.close();
+
+        JournaledTaskStore recovered = open();
+        assertThat(titles(recovered)).containsExactly("Kept");
+        assertThat(recovered.insert(task("Next")).getId()).isEqualTo(3L);
+        recovered.close();
+    }
+
+    private JournaledTaskStore open() throws IOException {
+        return new JournaledTaskStore(directory, SEGMENT_SIZE);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static List<String> titles(TaskStore store) {
+        try (Stream<TaskResponse> tasks = store.streamAllResponses()) {
+            return tasks.map(TaskResponse::getTitle).toList();
+        }
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(TaskStatus.TODO);
+        return task;
+    }
+}
@@ -0,0 +1,29 @@
+package uk.gov.hmcts.reform.dev.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongStripedMapTest {
+
+    @Test
+    void compute_ShouldInsertReplaceAndRemoveThroughResizes() {
+        LongStripedMap<String> map = new LongStripedMap<>();
+        for (long key = 1; key <= 20_000; key++) {
+            long value = key;
+            map.compute(key, current -> "v" + value);
+        }
+        // Knock out every third key - backward shifting has to keep the rest reachable
+        for (long key = 3; key <= 20_000; key += 3) {
+            map.compute(key, current -> null);
+        }
+        map.compute(1, current -> current + "!");
+
+        assertThat(map.size()).isEqualTo(20_000 - 6_666);
+        assertThat(map.values()).hasSize(20_000 - 6_666);
+        assertThat(map.get(1)).isEqualTo("v1!");
+        for (long key = 2; key <= 20_000; key++) {
+            assertThat(map.get(key)).isEqualTo(key % 3 == 0 ? null : "v" + key);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.exceptions.IdempotencyKeyInProgressException;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final TypeReference<TaskResponse> RESPONSE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final TaskCreateRequest request = new TaskCreateRequest("Task", null, TaskStatus.TODO, null);
+
+    @Test
+    void execute_WhenDuplicatesArriveTogether_ShouldRunTheActionOnce() throws Exception {
+        IdempotencyService service = new IdempotencyService(new InMemoryIdempotencyStore(100, Duration.ofMinutes(1)),
+                objectMapper, Duration.ofSeconds(5));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<IdempotencyService.Idempotent<TaskResponse>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> service.execute("key", "create", request, RESPONSE, () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return task(1L);
+                })));
+            }
+            started.await();
+            release.countDown();
+        }
+
+        assertThat(runs).hasValue(1);
+        long replayed = 0;
+        for (Future<IdempotencyService.Idempotent<TaskResponse>> result : results) {
+            assertThat(result.get().body().getId()).isEqualTo(1L);
+            replayed += result.get().replayed() ? 1 : 0;
+        }
+        assertThat(replayed).isEqualTo(7);
+    }
+
+    @Test
+    void execute_WhenTheFirstAttemptFails_ShouldLetTheRetryRun() {
+        IdempotencyService service = new IdempotencyService(new InMemoryIdempotencyStore(100, Duration.ofMinutes(1)),
+                objectMapper, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> service.execute("key", "create", request, RESPONSE, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotencyService.Idempotent<TaskResponse> retried =
+                service.execute("key", "create", request, RESPONSE, () -> task(2L));
+        assertThat(retried.body().getId()).isEqualTo(2L);
+        assertThat(retried.replayed()).isFalse();
+    }
+
+    @Test
+    void execute_WhenAnotherInstanceNeverFinishes_ShouldGiveUpWithInProgress() {
+        // A claim held elsewhere - the shared store says the key is taken but has no response yet
+        IdempotencyStore heldElsewhere = new IdempotencyStore() {
+            @Override
+            public Optional<Entry> find(String key) {
+                return Optional.of(new Entry("someone else", null));
+            }
+
+            @Override
+            public boolean claim(String key, String fingerprint) {
+                return false;
+            }
+
+            @Override
+            public void complete(String key, Entry entry) {
+            }
+
+            @Override
+            public void release(String key) {
+            }
+        };
+        IdempotencyService service = new IdempotencyService(heldElsewhere, objectMapper, Duration.ofMillis(200));
+
+        assertThatThrownBy(() -> service.execute("key", "create", request, RESPONSE, () -> task(1L)))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+    }
+
+    @Test
+    void execute_WithoutKey_ShouldJustRun() {
+        IdempotencyService service = new IdempotencyService(new InMemoryIdempotencyStore(100, Duration.ofMinutes(1)),
+                objectMapper, Duration.ofSeconds(5));
+        AtomicInteger runs = new AtomicInteger();
+
+        service.execute(null, "create", request, RESPONSE, () -> task(runs.incrementAndGet()));
+        service.execute(null, "create", request, RESPONSE, () -> task(runs.incrementAndGet()));
+
+        assertThat(runs).hasValue(2);
+    }
+
+    private static TaskResponse task(long id) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return new TaskResponse(id, "Task", null, TaskStatus.TODO, null, now, now, 0L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
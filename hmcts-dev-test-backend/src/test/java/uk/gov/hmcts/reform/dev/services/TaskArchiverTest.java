@@ -0,0 +1,127 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskArchiveRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0, 0);
+    private static final LocalDateTime CUTOFF = NOW.minusDays(30);
+
+    @Mock
+    private TaskArchiveRepository archiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        archiver = new TaskArchiver(archiveRepository, TransactionOperations.withoutTransaction(), eventPublisher,
+                Duration.ofDays(30), 2, Duration.ZERO, clock);
+    }
+
+    @Test
+    void archive_ShouldMoveEachBatchAndCarryOnFromTheLastKey() {
+        LocalDateTime finished = CUTOFF.minusDays(5);
+        when(archiveRepository.findArchivable(TaskArchiver.FINISHED, CUTOFF, TaskChangesService.BEGINNING, 0L,
+                Limit.of(2))).thenReturn(List.of(key(finished, 1L), key(finished, 2L)));
+        when(archiveRepository.findArchivable(TaskArchiver.FINISHED, CUTOFF, finished, 2L, Limit.of(2)))
+                .thenReturn(List.of(key(finished.plusDays(1), 7L)));
+        when(archiveRepository.lockArchivable(List.of(1L, 2L), TaskArchiver.FINISHED, CUTOFF))
+                .thenReturn(List.of(task(1L, TaskStatus.COMPLETED), task(2L, TaskStatus.CANCELLED)));
+        when(archiveRepository.lockArchivable(List.of(7L), TaskArchiver.FINISHED, CUTOFF))
+                .thenReturn(List.of(task(7L, TaskStatus.COMPLETED)));
+
+        int archived = archiver.archive();
+
+        assertThat(archived).isEqualTo(3);
+        verify(archiveRepository).copyFromTasks(Set.of(1L, 2L));
+        verify(archiveRepository).deleteFromTasks(Set.of(1L, 2L));
+        verify(archiveRepository).copyFromTasks(Set.of(7L));
+        verify(archiveRepository).deleteFromTasks(Set.of(7L));
+    }
+
+    @Test
+    void archive_WhenATaskWasReopenedSinceTheWalk_ShouldLeaveItBehind() {
+        LocalDateTime finished = CUTOFF.minusDays(5);
+        when(archiveRepository.findArchivable(TaskArchiver.FINISHED, CUTOFF, TaskChangesService.BEGINNING, 0L,
+                Limit.of(2))).thenReturn(List.of(key(finished, 1L)));
+        when(archiveRepository.lockArchivable(List.of(1L), TaskArchiver.FINISHED, CUTOFF)).thenReturn(List.of());
+
+        int archived = archiver.archive();
+
+        assertThat(archived).isZero();
+        verify(archiveRepository, never()).copyFromTasks(any());
+        verify(archiveRepository, never()).deleteFromTasks(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void archive_ShouldPublishWhatEachArchivedTaskLookedLike() {
+        when(archiveRepository.findArchivable(TaskArchiver.FINISHED, CUTOFF, TaskChangesService.BEGINNING, 0L,
+                Limit.of(2))).thenReturn(List.of(key(CUTOFF.minusDays(1), 4L)));
+        when(archiveRepository.lockArchivable(List.of(4L), TaskArchiver.FINISHED, CUTOFF))
+                .thenReturn(List.of(task(4L, TaskStatus.COMPLETED)));
+
+        archiver.archive();
+
+        ArgumentCaptor<TaskArchivedEvent> event = ArgumentCaptor.forClass(TaskArchivedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().tasks())
+                .containsEntry(4L, new TaskSnapshot(TaskStatus.COMPLETED, CUTOFF.minusDays(10), 3L));
+    }
+
+    private static TaskArchiveRepository.TaskKey key(LocalDateTime updatedAt, Long id) {
+        return new TaskArchiveRepository.TaskKey() {
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+        };
+    }
+
+    private static Task task(Long id, TaskStatus status) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setStatus(status);
+        task.setDueDate(CUTOFF.minusDays(10));
+        task.setUpdatedAt(CUTOFF.minusDays(1));
+        task.setVersion(3L);
+        return task;
+    }
+}
@@ -0,0 +1,158 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkResult;
+import uk.gov.hmcts.reform.dev.dto.TaskBulkUpdateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.exceptions.BulkLimitExceededException;
+import uk.gov.hmcts.reform.dev.models.Task;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBulkServiceTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ValidatorFactory validatorFactory;
+    private TaskBulkService taskBulkService;
+
+    private final LocalDateTime testDateTime = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        taskBulkService = new TaskBulkService(taskStore, validatorFactory.getValidator(), eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTasks_ShouldSaveValidItemsInOneCallAndReportInvalidOnes() {
+        AtomicLong ids = new AtomicLong();
+        when(taskStore.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks.stream().map(TaskResponse::of).toList();
+        });
+
+        List<TaskBulkResult> results = taskBulkService.createTasks(List.of(
+                new TaskCreateRequest("First", null, TaskStatus.TODO, testDateTime),
+                new TaskCreateRequest("", null, null, null),
+                new TaskCreateRequest("Third", null, TaskStatus.IN_PROGRESS, null)
+        ));
+
+        assertThat(results).extracting(TaskBulkResult::getStatus).containsExactly(201, 400, 201);
+        assertThat(results.get(0).getTask().getTitle()).isEqualTo("First");
+        assertThat(results.get(1).getFieldErrors()).containsKeys("title", "status");
+        assertThat(results.get(2).getTask().getId()).isEqualTo(2L);
+        verify(taskStore, times(1)).insertAll(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(TaskChangeEvent.class));
+    }
+
+    @Test
+    void createTasks_WhenTooManyItems_ShouldThrowWithoutTouchingRepository() {
+        List<TaskCreateRequest> requests = Collections.nCopies(TaskBulkService.MAX_BULK_SIZE + 1,
+                new TaskCreateRequest("Task", null, TaskStatus.TODO, null));
+
+        assertThatThrownBy(() -> taskBulkService.createTasks(requests))
+                .isInstanceOf(BulkLimitExceededException.class);
+        verifyNoInteractions(taskStore);
+    }
+
+    @Test
+    void updateTasks_ShouldUpdateAllIdsInOneCallAndReportMissingOnes() {
+        Task existing = new Task();
+        existing.setId(1L);
+        existing.setTitle("Old Title");
+        existing.setStatus(TaskStatus.TODO);
+        existing.setVersion(0L);
+        storeHolds(existing);
+
+        List<TaskBulkUpdateRequest> requests = new ArrayList<>();
+        requests.add(new TaskBulkUpdateRequest(1L, "New Title", null, TaskStatus.COMPLETED, null));
+        requests.add(new TaskBulkUpdateRequest(2L, "Ghost", null, null, null));
+        requests.add(new TaskBulkUpdateRequest(null, "No Id", null, null, null));
+        requests.add(null);
+
+        List<TaskBulkResult> results = taskBulkService.updateTasks(requests);
+
+        assertThat(results).extracting(TaskBulkResult::getStatus).containsExactly(200, 404, 400, 400);
+        assertThat(results.get(0).getTask().getTitle()).isEqualTo("New Title");
+        assertThat(results.get(0).getTask().getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(results.get(2).getFieldErrors()).containsKey("id");
+        assertThat(existing.getTitle()).isEqualTo("New Title");
+        verify(taskStore).updateAll(eq(Set.of(1L, 2L)), any());
+        verify(eventPublisher).publishEvent(TaskChangeEvent.updated(
+                new TaskSnapshot(TaskStatus.TODO, null, 0L), results.get(0).getTask()));
+    }
+
+    @Test
+    void updateTasks_WhenIdRepeated_ShouldApplyItemsInOrderAndPublishOneEvent() {
+        Task existing = new Task();
+        existing.setId(1L);
+        existing.setTitle("Old Title");
+        existing.setStatus(TaskStatus.TODO);
+        storeHolds(existing);
+
+        List<TaskBulkResult> results = taskBulkService.updateTasks(List.of(
+                new TaskBulkUpdateRequest(1L, "First", null, TaskStatus.IN_PROGRESS, null),
+                new TaskBulkUpdateRequest(1L, "Second", null, null, null)));
+
+        assertThat(results).extracting(TaskBulkResult::getStatus).containsExactly(200, 200);
+        assertThat(results.get(0).getTask().getTitle()).isEqualTo("Second");
+        assertThat(results.get(0).getTask().getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangeEvent.class));
+    }
+
+    // Stands in for the store's updateAll over a single task
+    private void storeHolds(Task existing) {
+        when(taskStore.updateAll(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            if (!ids.contains(existing.getId())) {
+                return Map.of();
+            }
+            TaskSnapshot previous = TaskSnapshot.of(existing);
+            invocation.<Consumer<Task>>getArgument(1).accept(existing);
+            return Map.of(existing.getId(), new TaskStore.Change(previous, TaskResponse.of(existing)));
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(1), meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LocalDateTime testDateTime = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void get_ShouldLoadOnceAndRecordHitsAndMisses() {
+        taskCache.get(1L, this::load);
+        taskCache.get(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingTasks() {
+        taskCache.get(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(taskCache.get(2L, this::load)).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void onTaskChange_ShouldEvictChangedTasks() {
+        TaskSnapshot previous = new TaskSnapshot(TaskStatus.TODO, null, 0L);
+        for (TaskChangeEvent event : new TaskChangeEvent[] {
+            TaskChangeEvent.updated(previous, response(1L)),
+            TaskChangeEvent.statusChanged(previous, response(1L)),
+            TaskChangeEvent.deleted(1L, previous)
+        }) {
+            taskCache.get(1L, this::load);
+            taskCache.onTaskChange(event);
+            assertThat(taskCache.size()).isZero();
+        }
+        assertThat(loads).hasValue(3);
+    }
+
+    private Optional<TaskResponse> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(response(id));
+    }
+
+    private TaskResponse response(Long id) {
+        return new TaskResponse(id, "Task", null, TaskStatus.TODO, null, testDateTime, testDateTime, 0L);
+    }
+}
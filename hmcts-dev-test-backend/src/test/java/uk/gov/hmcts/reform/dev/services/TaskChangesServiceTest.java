@@ -0,0 +1,118 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import uk.gov.hmcts.reform.dev.dto.TaskChanges;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.exceptions.WatermarkExpiredException;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+import uk.gov.hmcts.reform.dev.repositories.TaskTombstoneRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangesServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0, 0);
+    private static final LocalDateTime UP_TO = NOW.minusSeconds(2);
+
+    @Mock
+    private TaskStore taskStore;
+
+    @Mock
+    private TaskTombstoneRepository tombstoneRepository;
+
+    private TaskChangesService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        service = new TaskChangesService(taskStore, tombstoneRepository, Duration.ofSeconds(2),
+                Duration.ofDays(30), 1, 1, clock);
+    }
+
+    @Test
+    void constructor_WhenWritesCanOutlastTheSettleWindow_ShouldThrow() {
+        assertThatThrownBy(() -> new TaskChangesService(taskStore, tombstoneRepository, Duration.ofSeconds(2),
+                Duration.ofDays(30), 2, 1, Clock.systemDefaultZone()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tasks.changes.write-timeout");
+    }
+
+    @Test
+    void constructor_WhenBulkWritesCanOutlastTheSettleWindow_ShouldThrow() {
+        assertThatThrownBy(() -> new TaskChangesService(taskStore, tombstoneRepository, Duration.ofSeconds(2),
+                Duration.ofDays(30), 1, 2, Clock.systemDefaultZone()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tasks.changes.bulk-write-timeout");
+    }
+
+    @Test
+    void getChanges_FirstSync_ShouldStartFromTheBeginningWithoutTombstones() {
+        when(taskStore.findResponsesChangedAfter(TaskChangesService.BEGINNING, Long.MAX_VALUE, UP_TO,
+                Limit.of(11))).thenReturn(List.of(task(1L, NOW.minusDays(1))));
+
+        TaskChanges changes = service.getChanges(null, 10);
+
+        assertThat(changes.getChanged()).extracting(TaskResponse::getId).containsExactly(1L);
+        assertThat(changes.getDeleted()).isEmpty();
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(TaskCursor.decode(changes.getWatermark())).isEqualTo(new TaskCursor(UP_TO, Long.MAX_VALUE));
+        verify(tombstoneRepository, never()).findTaskIdsDeletedBetween(any(), any());
+    }
+
+    @Test
+    void getChanges_WhenMoreThanLimit_ShouldStopAtLastTaskReturned() {
+        LocalDateTime since = NOW.minusHours(1);
+        LocalDateTime touched = NOW.minusMinutes(30);
+        when(taskStore.findResponsesChangedAfter(since, Long.MAX_VALUE, UP_TO, Limit.of(3)))
+                .thenReturn(List.of(task(4L, touched), task(7L, touched), task(9L, touched)));
+        when(tombstoneRepository.findTaskIdsDeletedBetween(since, touched)).thenReturn(List.of(5L));
+
+        TaskChanges changes = service.getChanges(new TaskCursor(since, Long.MAX_VALUE).encode(), 2);
+
+        assertThat(changes.getChanged()).extracting(TaskResponse::getId).containsExactly(4L, 7L);
+        assertThat(changes.getDeleted()).containsExactly(5L);
+        assertThat(changes.isHasMore()).isTrue();
+        assertThat(TaskCursor.decode(changes.getWatermark())).isEqualTo(new TaskCursor(touched, 7L));
+    }
+
+    @Test
+    void getChanges_WhenWatermarkInsideSettleWindow_ShouldReturnNothingAndKeepIt() {
+        String watermark = new TaskCursor(NOW.minusSeconds(1), Long.MAX_VALUE).encode();
+
+        TaskChanges changes = service.getChanges(watermark, 10);
+
+        assertThat(changes.getChanged()).isEmpty();
+        assertThat(changes.getWatermark()).isEqualTo(watermark);
+        verifyNoInteractions(taskStore);
+    }
+
+    @Test
+    void getChanges_WhenWatermarkOlderThanTombstones_ShouldThrow() {
+        String watermark = new TaskCursor(NOW.minusDays(31), Long.MAX_VALUE).encode();
+
+        assertThatThrownBy(() -> service.getChanges(watermark, 10)).isInstanceOf(WatermarkExpiredException.class);
+    }
+
+    private static TaskResponse task(Long id, LocalDateTime updatedAt) {
+        return new TaskResponse(id, "Task " + id, null, TaskStatus.TODO, null, updatedAt, updatedAt, 0L);
+    }
+}
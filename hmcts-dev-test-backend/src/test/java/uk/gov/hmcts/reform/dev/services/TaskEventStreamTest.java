@@ -0,0 +1,204 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskEventStreamTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskEventStream stream = new TaskEventStream(new ObjectMapper().findAndRegisterModules(), 2,
+            Duration.ofMinutes(1), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        stream.destroy();
+    }
+
+    @Test
+    void onTaskChange_ShouldOnlySendChangesIntoOrOutOfFilteredStatuses() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(emitter, Set.of(TaskStatus.COMPLETED), null);
+
+        stream.onTaskChange(TaskChangeEvent.statusChanged(snapshot(TaskStatus.TODO),
+                task(1L, TaskStatus.IN_PROGRESS)));
+        stream.onTaskChange(TaskChangeEvent.statusChanged(snapshot(TaskStatus.IN_PROGRESS),
+                task(2L, TaskStatus.COMPLETED)));
+        stream.onTaskChange(TaskChangeEvent.deleted(3L, snapshot(TaskStatus.COMPLETED)));
+
+        assertThat(emitter.next()).contains("event:status_changed", "\"taskId\":2");
+        assertThat(emitter.next()).contains("event:deleted", "\"taskId\":3");
+        assertThat(emitter.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void onTaskChange_WhenSubscriberFallsBehind_ShouldReplaceBacklogWithResync() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(stalled);
+        stream.subscribe(emitter, null, null);
+
+        for (long id = 1; id <= 6; id++) {
+            stream.onTaskChange(TaskChangeEvent.statusChanged(snapshot(TaskStatus.TODO),
+                    task(id, TaskStatus.COMPLETED)));
+        }
+        stalled.countDown();
+
+        List<String> received = new ArrayList<>();
+        String frame;
+        while ((frame = emitter.frames.poll(500, TimeUnit.MILLISECONDS)) != null) {
+            received.add(frame);
+        }
+        assertThat(received).hasSizeLessThan(6).anyMatch(each -> each.contains("event:" + TaskEventStream.RESYNC));
+        assertThat(meterRegistry.get("tasks.events.resyncs").counter().count()).isPositive();
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayWhatWasMissed() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(first, null, null);
+        stream.onTaskChange(TaskChangeEvent.deleted(1L, snapshot(TaskStatus.TODO)));
+        String lastSeen = idOf(first.next());
+        stream.onTaskChange(TaskChangeEvent.deleted(2L, snapshot(TaskStatus.TODO)));
+
+        RecordingEmitter reconnected = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(reconnected, null, lastSeen);
+
+        assertThat(reconnected.next()).contains("event:deleted", "\"taskId\":2");
+        assertThat(reconnected.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void subscribe_WithLatestEventId_ShouldSendNothing() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(first, null, null);
+        stream.onTaskChange(TaskChangeEvent.deleted(1L, snapshot(TaskStatus.TODO)));
+
+        RecordingEmitter reconnected = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(reconnected, null, idOf(first.next()));
+
+        assertThat(reconnected.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void subscribe_WhenLastEventIdIsNoLongerKept_ShouldResync() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(first, null, null);
+        stream.onTaskChange(TaskChangeEvent.deleted(1L, snapshot(TaskStatus.TODO)));
+        String oldest = idOf(first.next());
+        for (long id = 2; id <= 4; id++) {
+            stream.onTaskChange(TaskChangeEvent.deleted(id, snapshot(TaskStatus.TODO)));
+        }
+
+        RecordingEmitter reconnected = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(reconnected, null, oldest);
+
+        assertThat(reconnected.next()).contains("event:" + TaskEventStream.RESYNC);
+        assertThat(reconnected.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void subscribe_WithIdFromAnotherInstance_ShouldResync() throws Exception {
+        RecordingEmitter reconnected = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(reconnected, null, "42");
+
+        assertThat(reconnected.next()).contains("event:" + TaskEventStream.RESYNC);
+    }
+
+    @Test
+    void sendHeartbeats_ShouldReachEverySubscriber() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(emitter, Set.of(TaskStatus.TODO), null);
+
+        stream.sendHeartbeats();
+
+        assertThat(emitter.next()).startsWith(":heartbeat");
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribe_WhenTheStreamTimesOut_ShouldDropTheSubscriberAndCompleteTheEmitter() {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        stream.subscribe(emitter, null, null);
+
+        emitter.timeout.run();
+
+        assertThat(stream.subscriberCount()).isZero();
+        assertThat(emitter.completed).isTrue();
+    }
+
+    private static String idOf(String frame) {
+        Matcher id = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE).matcher(frame);
+        assertThat(id.find()).isTrue();
+        return id.group(1);
+    }
+
+    private static TaskResponse task(long id, TaskStatus status) {
+        return new TaskResponse(id, "Task " + id, null, status, null, null, null, 1L);
+    }
+
+    private static TaskSnapshot snapshot(TaskStatus status) {
+        return new TaskSnapshot(status, null, 0L);
+    }
+
+    // Records each frame as text, and holds the first write until released to play a slow client
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private Runnable timeout;
+        private boolean completed;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        // Kept so a test can play the servlet container timing the request out
+        @Override
+        public void onTimeout(Runnable callback) {
+            timeout = callback;
+            super.onTimeout(callback);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        String next() throws InterruptedException {
+            String frame = frames.poll(1, TimeUnit.SECONDS);
+            assertThat(frame).isNotNull();
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    private TaskExportService taskExportService;
+
+    private final LocalDateTime testDateTime = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        taskExportService = new TaskExportService(taskStore, objectMapper);
+    }
+
+    @Test
+    void exportTasks_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        when(taskStore.streamAllResponses()).thenReturn(Stream.of(task(1L, "First"), task(2L, "Second")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.exportTasks(out);
+
+        String line = "{\"id\":%d,\"title\":\"%s\",\"description\":null,\"status\":\"TODO\","
+                + "\"dueDate\":\"2024-01-01T12:00:00\",\"createdAt\":\"2024-01-01T12:00:00\","
+                + "\"updatedAt\":\"2024-01-01T12:00:00\",\"version\":null}\n";
+        assertThat(out.toByteArray()).isEqualTo((line.formatted(1, "First") + line.formatted(2, "Second"))
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportTasks_ShouldCloseTheStreamOnceWritten() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskStore.streamAllResponses()).thenReturn(Stream.of(task(1L, "First")).onClose(() -> closed.set(true)));
+
+        taskExportService.exportTasks(new ByteArrayOutputStream());
+
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void exportTasks_WhenNoTasks_ShouldWriteNothing() throws Exception {
+        when(taskStore.streamAllResponses()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.exportTasks(out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    private TaskResponse task(Long id, String title) {
+        return new TaskResponse(id, title, null, TaskStatus.TODO, testDateTime, testDateTime, testDateTime, null);
+    }
+}
@@ -0,0 +1,184 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.hmcts.reform.dev.dto.TaskLog;
+import uk.gov.hmcts.reform.dev.dto.TaskLogEntry;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.models.TaskEvent;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskEventRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskOutboxServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0, 0);
+
+    @Mock
+    private TaskEventRepository eventRepository;
+
+    private TaskOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        service = new TaskOutboxService(eventRepository, Duration.ofSeconds(2), Duration.ofDays(7),
+                Duration.ofDays(30), 1, 1, clock);
+        // Stands in for the writer's transaction
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void onTaskChange_ShouldRecordTheFullTaskTheEventCarries() {
+        savingAs(12L);
+
+        service.onTaskChange(TaskChangeEvent.statusChanged(new TaskSnapshot(TaskStatus.TODO, null, 1L),
+                task(5L, TaskStatus.COMPLETED)));
+
+        ArgumentCaptor<TaskEvent> saved = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(eventRepository).save(saved.capture());
+        assertThat(saved.getValue().getType()).isEqualTo("status_changed");
+        assertThat(saved.getValue().getTitle()).isEqualTo("Task 5");
+        assertThat(saved.getValue().getVersion()).isEqualTo(2L);
+        assertThat(saved.getValue().getRecordedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    void read_ShouldStopBelowAnOffsetWhoseTransactionIsStillOpen() {
+        savingAs(12L);
+        service.onTaskChange(TaskChangeEvent.created(task(5L, TaskStatus.TODO)));
+
+        service.read(10L, 100);
+        verify(eventRepository).findAfter(10L, 12L, Limit.of(101));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        service.read(10L, 100);
+        verify(eventRepository).findAfter(10L, Long.MAX_VALUE, Limit.of(101));
+    }
+
+    @Test
+    void constructor_WhenWritesCanOutlastTheSettleWindow_ShouldThrow() {
+        assertThatThrownBy(() -> new TaskOutboxService(eventRepository, Duration.ofSeconds(1), Duration.ofDays(7),
+                Duration.ofDays(30), 1, 1, Clock.systemDefaultZone()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructor_WhenBulkWritesCanOutlastTheSettleWindow_ShouldThrow() {
+        assertThatThrownBy(() -> new TaskOutboxService(eventRepository, Duration.ofSeconds(2), Duration.ofDays(7),
+                Duration.ofDays(30), 1, 2, Clock.systemDefaultZone()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tasks.changes.bulk-write-timeout");
+    }
+
+    @Test
+    void read_WhenMoreThanLimit_ShouldStopAtLastEventReturned() {
+        when(eventRepository.findAfter(10L, Long.MAX_VALUE, Limit.of(3))).thenReturn(List.of(
+                event(11L, TaskChangeEvent.created(task(1L, TaskStatus.TODO))),
+                event(14L, TaskChangeEvent.deleted(2L, new TaskSnapshot(TaskStatus.TODO, null, 0L))),
+                event(15L, TaskChangeEvent.created(task(3L, TaskStatus.TODO)))));
+
+        TaskLog log = service.read(10L, 2);
+
+        assertThat(log.getEvents()).extracting(TaskLogEntry::getOffset).containsExactly(11L, 14L);
+        assertThat(log.getEvents().get(0).getTask().getTitle()).isEqualTo("Task 1");
+        assertThat(log.getEvents().get(1).getType()).isEqualTo("deleted");
+        assertThat(log.getEvents().get(1).getTask()).isNull();
+        assertThat(log.getNextOffset()).isEqualTo(14L);
+        assertThat(log.isHasMore()).isTrue();
+    }
+
+    @Test
+    void read_WhenNothingNew_ShouldKeepTheOffset() {
+        when(eventRepository.findAfter(42L, Long.MAX_VALUE, Limit.of(5001))).thenReturn(List.of());
+
+        TaskLog log = service.read(42L, 5000);
+
+        assertThat(log.getEvents()).isEmpty();
+        assertThat(log.getNextOffset()).isEqualTo(42L);
+        assertThat(log.isHasMore()).isFalse();
+    }
+
+    @Test
+    void read_WhenAnOffsetIsRecordedLaterThanTheNextOne_ShouldStopBeforeItRatherThanSkipIt() {
+        // 11 took its timestamp first but its offset second, or came from an instance whose clock is ahead
+        TaskEvent settled = event(10L, TaskChangeEvent.created(task(1L, TaskStatus.TODO)));
+        TaskEvent settling = event(11L, TaskChangeEvent.created(task(2L, TaskStatus.TODO)));
+        settling.setRecordedAt(NOW.minusSeconds(1));
+        TaskEvent older = event(12L, TaskChangeEvent.created(task(3L, TaskStatus.TODO)));
+        when(eventRepository.findAfter(9L, Long.MAX_VALUE, Limit.of(101)))
+                .thenReturn(List.of(settled, settling, older));
+
+        TaskLog log = service.read(9L, 100);
+
+        assertThat(log.getEvents()).extracting(TaskLogEntry::getOffset).containsExactly(10L);
+        assertThat(log.getNextOffset()).isEqualTo(10L);
+        assertThat(log.isHasMore()).isFalse();
+    }
+
+    @Test
+    void read_WhenTheFirstEventIsStillSettling_ShouldKeepTheOffset() {
+        TaskEvent settling = event(43L, TaskChangeEvent.created(task(1L, TaskStatus.TODO)));
+        settling.setRecordedAt(NOW);
+        when(eventRepository.findAfter(42L, Long.MAX_VALUE, Limit.of(101))).thenReturn(List.of(settling));
+
+        TaskLog log = service.read(42L, 100);
+
+        assertThat(log.getEvents()).isEmpty();
+        assertThat(log.getNextOffset()).isEqualTo(42L);
+    }
+
+    @Test
+    void compact_ShouldUseEachRetentionWindow() {
+        service.compact();
+
+        verify(eventRepository).deleteSupersededBefore(NOW.minusDays(7));
+        verify(eventRepository).deleteDeletionsBefore(NOW.minusDays(30));
+    }
+
+    // The sequence hands out the offset on persist
+    private void savingAs(long offset) {
+        when(eventRepository.save(any(TaskEvent.class))).thenAnswer(invocation -> {
+            TaskEvent event = invocation.getArgument(0);
+            event.setId(offset);
+            return event;
+        });
+    }
+
+    private static TaskEvent event(long offset, TaskChangeEvent change) {
+        TaskEvent event = TaskOutboxService.toEvent(change, change.task(), NOW.minusMinutes(1));
+        event.setId(offset);
+        return event;
+    }
+
+    private static TaskResponse task(Long id, TaskStatus status) {
+        return new TaskResponse(id, "Task " + id, null, status, null, NOW, NOW, 2L);
+    }
+}
@@ -0,0 +1,130 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+
+    @Test
+    void tokenize_ShouldLowercaseAndSplitOnPunctuation() {
+        assertThat(TaskSearchIndex.tokenize("Review case-bundle, A.S.A.P!"))
+                .containsExactly("review", "case", "bundle");
+    }
+
+    @Test
+    void search_ShouldRequireEveryTermAndTreatLastAsPrefix() {
+        index.index(1L, "Review case bundle", null);
+        index.index(2L, "Review hearing notes", "case notes");
+        index.index(3L, "Case bundle", "Needs a review");
+
+        assertThat(index.search("review case bun", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("hear", 10)).containsExactly(2L);
+        assertThat(index.search("review h", 10)).containsExactly(2L);
+        assertThat(index.search("missing case", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        index.index(1L, "Call the court", "hearing listed");
+        index.index(2L, "Hearing prep", null);
+        index.index(3L, "Hearing hearing", null);
+
+        assertThat(index.search("hearing", 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void search_ShouldSumFrequenciesAcrossPrefixExpansions() {
+        index.index(1L, "Case", null);
+        index.index(2L, "Cases", "case");
+        index.index(3L, "Casework", null);
+
+        assertThat(index.search("cas", 10)).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void search_ShouldKeepOnlyTheTopResults() {
+        for (long id = 1; id <= 50; id++) {
+            index.index(id, "Task", id % 10 == 0 ? "task" : null);
+        }
+
+        assertThat(index.search("task", 3)).containsExactly(50L, 40L, 30L);
+    }
+
+    @Test
+    void index_ShouldReplacePreviousTermsWhenTaskIsReindexed() {
+        index.index(1L, "Old title", null);
+        index.index(1L, "New title", null);
+
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(index.search("new", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void index_ShouldHandleOutOfOrderIds() {
+        index.index(5L, "Draft order", null);
+        index.index(2L, "Draft order", null);
+        index.index(9L, "Draft order", null);
+
+        assertThat(index.search("draft order", 10)).containsExactly(9L, 5L, 2L);
+    }
+
+    @Test
+    void remove_ShouldDropTaskFromResults() {
+        index.index(1L, "File evidence", null);
+        index.index(2L, "File evidence", null);
+
+        index.remove(1L);
+
+        assertThat(index.search("evidence", 10)).containsExactly(2L);
+        index.remove(2L);
+        assertThat(index.search("evid", 10)).isEmpty();
+    }
+
+    @Test
+    void index_WhenManyOlderTasksPickUpATermAndDropIt_ShouldKeepResultsExact() {
+        for (long id = 1; id <= 1000; id++) {
+            index.index(id, "Review", null);
+        }
+        // Older ids joining a long list go to its late run, which gets merged as it grows
+        for (long id = 999; id >= 1; id -= 2) {
+            index.index(id, "Review urgent", null);
+        }
+        // Dropping the term again leaves dead slots, compacted once they're the majority
+        for (long id = 1; id <= 900; id += 2) {
+            index.index(id, "Review", null);
+        }
+
+        long[] stillUrgent = LongStream.iterate(999, id -> id > 900, id -> id - 2).toArray();
+        assertThat(index.search("urgent", 1000)).containsExactly(stillUrgent);
+        assertThat(index.search("review urg", 10)).startsWith(999L, 997L);
+        assertThat(index.search("review", 2000)).hasSize(1000);
+    }
+
+    @Test
+    void rebuild_ShouldKeepWritesMadeWhileItLoads() {
+        index.index(1L, "Old title", null);
+
+        index.rebuild(loader -> {
+            // The load reads rows as they were - these two change underneath it before it finishes
+            loader.index(1L, "Stale title", null);
+            loader.index(2L, "Deleted task", null);
+            loader.index(3L, "Untouched task", null);
+            index.index(1L, "Fresh title", null);
+            index.remove(2L);
+            // Searches still see the old index until the swap
+            assertThat(index.search("untouched", 10)).isEmpty();
+        });
+
+        assertThat(index.search("stale", 10)).isEmpty();
+        assertThat(index.search("fresh", 10)).containsExactly(1L);
+        assertThat(index.search("deleted", 10)).isEmpty();
+        assertThat(index.search("untouched", 10)).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -1,25 +1,51 @@
 package uk.gov.hmcts.reform.dev.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import uk.gov.hmcts.reform.dev.dto.TaskCreateRequest;
+import uk.gov.hmcts.reform.dev.dto.TaskFilter;
+import uk.gov.hmcts.reform.dev.dto.TaskPage;
 import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.dto.TaskSort;
 import uk.gov.hmcts.reform.dev.dto.TaskUpdateRequest;
+import uk.gov.hmcts.reform.dev.exceptions.InvalidCursorException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskPreconditionFailedException;
+import uk.gov.hmcts.reform.dev.exceptions.TaskVersionConflictException;
 import uk.gov.hmcts.reform.dev.models.Task;
 import uk.gov.hmcts.reform.dev.models.TaskStatus;
-import uk.gov.hmcts.reform.dev.repositories.TaskRepository;
+import uk.gov.hmcts.reform.dev.models.TaskTombstone;
+import uk.gov.hmcts.reform.dev.repositories.TaskArchiveRepository;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+import uk.gov.hmcts.reform.dev.repositories.TaskTombstoneRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,7 +53,24 @@ import static org.mockito.Mockito.when;
 class TaskServiceTest {
 
     @Mock
-    private TaskRepository taskRepository;
+    private TaskStore taskStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private TaskArchiveRepository archiveRepository;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+    @Spy
+    private TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
 
     @InjectMocks
     private TaskService taskService;
@@ -48,19 +91,173 @@ class TaskServiceTest {
     }
 
     @Test
-    void getAllTasks_ShouldReturnAllTasks() {
-        when(taskRepository.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(testTask));
+    void getTasks_WithoutCursor_ShouldReturnFirstPage() {
+        TaskFilter filter = new TaskFilter();
+        when(taskStore.findResponses(filter, null, null, 51)).thenReturn(List.of(testResponse()));
+
+        TaskPage result = taskService.getTasks(filter, null, 50);
+
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getTitle()).isEqualTo("Test Task");
+        assertThat(result.getItems().get(0).getId()).isEqualTo(1L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTasks_WithoutLimitOrCursor_ShouldReturnTheFirstPageOfTheDefaultSize() {
+        TaskFilter filter = new TaskFilter();
+        when(taskStore.findResponses(filter, null, null, TaskService.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(testResponse()));
+
+        TaskPage result = taskService.getTasks(filter, null, null);
+
+        assertThat(result.getItems()).extracting(TaskResponse::getId).containsExactly(1L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTasks_WithCursorButNoLimit_ShouldUseTheDefaultPageSize() {
+        TaskFilter filter = new TaskFilter();
+        String cursor = new TaskCursor(testDateTime, 9L).encode(filter);
+        when(taskStore.findResponses(filter, testDateTime, 9L, TaskService.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of());
+
+        assertThat(taskService.getTasks(filter, cursor, null).getItems()).isEmpty();
+    }
+
+    @Test
+    void getTasks_WhenMoreRowsThanLimit_ShouldReturnCursorForLastItem() {
+        TaskFilter filter = new TaskFilter();
+        TaskResponse older = new TaskResponse(2L, "Older Task", null, TaskStatus.TODO, null,
+                testDateTime.minusDays(1), testDateTime.minusDays(1), 0L);
+        when(taskStore.findResponses(filter, null, null, 2)).thenReturn(List.of(testResponse(), older));
+
+        TaskPage result = taskService.getTasks(filter, null, 1);
+
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(TaskCursor.decode(result.getNextCursor(), filter))
+                .isEqualTo(new TaskCursor(testDateTime, 1L));
+    }
+
+    @Test
+    void getTasks_WhenSortedByDueDate_ShouldBuildCursorFromDueDate() {
+        TaskFilter filter = new TaskFilter();
+        filter.setSort(TaskSort.DUE_DATE);
+        testTask.setDueDate(testDateTime.plusWeeks(1));
+        TaskResponse undated = new TaskResponse(2L, "Undated Task", null, TaskStatus.TODO, null,
+                testDateTime, testDateTime, 0L);
+        when(taskStore.findResponses(filter, null, null, 2)).thenReturn(List.of(testResponse(), undated));
+
+        TaskPage result = taskService.getTasks(filter, null, 1);
+
+        assertThat(TaskCursor.decode(result.getNextCursor(), filter))
+                .isEqualTo(new TaskCursor(testDateTime.plusWeeks(1), 1L));
+    }
+
+    @Test
+    void getTasks_WithCursor_ShouldSeekPastCursor() {
+        TaskFilter filter = new TaskFilter();
+        String cursor = new TaskCursor(testDateTime.plusDays(1), 9L).encode(filter);
+        when(taskStore.findResponses(filter, testDateTime.plusDays(1), 9L, 11))
+                .thenReturn(List.of(testResponse()));
+
+        TaskPage result = taskService.getTasks(filter, cursor, 10);
+
+        assertThat(result.getItems()).extracting(TaskResponse::getId).containsExactly(1L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTasks_WithCursorInNullTail_ShouldSeekWithNullKey() {
+        TaskFilter filter = new TaskFilter();
+        filter.setSort(TaskSort.DUE_DATE);
+        String cursor = new TaskCursor(null, 9L).encode(filter);
+        when(taskStore.findResponses(filter, null, 9L, 11)).thenReturn(List.of());
+
+        TaskPage result = taskService.getTasks(filter, cursor, 10);
+
+        assertThat(result.getItems()).isEmpty();
+    }
+
+    @Test
+    void getTasks_ShouldClampLimitToMaximumPageSize() {
+        TaskFilter filter = new TaskFilter();
+        when(taskStore.findResponses(filter, null, null, TaskService.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of());
+
+        TaskPage result = taskService.getTasks(filter, null, 100_000);
+
+        assertThat(result.getItems()).isEmpty();
+    }
+
+    @Test
+    void getTasks_WithoutIncludeArchived_ShouldNotReadTheArchive() {
+        TaskFilter filter = new TaskFilter();
+        when(taskStore.findResponses(filter, null, null, 11)).thenReturn(List.of(testResponse()));
+
+        taskService.getTasks(filter, null, 10);
+
+        verify(archiveRepository, never()).findResponses(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getTasks_WithIncludeArchived_ShouldMergeBothTablesInListOrder() {
+        TaskFilter filter = new TaskFilter();
+        filter.setIncludeArchived(true);
+        TaskResponse live = new TaskResponse(5L, "Live", null, TaskStatus.TODO, null,
+                testDateTime, testDateTime, 0L);
+        TaskResponse archivedNewer = new TaskResponse(3L, "Archived", null, TaskStatus.COMPLETED, null,
+                testDateTime.plusDays(1), testDateTime.plusDays(1), 2L);
+        TaskResponse archivedOlder = new TaskResponse(1L, "Archived", null, TaskStatus.COMPLETED, null,
+                testDateTime.minusDays(1), testDateTime.minusDays(1), 2L);
+        when(taskStore.findResponses(filter, null, null, 3)).thenReturn(List.of(live));
+        when(archiveRepository.findResponses(filter, null, null, 3)).thenReturn(List.of(archivedNewer, archivedOlder));
+
+        TaskPage result = taskService.getTasks(filter, null, 2);
+
+        assertThat(result.getItems()).extracting(TaskResponse::getId).containsExactly(3L, 5L);
+        assertThat(TaskCursor.decode(result.getNextCursor(), filter))
+                .isEqualTo(new TaskCursor(testDateTime, 5L));
+    }
 
-        List<TaskResponse> result = taskService.getAllTasks();
+    @Test
+    void getTasks_WhenATaskIsArchivedBetweenTheTwoReads_ShouldListItOnce() {
+        TaskFilter filter = new TaskFilter();
+        filter.setIncludeArchived(true);
+        when(taskStore.findResponses(filter, null, null, 11)).thenReturn(List.of(testResponse()));
+        when(archiveRepository.findResponses(filter, null, null, 11)).thenReturn(List.of(testResponse()));
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Test Task");
-        assertThat(result.get(0).getId()).isEqualTo(1L);
+        TaskPage result = taskService.getTasks(filter, null, 10);
+
+        assertThat(result.getItems()).extracting(TaskResponse::getId).containsExactly(1L);
+    }
+
+    @Test
+    void getTasks_WithMalformedCursor_ShouldThrow() {
+        assertThatThrownBy(() -> taskService.getTasks(new TaskFilter(), "not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void getTasks_WithCursorFromAnotherSortOrDirection_ShouldThrowWithoutQuerying() {
+        TaskFilter createdDesc = new TaskFilter();
+        String cursor = new TaskCursor(testDateTime, 9L).encode(createdDesc);
+        TaskFilter dueDate = new TaskFilter();
+        dueDate.setSort(TaskSort.DUE_DATE);
+        TaskFilter createdAsc = new TaskFilter();
+        createdAsc.setDirection(Sort.Direction.ASC);
+
+        assertThatThrownBy(() -> taskService.getTasks(dueDate, cursor, 10))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("different sort or direction");
+        assertThatThrownBy(() -> taskService.getTasks(createdAsc, cursor, 10))
+                .isInstanceOf(InvalidCursorException.class);
+        verify(taskStore, never()).findResponses(any(), any(), any(), anyInt());
     }
 
     @Test
     void getTaskById_WhenTaskExists_ShouldReturnTask() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskStore.findResponseById(1L)).thenReturn(Optional.of(testResponse()));
 
         Optional<TaskResponse> result = taskService.getTaskById(1L);
 
@@ -69,9 +266,30 @@ class TaskServiceTest {
         assertThat(result.get().getId()).isEqualTo(1L);
     }
 
+    @Test
+    void getTaskById_WhenReadTwice_ShouldOnlyQueryOnce() {
+        when(taskStore.findResponseById(1L)).thenReturn(Optional.of(testResponse()));
+
+        taskService.getTaskById(1L);
+        Optional<TaskResponse> result = taskService.getTaskById(1L);
+
+        assertThat(result).isPresent();
+        verify(taskStore, times(1)).findResponseById(1L);
+    }
+
+    @Test
+    void getTaskById_WhenNotCached_ShouldLoadInAReadWriteTransaction() {
+        when(taskStore.findResponseById(1L)).thenReturn(Optional.of(testResponse()));
+
+        taskService.getTaskById(1L);
+
+        // Read-write is what sends it to the primary when there are replicas
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
     @Test
     void getTaskById_WhenTaskNotExists_ShouldReturnEmpty() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskStore.findResponseById(1L)).thenReturn(Optional.empty());
 
         Optional<TaskResponse> result = taskService.getTaskById(1L);
 
@@ -83,12 +301,13 @@ class TaskServiceTest {
         TaskCreateRequest request = new TaskCreateRequest("New Task", "Description", 
                 TaskStatus.TODO, testDateTime);
         
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        when(taskStore.insert(any(Task.class))).thenReturn(testResponse());
 
         TaskResponse result = taskService.createTask(request);
 
         assertThat(result.getTitle()).isEqualTo("Test Task");
-        verify(taskRepository).save(any(Task.class));
+        verify(taskStore).insert(any(Task.class));
+        verify(eventPublisher).publishEvent(TaskChangeEvent.created(result));
     }
 
     @Test
@@ -96,13 +315,27 @@ class TaskServiceTest {
         TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", "Updated Description", 
                 TaskStatus.IN_PROGRESS, testDateTime.plusDays(1));
         
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+        storeUpdatesTestTask();
 
         Optional<TaskResponse> result = taskService.updateTask(1L, request);
 
-        assertThat(result).isPresent();
-        verify(taskRepository).save(testTask);
+        assertThat(result).get().satisfies(task -> {
+            assertThat(task.getTitle()).isEqualTo("Updated Task");
+            assertThat(task.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        });
+        assertThat(publishedEvent().previous().status()).isEqualTo(TaskStatus.TODO);
+    }
+
+    @Test
+    void updateTask_WhenExpectedVersionIsStale_ShouldThrowConflictWithoutSaving() {
+        testTask.setVersion(2L);
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", null, TaskStatus.IN_PROGRESS, null);
+        storeUpdatesTestTask();
+
+        assertThatThrownBy(() -> taskService.updateTask(1L, request, 1L))
+                .isInstanceOf(TaskVersionConflictException.class);
+        assertThat(testTask.getTitle()).isEqualTo("Test Task");
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -110,52 +343,200 @@ class TaskServiceTest {
         TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", "Updated Description", 
                 TaskStatus.IN_PROGRESS, testDateTime);
         
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskStore.update(eq(1L), any())).thenReturn(Optional.empty());
 
         Optional<TaskResponse> result = taskService.updateTask(1L, request);
 
         assertThat(result).isEmpty();
-        verify(taskRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    void updateTaskStatus_WhenTaskExists_ShouldUpdateStatusAndReturnTask() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+    void updateTask_WithAnyVersion_WhenTaskNotExists_ShouldThrowPreconditionFailed() {
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", null, TaskStatus.IN_PROGRESS, null);
+        when(taskStore.update(eq(1L), any())).thenReturn(Optional.empty());
 
-        Optional<TaskResponse> result = taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
+        assertThatThrownBy(() -> taskService.updateTask(1L, request, TaskService.ANY_VERSION))
+                .isInstanceOf(TaskPreconditionFailedException.class);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        assertThat(result).isPresent();
-        verify(taskRepository).save(testTask);
+    @Test
+    void updateTask_WithAnyVersion_ShouldUpdateWhateverVersionTheTaskIsAt() {
+        TaskUpdateRequest request = new TaskUpdateRequest("Updated Task", null, TaskStatus.IN_PROGRESS, null);
+        when(taskStore.update(eq(1L), any())).thenAnswer(invocation -> {
+            TaskSnapshot previous = TaskSnapshot.of(testTask);
+            invocation.<Consumer<Task>>getArgument(1).accept(testTask);
+            return Optional.of(new TaskStore.Change(previous, TaskResponse.of(testTask)));
+        });
+
+        assertThat(taskService.updateTask(1L, request, TaskService.ANY_VERSION)).get()
+                .extracting(TaskResponse::getTitle).isEqualTo("Updated Task");
+    }
+
+    @Test
+    void updateTaskStatus_WhenTaskExists_ShouldUpdateStatusAndReturnTaskWithoutReadingItBack() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), isNull()))
+                .thenReturn(Optional.of(previousRow(0L)));
+
+        Optional<TaskResponse> result = taskService.updateTaskStatus(1L, TaskStatus.COMPLETED, null);
+
+        assertThat(result).get().satisfies(task -> {
+            assertThat(task.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+            assertThat(task.getTitle()).isEqualTo("Test Task");
+            assertThat(task.getVersion()).isEqualTo(1L);
+        });
+        verify(taskStore, never()).findResponseById(any());
+        verify(taskStore, never()).update(any(), any());
     }
 
     @Test
     void updateTaskStatus_WhenTaskNotExists_ShouldReturnEmpty() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), isNull()))
+                .thenReturn(Optional.empty());
 
-        Optional<TaskResponse> result = taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
+        Optional<TaskResponse> result = taskService.updateTaskStatus(1L, TaskStatus.COMPLETED, null);
 
         assertThat(result).isEmpty();
-        verify(taskRepository, never()).save(any());
+        verify(taskStore, never()).findResponseById(any());
+    }
+
+    @Test
+    void changeTaskStatus_WithoutVersion_ShouldWriteOnceAndPublishPreviousAndNewState() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), isNull()))
+                .thenReturn(Optional.of(previousRow(4L)));
+
+        assertThat(taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, null)).isTrue();
+
+        verify(taskStore).updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), isNull());
+        verify(taskStore, never()).existsById(any());
+        TaskChangeEvent event = publishedEvent();
+        assertThat(event.type()).isEqualTo(TaskChangeEvent.Type.STATUS_CHANGED);
+        assertThat(event.previous()).isEqualTo(testSnapshot(4L));
+        assertThat(event.task().getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(event.task().getVersion()).isEqualTo(5L);
+        assertThat(event.task().getDescription()).isEqualTo("Test Description");
+    }
+
+    @Test
+    void changeTaskStatus_WhenVersionMatches_ShouldPublishPreviousState() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), eq(4L)))
+                .thenReturn(Optional.of(previousRow(4L)));
+
+        boolean result = taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, 4L);
+
+        assertThat(result).isTrue();
+        assertThat(publishedEvent().previous()).isEqualTo(testSnapshot(4L));
+    }
+
+    @Test
+    void changeTaskStatus_WhenVersionIsStale_ShouldThrowConflict() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), eq(4L)))
+                .thenReturn(Optional.empty());
+        when(taskStore.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, 4L))
+                .isInstanceOf(TaskVersionConflictException.class);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void changeTaskStatus_WhenVersionGivenButTaskNotExists_ShouldReturnFalse() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), eq(4L)))
+                .thenReturn(Optional.empty());
+        when(taskStore.existsById(1L)).thenReturn(false);
+
+        assertThat(taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, 4L)).isFalse();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void changeTaskStatus_WithAnyVersion_ShouldNotCheckTheVersionButFailIfTaskNotExists() {
+        when(taskStore.updateStatus(eq(1L), eq(TaskStatus.COMPLETED), any(LocalDateTime.class), isNull()))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> taskService.changeTaskStatus(1L, TaskStatus.COMPLETED, TaskService.ANY_VERSION))
+                .isInstanceOf(TaskPreconditionFailedException.class);
+        verify(taskStore, never()).existsById(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void claimTasks_ShouldPublishAStatusChangeFromTodoForEachClaimedTask() {
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+        TaskResponse first = new TaskResponse(3L, "First", null, TaskStatus.IN_PROGRESS, due, null, null, 2L);
+        TaskResponse second = new TaskResponse(4L, "Second", null, TaskStatus.IN_PROGRESS, null, null, null, 1L);
+        when(taskStore.claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 2)).thenReturn(List.of(first, second));
+
+        List<TaskResponse> result = taskService.claimTasks(2);
+
+        assertThat(result).containsExactly(first, second);
+        verify(eventPublisher).publishEvent(
+                TaskChangeEvent.statusChanged(new TaskSnapshot(TaskStatus.TODO, due, 1L), first));
+        verify(eventPublisher).publishEvent(
+                TaskChangeEvent.statusChanged(new TaskSnapshot(TaskStatus.TODO, null, 0L), second));
+    }
+
+    @Test
+    void claimTasks_ShouldClampLimitToMaximumClaimSize() {
+        when(taskStore.claim(eq(TaskStatus.TODO), eq(TaskStatus.IN_PROGRESS), anyInt())).thenReturn(List.of());
+
+        taskService.claimTasks(10_000);
+        taskService.claimTasks(0);
+
+        verify(taskStore).claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskService.MAX_CLAIM_SIZE);
+        verify(taskStore).claim(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 1);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void deleteTask_WhenTaskExists_ShouldReturnTrue() {
-        when(taskRepository.existsById(1L)).thenReturn(true);
+        testTask.setVersion(2L);
+        when(taskStore.delete(1L)).thenReturn(Optional.of(testSnapshot(2L)));
 
         boolean result = taskService.deleteTask(1L);
 
         assertThat(result).isTrue();
-        verify(taskRepository).deleteById(1L);
+        verify(tombstoneRepository).save(any(TaskTombstone.class));
+        verify(eventPublisher).publishEvent(TaskChangeEvent.deleted(1L, testSnapshot(2L)));
     }
 
     @Test
     void deleteTask_WhenTaskNotExists_ShouldReturnFalse() {
-        when(taskRepository.existsById(1L)).thenReturn(false);
+        when(taskStore.delete(1L)).thenReturn(Optional.empty());
 
         boolean result = taskService.deleteTask(1L);
 
         assertThat(result).isFalse();
-        verify(taskRepository, never()).deleteById(any());
+        verify(tombstoneRepository, never()).save(any());
+    }
+
+    // What the single-statement status update hands back: the row as it was
+    private TaskResponse previousRow(Long version) {
+        return new TaskResponse(1L, "Test Task", "Test Description", TaskStatus.TODO, testDateTime,
+                testDateTime, testDateTime, version);
+    }
+
+    // Stands in for the store's update: hands testTask to the change and reports what it did
+    private void storeUpdatesTestTask() {
+        when(taskStore.update(eq(1L), any())).thenAnswer(invocation -> {
+            TaskSnapshot previous = TaskSnapshot.of(testTask);
+            invocation.<Consumer<Task>>getArgument(1).accept(testTask);
+            return Optional.of(new TaskStore.Change(previous, TaskResponse.of(testTask)));
+        });
+    }
+
+    private TaskChangeEvent publishedEvent() {
+        ArgumentCaptor<TaskChangeEvent> event = ArgumentCaptor.forClass(TaskChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        return event.getValue();
+    }
+
+    private TaskSnapshot testSnapshot(Long version) {
+        return new TaskSnapshot(TaskStatus.TODO, testDateTime, version);
+    }
+
+    private TaskResponse testResponse() {
+        return TaskService.convertToResponse(testTask);
     }
-}
\ No newline at end of file
+}
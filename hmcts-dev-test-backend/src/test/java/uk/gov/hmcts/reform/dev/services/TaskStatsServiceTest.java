@@ -0,0 +1,267 @@
+package uk.gov.hmcts.reform.dev.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.dev.dto.TaskResponse;
+import uk.gov.hmcts.reform.dev.dto.TaskSnapshot;
+import uk.gov.hmcts.reform.dev.dto.TaskStats;
+import uk.gov.hmcts.reform.dev.models.TaskStatus;
+import uk.gov.hmcts.reform.dev.repositories.TaskStore;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatsServiceTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    @InjectMocks
+    private TaskStatsService taskStatsService;
+
+    private final LocalDateTime today = LocalDate.now().atTime(12, 0);
+
+    @Test
+    void onTaskChange_ShouldTrackCreatesStatusChangesAndDeletes() {
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(1L, TaskStatus.TODO, today.minusDays(2))));
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(2L, TaskStatus.TODO, today.plusDays(1))));
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(3L, TaskStatus.IN_PROGRESS, null)));
+
+        taskStatsService.onTaskChange(TaskChangeEvent.statusChanged(
+                new TaskSnapshot(TaskStatus.TODO, today.plusDays(1), 0L),
+                task(2L, TaskStatus.COMPLETED, today.plusDays(1))));
+        taskStatsService.onTaskChange(TaskChangeEvent.deleted(3L,
+                new TaskSnapshot(TaskStatus.IN_PROGRESS, null, 0L)));
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getTotal()).isEqualTo(2);
+        assertThat(stats.getByStatus())
+                .containsEntry(TaskStatus.TODO, 1L)
+                .containsEntry(TaskStatus.COMPLETED, 1L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 0L);
+        assertThat(stats.getOverdue()).isEqualTo(1);
+        assertThat(stats.getDueByDay()).hasSize(TaskStatsService.DUE_DAYS_AHEAD)
+                .containsEntry(LocalDate.now().plusDays(1), 0L);
+    }
+
+    @Test
+    void onTaskChange_WhenDueDateMoves_ShouldMoveBetweenDays() {
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(1L, TaskStatus.TODO, today.minusDays(1))));
+
+        taskStatsService.onTaskChange(TaskChangeEvent.updated(
+                new TaskSnapshot(TaskStatus.TODO, today.minusDays(1), 0L),
+                task(1L, TaskStatus.IN_PROGRESS, today.plusDays(3))));
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getOverdue()).isZero();
+        assertThat(stats.getDueByDay()).containsEntry(LocalDate.now().plusDays(3), 1L);
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.IN_PROGRESS, 1L);
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftFromTheDatabase() {
+        // Counters think there are two TODOs, the table says one TODO and four CANCELLED
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(1L, TaskStatus.TODO, today)));
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(2L, TaskStatus.TODO, today)));
+        when(taskStore.countByStatus()).thenReturn(List.of(
+                statusCount(TaskStatus.TODO, 1), statusCount(TaskStatus.CANCELLED, 4)));
+        when(taskStore.countOpenByDueDay()).thenReturn(List.of(dayCount(LocalDate.now().minusDays(5), 1)));
+
+        taskStatsService.reconcile();
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getTotal()).isEqualTo(5);
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.TODO, 1L).containsEntry(TaskStatus.CANCELLED, 4L);
+        assertThat(stats.getOverdue()).isEqualTo(1);
+        assertThat(stats.getDueByDay()).containsEntry(LocalDate.now(), 0L);
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void reconcile_ShouldKeepChangesThatCommitWhileItQueries() {
+        when(taskStore.countByStatus()).thenAnswer(invocation -> {
+            // Committed after the GROUP BY read the table, so the query results don't include it
+            taskStatsService.onTaskChange(TaskChangeEvent.created(task(2L, TaskStatus.TODO, today.plusDays(2))));
+            return List.of(statusCount(TaskStatus.TODO, 1));
+        });
+        when(taskStore.countOpenByDueDay()).thenReturn(List.of(dayCount(LocalDate.now().plusDays(1), 1)));
+
+        taskStatsService.reconcile();
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.TODO, 2L);
+        assertThat(stats.getDueByDay())
+                .containsEntry(LocalDate.now().plusDays(1), 1L)
+                .containsEntry(LocalDate.now().plusDays(2), 1L);
+    }
+
+    @Test
+    void reconcile_ShouldNotCountChangesTheQueriesAlreadySawAgain() {
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(1L, TaskStatus.TODO, null)));
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(2L, TaskStatus.TODO, null)));
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(3L, TaskStatus.TODO, null)));
+        when(taskStore.countByStatus()).thenAnswer(invocation -> {
+            // 1 and 3 committed before the queries read the table, 2 and 4 after - all four heard about during
+            taskStatsService.onTaskChange(TaskChangeEvent.statusChanged(new TaskSnapshot(TaskStatus.TODO, null, 0L),
+                    task(1L, TaskStatus.COMPLETED, null, 1L)));
+            taskStatsService.onTaskChange(TaskChangeEvent.deleted(3L, new TaskSnapshot(TaskStatus.TODO, null, 0L)));
+            taskStatsService.onTaskChange(TaskChangeEvent.statusChanged(new TaskSnapshot(TaskStatus.TODO, null, 0L),
+                    task(2L, TaskStatus.IN_PROGRESS, null, 1L)));
+            taskStatsService.onTaskChange(TaskChangeEvent.created(task(4L, TaskStatus.TODO, null)));
+            return List.of(statusCount(TaskStatus.TODO, 1), statusCount(TaskStatus.COMPLETED, 1));
+        });
+        when(taskStore.countOpenByDueDay()).thenReturn(List.of());
+        when(taskStore.findResponsesByIdIn(any())).thenReturn(List.of(
+                task(1L, TaskStatus.COMPLETED, null, 1L), task(2L, TaskStatus.TODO, null, 0L)));
+
+        taskStatsService.reconcile();
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(stats.getByStatus())
+                .containsEntry(TaskStatus.TODO, 1L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 1L)
+                .containsEntry(TaskStatus.COMPLETED, 1L);
+    }
+
+    @Test
+    void reconcile_WhileStatusesChangeConcurrently_ShouldMatchTheTableAfterwards() throws Exception {
+        int tasks = 200;
+        // Stands in for the tasks table: a write commits under its lock, then its listener runs
+        Map<Long, TaskResponse> table = new HashMap<>();
+        for (long id = 1; id <= tasks; id++) {
+            TaskResponse task = task(id, TaskStatus.TODO, today.plusDays(id % 3));
+            table.put(id, task);
+            taskStatsService.onTaskChange(TaskChangeEvent.created(task));
+        }
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch halfDone = new CountDownLatch(tasks / 2);
+        AtomicReference<Map<Long, TaskResponse>> snapshot = new AtomicReference<>();
+        when(taskStore.countByStatus()).thenAnswer(invocation -> {
+            // Half the tasks move before the queries read the table and the rest while they run
+            go.countDown();
+            assertThat(halfDone.await(5, TimeUnit.SECONDS)).isTrue();
+            synchronized (table) {
+                snapshot.set(Map.copyOf(table));
+            }
+            Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+            snapshot.get().values().forEach(task -> counts.merge(task.getStatus(), 1L, Long::sum));
+            return counts.entrySet().stream().map(entry -> statusCount(entry.getKey(), entry.getValue())).toList();
+        });
+        when(taskStore.countOpenByDueDay()).thenAnswer(invocation -> {
+            Map<LocalDate, Long> counts = new HashMap<>();
+            snapshot.get().values().stream()
+                    .filter(task -> TaskStatsService.OPEN.contains(task.getStatus()))
+                    .forEach(task -> counts.merge(task.getDueDate().toLocalDate(), 1L, Long::sum));
+            return counts.entrySet().stream().map(entry -> dayCount(entry.getKey(), entry.getValue())).toList();
+        });
+        when(taskStore.findResponsesByIdIn(any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(snapshot.get()::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        for (long id = 1; id <= tasks; id++) {
+            long taskId = id;
+            writers.submit(() -> {
+                go.await();
+                moveTo(table, taskId, TaskStatus.IN_PROGRESS);
+                moveTo(table, taskId, TaskStatus.COMPLETED);
+                halfDone.countDown();
+                return null;
+            });
+        }
+        taskStatsService.reconcile();
+        writers.shutdown();
+        assertThat(writers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getTotal()).isEqualTo(tasks);
+        assertThat(stats.getByStatus())
+                .containsEntry(TaskStatus.TODO, 0L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 0L)
+                .containsEntry(TaskStatus.COMPLETED, (long) tasks);
+        assertThat(stats.getOverdue()).isZero();
+        assertThat(stats.getDueByDay().values()).containsOnly(0L);
+    }
+
+    @Test
+    void reconcile_ShouldDropDaysTheTableNoLongerHas() {
+        taskStatsService.onTaskChange(TaskChangeEvent.created(task(1L, TaskStatus.TODO, today.minusDays(3))));
+        when(taskStore.countByStatus()).thenReturn(List.of(statusCount(TaskStatus.COMPLETED, 1)));
+        when(taskStore.countOpenByDueDay()).thenReturn(List.of());
+
+        taskStatsService.reconcile();
+
+        TaskStats stats = taskStatsService.getStats();
+        assertThat(stats.getOverdue()).isZero();
+        assertThat(stats.getByStatus()).containsEntry(TaskStatus.TODO, 0L).containsEntry(TaskStatus.COMPLETED, 1L);
+    }
+
+    private TaskResponse task(Long id, TaskStatus status, LocalDateTime dueDate) {
+        return task(id, status, dueDate, 0L);
+    }
+
+    private TaskResponse task(Long id, TaskStatus status, LocalDateTime dueDate, long version) {
+        return new TaskResponse(id, "Task " + id, null, status, dueDate, today, today, version);
+    }
+
+    private void moveTo(Map<Long, TaskResponse> table, long id, TaskStatus status) {
+        TaskResponse before;
+        TaskResponse after;
+        synchronized (table) {
+            before = table.get(id);
+            after = task(id, status, before.getDueDate(), before.getVersion() + 1);
+            table.put(id, after);
+        }
+        taskStatsService.onTaskChange(TaskChangeEvent.statusChanged(TaskSnapshot.of(before), after));
+    }
+
+    private TaskStore.StatusCount statusCount(TaskStatus status, long count) {
+        return new TaskStore.StatusCount() {
+            @Override
+            public TaskStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private TaskStore.DayCount dayCount(LocalDate day, long count) {
+        return new TaskStore.DayCount() {
+            @Override
+            public LocalDate getDay() {
+                return day;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
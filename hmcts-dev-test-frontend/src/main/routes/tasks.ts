@@ -13,12 +13,19 @@ const API_BASE_URL = process.env.API_BASE_URL || 'http://localhost:8080/api';
  * - Comprehensive error handling because things go wrong
  */
 export default function (app: Application): void {
-  // List all tasks
+  // List tasks a page at a time - the API hands back the next page's cursor in a header,
+  // and we pass it straight through as ?cursor= on the "Next page" link
   app.get('/tasks', async (req, res) => {
     try {
-      const response = await axios.get(`${API_BASE_URL}/tasks`);
+      const cursor = typeof req.query.cursor === 'string' ? req.query.cursor : '';
+      const url = cursor
+        ? `${API_BASE_URL}/tasks?cursor=${encodeURIComponent(cursor)}`
+        : `${API_BASE_URL}/tasks`;
+      const response = await axios.get(url);
       res.render('tasks/list', { 
         tasks: response.data,
+        nextCursor: response.headers?.['x-next-cursor'],
+        firstPage: !cursor,
         title: 'Task Management System'
       });
     } catch (error) {
@@ -36,6 +36,32 @@ describe('Task Routes', () => {
       expect(mockedAxios.get).toHaveBeenCalledWith('http://localhost:8080/api/tasks');
     });
 
+    it('should link to the next page when the API says there is one', async () => {
+      mockedAxios.get.mockResolvedValue({
+        data: [{ id: 1, title: 'Test Task', status: 'TODO' }],
+        headers: { 'x-next-cursor': 'abc+/=' }
+      });
+
+      const response = await request(app)
+        .get('/tasks')
+        .expect(200);
+
+      expect(response.text).toContain('Next page');
+      expect(response.text).toContain('/tasks?cursor=abc%2B%2F%3D');
+    });
+
+    it('should pass the cursor through to the API and stop at the last page', async () => {
+      mockedAxios.get.mockResolvedValue({ data: [{ id: 2, title: 'Later Task', status: 'TODO' }], headers: {} });
+
+      const response = await request(app)
+        .get('/tasks?cursor=abc%2B%2F%3D')
+        .expect(200);
+
+      expect(mockedAxios.get).toHaveBeenCalledWith('http://localhost:8080/api/tasks?cursor=abc%2B%2F%3D');
+      expect(response.text).not.toContain('Next page');
+      expect(response.text).toContain('First page');
+    });
+
     it('should handle API error gracefully', async () => {
       mockedAxios.get.mockRejectedValue(new Error('API Error'));
 